@@ -0,0 +1,62 @@
+package com.bahubba.bahubbabookclub.benchmark;
+
+import com.bahubba.bahubbabookclub.model.entity.User;
+import com.bahubba.bahubbabookclub.model.enums.Role;
+import com.bahubba.bahubbabookclub.service.impl.JwtServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Shared benchmark state: a {@link JwtServiceImpl} wired the way the app wires it (minus the DB, which the hot path
+ * doesn't touch), a realistic user and a token issued for them
+ */
+@State(Scope.Benchmark)
+public class AuthBenchmarkState {
+
+    public static final String AUTH_COOKIE_NAME = "bbcm_auth";
+
+    /** Whether principal claims are signed into the token, which also makes the token bigger */
+    @Param({"false", "true"})
+    public boolean statelessPrincipal;
+
+    public JwtServiceImpl jwtService;
+    public User user;
+    public String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same shape as BOOK_CLUB_SECRET_KEY: a base64 encoded 512 bit key
+        byte[] key = new byte[64];
+        new SecureRandom().nextBytes(key);
+
+        jwtService = new JwtServiceImpl(null, null, null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(
+                jwtService, "secretKey", Base64.getEncoder().encodeToString(key));
+        ReflectionTestUtils.setField(jwtService, "authCookieName", AUTH_COOKIE_NAME);
+        ReflectionTestUtils.setField(jwtService, "refreshCookieName", "bbcm_refresh");
+        ReflectionTestUtils.setField(jwtService, "verifiedTokenCacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(jwtService, "statelessPrincipal", statelessPrincipal);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("bookworm_reader42")
+                .email("bookworm.reader42@example.com")
+                .givenName("Jordan")
+                .surname("Reader")
+                .joined(LocalDateTime.now())
+                .role(Role.USER)
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3pz7D3eYbS9FZ2x7bYfV9Km")
+                .build();
+        token = jwtService.generateJwtCookie(user).getValue();
+    }
+}
@@ -0,0 +1,159 @@
+package com.bahubba.bahubbabookclub.benchmark;
+
+import com.bahubba.bahubbabookclub.model.dto.BookClubDTO;
+import com.bahubba.bahubbabookclub.model.dto.BookClubMembershipDTO;
+import com.bahubba.bahubbabookclub.model.dto.S3ImageDTO;
+import com.bahubba.bahubbabookclub.model.entity.BookClub;
+import com.bahubba.bahubbabookclub.model.entity.BookClubMembership;
+import com.bahubba.bahubbabookclub.model.mapper.BookClubMapper;
+import com.bahubba.bahubbabookclub.model.mapper.BookClubMapperImpl;
+import com.bahubba.bahubbabookclub.model.mapper.BookClubMembershipMapper;
+import com.bahubba.bahubbabookclub.model.mapper.BookClubMembershipMapperImpl;
+import com.bahubba.bahubbabookclub.model.mapper.custom.BookClubImageMapper;
+import com.bahubba.bahubbabookclub.util.ImageUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Cost of adding image URLs to a page of book clubs, through an {@code @AfterReturning} aspect on a service proxy as
+ * it used to be done versus inside the mappers, plus what the proxy alone costs calls the aspect never applies to.
+ * Every invocation runs as its own request, so the per-request image memo starts empty each time.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BookClubMappingBenchmark {
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    private Page<BookClub> entityPage;
+    private Page<BookClubMembership> membershipPage;
+    private BookClubMapper bookClubMapper;
+    private BookClubMembershipMapper bookClubMembershipMapper;
+    private BookClubPageService directService;
+    private BookClubPageService proxiedService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Most clubs pick from a handful of stock images
+        List<BookClub> bookClubs = new ArrayList<>();
+        List<BookClubMembership> memberships = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            BookClub bookClub = BookClub.builder()
+                    .id(UUID.randomUUID())
+                    .name("Book Club " + i)
+                    .imageFileName("stock-" + (i % 5) + ".jpg")
+                    .description("A book club")
+                    .build();
+            bookClubs.add(bookClub);
+            memberships.add(BookClubMembership.builder().bookClub(bookClub).build());
+        }
+        entityPage = new PageImpl<>(bookClubs);
+        membershipPage = new PageImpl<>(memberships);
+
+        bookClubMapper = new BookClubMapperImpl(new BookClubImageMapper(new SimpleMeterRegistry()));
+        bookClubMembershipMapper = new BookClubMembershipMapperImpl(bookClubMapper);
+
+        directService = new BookClubPageService(entityPage);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new BookClubPageService(entityPage));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new LegacyBookClubAspect());
+        proxiedService = proxyFactory.getProxy();
+    }
+
+    /** Before: the service maps without images, then the aspect fills them in on the way out of the proxy */
+    @Benchmark
+    public Page<BookClubDTO> aspectEnrichedPage() {
+        return inRequest(proxiedService::findAll);
+    }
+
+    /** After: the mapper resolves each image as it maps, memoized for the request */
+    @Benchmark
+    public Page<BookClubDTO> mapperEnrichedPage() {
+        return inRequest(() -> entityPage.map(bookClubMapper::entityToDTO));
+    }
+
+    /** After: nested book clubs cost the same, where the aspect never reached them at all */
+    @Benchmark
+    public Page<BookClubMembershipDTO> mapperEnrichedMembershipPage() {
+        return inRequest(() -> membershipPage.map(bookClubMembershipMapper::entityToDTO));
+    }
+
+    /** Before: every service call went through the proxy, whether or not the aspect applied */
+    @Benchmark
+    public UUID proxiedCall() {
+        return proxiedService.findID();
+    }
+
+    @Benchmark
+    public UUID directCall() {
+        return directService.findID();
+    }
+
+    private static <T> T inRequest(Supplier<T> work) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            return work.get();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    /** Stands in for the book club service, mapping entities the way it did before mapper-level image resolution */
+    public static class BookClubPageService {
+        private final Page<BookClub> entityPage;
+        private final UUID id = UUID.randomUUID();
+
+        public BookClubPageService(Page<BookClub> entityPage) {
+            this.entityPage = entityPage;
+        }
+
+        public Page<BookClubDTO> findAll() {
+            return entityPage.map(bookClub -> BookClubDTO.builder()
+                    .id(bookClub.getId())
+                    .name(bookClub.getName())
+                    .image(S3ImageDTO.builder()
+                            .fileName(bookClub.getImageFileName())
+                            .build())
+                    .description(bookClub.getDescription())
+                    .build());
+        }
+
+        public UUID findID() {
+            return id;
+        }
+    }
+
+    /** The aspect that used to add image URLs to pages of book clubs returned by the services */
+    @Aspect
+    public static class LegacyBookClubAspect {
+        @AfterReturning(
+                pointcut =
+                        "execution(org.springframework.data.domain.Page<com.bahubba.bahubbabookclub.model.dto.BookClubDTO> com.bahubba.bahubbabookclub.benchmark..*.*(..))",
+                returning = "bookClubDTOs")
+        public void addImageURL(Page<BookClubDTO> bookClubDTOs) {
+            Map<String, S3ImageDTO> images = new HashMap<>();
+            bookClubDTOs.forEach(bookClubDTO -> bookClubDTO.setImage(
+                    images.computeIfAbsent(bookClubDTO.getImage().getFileName(), ImageUtil::getBookClubImage)));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.bahubba.bahubbabookclub.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseCookie;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Throughput of issuing and verifying access tokens */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtParser jwtParser;
+    private Claims claims;
+
+    @Setup(Level.Trial)
+    public void setUp(AuthBenchmarkState state) {
+        jwtParser = (JwtParser) ReflectionTestUtils.getField(state.jwtService, "jwtParser");
+        claims = state.jwtService.verifyToken(state.token);
+    }
+
+    /** Signs a new token (generateToken), plus building its cookie */
+    @Benchmark
+    public ResponseCookie generateToken(AuthBenchmarkState state) {
+        return state.jwtService.generateJwtCookie(state.user);
+    }
+
+    /** Full parse and signature check of a token, as on a verified token cache miss */
+    @Benchmark
+    public Claims verifyTokenUncached(AuthBenchmarkState state) {
+        return jwtParser.parseClaimsJws(state.token).getBody();
+    }
+
+    /** Token verification as the auth filter sees it, served from the verified token cache */
+    @Benchmark
+    public Claims verifyTokenCached(AuthBenchmarkState state) {
+        return state.jwtService.verifyToken(state.token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid(AuthBenchmarkState state) {
+        return state.jwtService.isTokenValid(claims, state.user);
+    }
+}
@@ -1,14 +1,19 @@
 package com.bahubba.bahubbabookclub.config;
 
 import com.bahubba.bahubbabookclub.repository.UserRepo;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -20,33 +25,57 @@ import springfox.documentation.spring.web.plugins.Docket;
 /** Configures beans to be used within the application */
 @Configuration
 @PropertySource("classpath:application.yaml")
+@EnableScheduling
 @RequiredArgsConstructor
 public class AppConfig {
 
+    @Value("${app.properties.password_hashing.strength}")
+    private int passwordHashingStrength;
+
+    @Value("${app.properties.password_hashing.pool_size}")
+    private int passwordHashingPoolSize;
+
+    @Value("${app.properties.password_hashing.queue_capacity}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${app.properties.password_hashing.retry_after_seconds}")
+    private long passwordHashingRetryAfterSeconds;
+
     private final UserRepo userRepo;
+    private final UserCache userCache;
 
     /**
-     * Creates a UserDetailsService for loading users by username
+     * Creates a UserDetailsService for loading users by username, backed by the principal cache. It always hands out a
+     * detached copy without the password hash, hit or miss, so this is only for establishing the security context of
+     * already authenticated requests
      *
      * @return UserDetailsService
      * @throws UsernameNotFoundException If user is not found
      */
     @Bean
     public UserDetailsService userDetailsService() throws UsernameNotFoundException {
-        return username -> userRepo.findByUsernameAndDepartedIsNull(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return username -> {
+            UserDetails cachedUser = userCache.getUserFromCache(username);
+            if (cachedUser != null) {
+                return cachedUser;
+            }
+
+            // The entity with its hash is only for checking passwords; requests get the same copy a hit would
+            return CaffeineUserCache.snapshotOf(loadUserByUsername(username));
+        };
     }
 
     /**
-     * Creates an AuthenticationProvider
+     * Creates an AuthenticationProvider, which always checks passwords against the DB rather than the principal cache
      *
+     * @param passwordEncoder password encoder
      * @return AuthenticationProvider
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsService(this::loadUserByUsername);
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -63,13 +92,35 @@ public class AppConfig {
     }
 
     /**
-     * Creates a password encoder
+     * Creates a password encoder that does its BCrypt hashing on a dedicated, bounded pool
      *
+     * @param meterRegistry registry for the hashing pool's metrics
      * @return PasswordEncoder
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(passwordHashingStrength),
+                passwordHashingPoolSize > 0
+                        ? passwordHashingPoolSize
+                        : Runtime.getRuntime().availableProcessors(),
+                passwordHashingQueueCapacity,
+                passwordHashingRetryAfterSeconds,
+                meterRegistry);
+    }
+
+    /**
+     * Loads a (non-departed) user from the DB, and (re)populates the principal cache with them
+     *
+     * @param username The user's username
+     * @return The user
+     * @throws UsernameNotFoundException If user is not found
+     */
+    private UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails user = userRepo.findByUsernameAndDepartedIsNull(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        userCache.putUserInCache(user);
+        return user;
     }
 
     /** Custom Swagger configuration */
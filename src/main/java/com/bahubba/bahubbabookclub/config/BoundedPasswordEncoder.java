@@ -0,0 +1,124 @@
+package com.bahubba.bahubbabookclub.config;
+
+import com.bahubba.bahubbabookclub.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} that runs the (deliberately slow) hashing of its delegate on a dedicated, bounded pool. A
+ * login burst can then only tie up as many request threads as the pool and its queue hold; anything beyond that is
+ * rejected straight away with a {@link PasswordHashingUnavailableException} instead of starving the rest of the API.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    /**
+     * Constructor
+     *
+     * @param delegate The encoder doing the actual hashing
+     * @param poolSize Number of hashing threads
+     * @param queueCapacity Number of hashing requests allowed to wait for a thread
+     * @param retryAfterSeconds How long rejected clients are told to wait before retrying
+     * @param meterRegistry Registry for the queue depth and hash latency metrics
+     */
+    public BoundedPasswordEncoder(
+            PasswordEncoder delegate,
+            int poolSize,
+            int queueCapacity,
+            long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password-hashing.queue", executor, pool -> pool.getQueue()
+                        .size())
+                .description("Password hashing requests waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password-hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing threads currently busy")
+                .register(meterRegistry);
+        encodeTimer = Timer.builder("auth.password-hashing.latency")
+                .tag("operation", "encode")
+                .description("Time spent hashing passwords")
+                .register(meterRegistry);
+        matchesTimer = Timer.builder("auth.password-hashing.latency")
+                .tag("operation", "matches")
+                .description("Time spent hashing passwords")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        Callable<String> task = () -> delegate.encode(rawPassword);
+        return submit(encodeTimer.wrap(task));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Callable<Boolean> task = () -> delegate.matches(rawPassword, encodedPassword);
+        return submit(matchesTimer.wrap(task));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a hashing task on the pool and waits for its result
+     *
+     * @param task The hashing task
+     * @return The task's result
+     * @throws PasswordHashingUnavailableException If the pool's queue is full
+     */
+    private <T> T submit(Callable<T> task) throws PasswordHashingUnavailableException {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingUnavailableException(retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.bahubba.bahubbabookclub.config;
+
+import com.bahubba.bahubbabookclub.model.entity.User;
+import com.bahubba.bahubbabookclub.model.enums.Role;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived, size-bounded cache of security principals by username, so that steady-state authenticated traffic
+ * doesn't need a DB query to establish the security context.
+ *
+ * <p>Entries are immutable snapshots of the user's own columns, without the password hash or (lazy) associations,
+ * and every hit hands out a fresh, detached {@link User} built from one. Eviction on update is node-local (see
+ * {@link com.bahubba.bahubbabookclub.model.listener.UserCacheEvictionListener}), so with several instances a change
+ * can take up to the TTL to reach the others
+ */
+@Component
+public class CaffeineUserCache implements UserCache {
+
+    private final Cache<String, CachedUser> cache;
+
+    public CaffeineUserCache(
+            @Value("${app.properties.principal_cache.ttl_seconds}") long ttlSeconds,
+            @Value("${app.properties.principal_cache.max_size}") long maxSize,
+            MeterRegistry meterRegistry) {
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "security.principals");
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        if (username == null) {
+            return null;
+        }
+
+        CachedUser cachedUser = cache.getIfPresent(username);
+        return cachedUser == null ? null : cachedUser.toUser();
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        // Only our own users can be snapshotted
+        if (user instanceof User appUser) {
+            cache.put(appUser.getUsername(), CachedUser.of(appUser));
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    /**
+     * Makes the same detached, hash-free copy of a user that a cache hit hands out
+     *
+     * @param user The user, usually a managed entity
+     * @return The copy, or the user as is if it isn't one of ours
+     */
+    static UserDetails snapshotOf(UserDetails user) {
+        return user instanceof User appUser ? CachedUser.of(appUser).toUser() : user;
+    }
+
+    /** Immutable snapshot of a {@link User}'s columns, minus the password hash */
+    private record CachedUser(
+            UUID id,
+            String username,
+            String email,
+            String givenName,
+            String middleName,
+            String surname,
+            String suffix,
+            String title,
+            LocalDateTime joined,
+            LocalDateTime departed,
+            Role role) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(
+                    user.getId(),
+                    user.getUsername(),
+                    user.getEmail(),
+                    user.getGivenName(),
+                    user.getMiddleName(),
+                    user.getSurname(),
+                    user.getSuffix(),
+                    user.getTitle(),
+                    user.getJoined(),
+                    user.getDeparted(),
+                    user.getRole());
+        }
+
+        User toUser() {
+            return User.builder()
+                    .id(id)
+                    .username(username)
+                    .email(email)
+                    .givenName(givenName)
+                    .middleName(middleName)
+                    .surname(surname)
+                    .suffix(suffix)
+                    .title(title)
+                    .joined(joined)
+                    .departed(departed)
+                    .role(role)
+                    .build();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.bahubba.bahubbabookclub.config;
 
 import com.bahubba.bahubbabookclub.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -53,16 +55,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain)
             throws UsernameNotFoundException, ServletException, IOException {
         final String jwt = jwtService.getJwtFromCookies(request);
-        final String username;
+        final Claims claims;
 
         if (jwt == null || "".equals(jwt)) {
             filterChain.doFilter(request, response);
             return;
         }
-        username = jwtService.extractUsername(jwt);
+
+        // Parse and verify the token once; a bad or expired token leaves the request unauthenticated
+        try {
+            claims = jwtService.verifyToken(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final String username = claims.getSubject();
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            // In stateless principal mode the principal comes straight from the token; otherwise load the user
+            UserDetails userDetails;
+            try {
+                userDetails = jwtService.extractPrincipal(claims);
+            } catch (JwtException e) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            if (userDetails == null) {
+                userDetails = userDetailsService.loadUserByUsername(username);
+            }
+
+            if (jwtService.isTokenValid(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
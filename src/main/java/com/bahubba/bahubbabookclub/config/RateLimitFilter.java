@@ -0,0 +1,268 @@
+package com.bahubba.bahubbabookclub.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Rate limits the expensive routes configured in {@link RateLimitProperties} with per-client token buckets, one keyed
+ * by client IP and one by username. A request must get a token from both buckets; otherwise it's rejected with a 429
+ * and a Retry-After header.
+ *
+ * <p>The client IP is the request's remote address, which relies on {@code server.forward-headers-strategy} resolving
+ * it from a trusted proxy's X-Forwarded-For when the app sits behind one; otherwise every client shares the proxy's
+ * bucket. The username comes from the security context, or from the body of login and registration requests; as
+ * anyone can put any username in a body, those buckets are keyed on the IP too, so one client can't lock another out.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Login and registration bodies are tiny, don't buffer anything bigger looking for a username
+    private static final int MAX_BUFFERED_BODY_BYTES = 8 * 1024;
+    private static final List<String> USERNAME_FIELDS = List.of("usernameOrEmail", "username");
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter ipRejections;
+    private final Counter usernameRejections;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleEviction())
+                .maximumSize(properties.getMaxBuckets())
+                .build();
+        ipRejections = Counter.builder("http.rate-limit.rejections")
+                .tag("key", "ip")
+                .description("Requests rejected by the rate limiter")
+                .register(meterRegistry);
+        usernameRejections = Counter.builder("http.rate-limit.rejections")
+                .tag("key", "username")
+                .description("Requests rejected by the rate limiter")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled() || matchRoute(request) < 0;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        int routeIndex = matchRoute(request);
+        RateLimitProperties.Route route = properties.getRoutes().get(routeIndex);
+
+        long waitNanos =
+                bucket(routeIndex + ":ip:" + request.getRemoteAddr(), route).tryAcquire();
+        if (waitNanos > 0L) {
+            ipRejections.increment();
+            reject(response, waitNanos);
+            return;
+        }
+
+        // Unauthenticated routes carry the username in the body, which then has to be replayed downstream
+        HttpServletRequest requestToUse = request;
+        String usernameKey = null;
+        String username = authenticatedUsername();
+        if (username != null) {
+            usernameKey = routeIndex + ":user:" + username.toLowerCase();
+        } else if (request.getContentLength() > 0 && request.getContentLength() <= MAX_BUFFERED_BODY_BYTES) {
+            CachedBodyRequest cachedBodyRequest = new CachedBodyRequest(request);
+            requestToUse = cachedBodyRequest;
+            username = bodyUsername(cachedBodyRequest.body);
+            if (username != null) {
+                usernameKey = routeIndex + ":user:" + username.toLowerCase() + ":ip:" + request.getRemoteAddr();
+            }
+        }
+
+        if (usernameKey != null) {
+            waitNanos = bucket(usernameKey, route).tryAcquire();
+            if (waitNanos > 0L) {
+                usernameRejections.increment();
+                reject(response, waitNanos);
+                return;
+            }
+        }
+
+        filterChain.doFilter(requestToUse, response);
+    }
+
+    /**
+     * Finds the first configured route matching a request
+     *
+     * @param request HTTP request from the client
+     * @return The index of the matching route, or -1 if none match
+     */
+    private int matchRoute(HttpServletRequest request) {
+        List<RateLimitProperties.Route> routes = properties.getRoutes();
+        for (int i = 0; i < routes.size(); i++) {
+            RateLimitProperties.Route route = routes.get(i);
+            if ((route.getMethod() == null || route.getMethod().equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(route.getPath(), request.getRequestURI())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private TokenBucket bucket(String key, RateLimitProperties.Route route) {
+        return buckets.get(key, k -> new TokenBucket(route));
+    }
+
+    private static String authenticatedUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : null;
+    }
+
+    private String bodyUsername(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            for (String field : USERNAME_FIELDS) {
+                JsonNode value = json.get(field);
+                if (value != null && value.isTextual() && !value.asText().isBlank()) {
+                    return value.asText();
+                }
+            }
+        } catch (IOException e) {
+            // Not JSON, leave it to the controller to reject
+        }
+        return null;
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(
+                HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1L)));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too many requests, please try again later");
+    }
+
+    /**
+     * Lock-free token bucket, tracked as the theoretical arrival time of the next request (the generic cell rate
+     * algorithm). Each request pushes that time out by one emission interval and is allowed as long as it stays within
+     * the burst capacity of now, so a single CAS on one long does the work of refilling and taking a token.
+     */
+    static class TokenBucket {
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+        private final AtomicLong theoreticalArrival;
+
+        TokenBucket(RateLimitProperties.Route route) {
+            emissionIntervalNanos = Math.max(1L, route.getRefillPeriod().toNanos() / route.getRefillTokens());
+            burstNanos = emissionIntervalNanos * route.getCapacity();
+            theoreticalArrival = new AtomicLong(System.nanoTime());
+        }
+
+        /**
+         * Tries to take a token
+         *
+         * @return 0 if a token was taken, otherwise how long until one is available in nanoseconds
+         */
+        long tryAcquire() {
+            while (true) {
+                long now = System.nanoTime();
+                long current = theoreticalArrival.get();
+                long next = Math.max(current, now) + emissionIntervalNanos;
+                long overshoot = next - now - burstNanos;
+                if (overshoot > 0L) {
+                    return overshoot;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return 0L;
+                }
+            }
+        }
+    }
+
+    /** Request wrapper that reads the body once up front and replays it to downstream readers */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            body = request.getInputStream().readNBytes(MAX_BUFFERED_BODY_BYTES);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // The whole body is already in memory, so it's all available (and then all read) straight away
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(@NonNull byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(
+                    getInputStream(),
+                    getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8));
+        }
+    }
+}
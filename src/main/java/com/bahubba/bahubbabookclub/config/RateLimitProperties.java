@@ -0,0 +1,45 @@
+package com.bahubba.bahubbabookclub.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Per-route request rate limits, enforced by the {@link RateLimitFilter} */
+@Data
+@ConfigurationProperties(prefix = "app.properties.rate-limits")
+public class RateLimitProperties {
+
+    /** Whether rate limiting is enforced at all */
+    private boolean enabled = true;
+
+    /** How long a client's buckets can go unused before they're dropped */
+    private Duration idleEviction = Duration.ofMinutes(10);
+
+    /** Upper bound on the number of buckets held at once */
+    private long maxBuckets = 100_000L;
+
+    /** The rate-limited routes; requests matching none of them aren't limited */
+    private List<Route> routes = new ArrayList<>();
+
+    /** A rate-limited route, each client IP and each username (per IP, when unauthenticated) getting its own bucket */
+    @Data
+    public static class Route {
+
+        /** Ant-style path pattern for the route */
+        private String path;
+
+        /** HTTP method of the route, or any method when unset */
+        private String method;
+
+        /** Requests a client can burst before being limited */
+        private long capacity;
+
+        /** Requests a client regains every refill period */
+        private long refillTokens;
+
+        /** Period over which {@link #refillTokens} are regained */
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+}
@@ -1,14 +1,18 @@
 package com.bahubba.bahubbabookclub.config;
 
+import java.time.Duration;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 @Configuration
+@Profile("!local")
 public class S3Config {
     @Value("${aws.region.static}")
     private String region;
@@ -16,11 +20,25 @@ public class S3Config {
     @Value("${aws.credentials.profile-name}")
     private String profileName;
 
+    @Value("${app.properties.s3.transfer_timeout_millis}")
+    private long transferTimeoutMillis;
+
+    @Value("${app.properties.s3.attempt_timeout_millis}")
+    private long attemptTimeoutMillis;
+
+    /**
+     * S3 client whose calls are bounded by default, so nothing can hold a request thread indefinitely. Operations set
+     * tighter per-call timeouts of their own in {@link com.bahubba.bahubbabookclub.service.impl.S3ServiceImpl}
+     */
     @Bean
     public S3Client s3Client() {
         return S3Client.builder()
                 .region(Region.of(region))
                 .credentialsProvider(ProfileCredentialsProvider.create(profileName))
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .apiCallTimeout(Duration.ofMillis(transferTimeoutMillis))
+                        .apiCallAttemptTimeout(Duration.ofMillis(attemptTimeoutMillis))
+                        .build())
                 .build();
     }
 
@@ -1,7 +1,9 @@
 package com.bahubba.bahubbabookclub.config;
 
+import com.bahubba.bahubbabookclub.model.enums.Role;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -16,11 +18,13 @@ import org.springframework.web.cors.CorsConfiguration;
 /** Security configuration for the app */
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final AuthenticationProvider authenticationProvider;
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     /**
      * Sets up security for the application
@@ -54,12 +58,28 @@ public class SecurityConfig {
                 .sessionManagement(
                         sessionManagement -> sessionManagement.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorizeRequests -> authorizeRequests
-                        .requestMatchers("/v3/api-docs", "/v3/api-docs/**", "/swagger-ui/**", "/api/v1/auth/**")
+                        .requestMatchers(
+                                "/v3/api-docs",
+                                "/v3/api-docs/**",
+                                "/swagger-ui/**",
+                                "/api/v1/auth/**",
+                                // Book club images show on public listings, and public lets shared caches hold the
+                                // redirects. Uploaded ones are only served while a book club uses them
+                                "/api/v1/images/**",
+                                // Local stand-in for S3, authorized by the URL signature (local profile only)
+                                "/api/v1/local-s3/**",
+                                // Load balancer probes come in without credentials
+                                "/actuator/health",
+                                "/actuator/health/**")
                         .permitAll()
+                        .requestMatchers("/actuator/**")
+                        .hasAuthority(Role.ADMIN.name())
                         .anyRequest()
                         .authenticated())
                 .authenticationProvider(authenticationProvider)
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // After the JWT filter, so authenticated requests are also limited by username
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         return httpSecurity.build();
     }
 }
@@ -1,5 +1,6 @@
 package com.bahubba.bahubbabookclub.controller;
 
+import com.bahubba.bahubbabookclub.exception.PasswordHashingUnavailableException;
 import com.bahubba.bahubbabookclub.exception.TokenRefreshException;
 import com.bahubba.bahubbabookclub.exception.UserNotFoundException;
 import com.bahubba.bahubbabookclub.model.dto.AuthDTO;
@@ -90,6 +91,9 @@ public class AuthController {
                             .message("User authenticated successfully")
                             .data(authDTO.getUser())
                             .build());
+        } catch (PasswordHashingUnavailableException e) {
+            // Let the global exception handler tell the client to back off
+            throw e;
         } catch (BadCredentialsException e) {
             log.error("Login error: " + e);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -2,7 +2,10 @@ package com.bahubba.bahubbabookclub.controller;
 
 import com.bahubba.bahubbabookclub.exception.*;
 import com.bahubba.bahubbabookclub.model.dto.BookClubDTO;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
 import com.bahubba.bahubbabookclub.model.dto.S3ImageDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.payload.BookClubPayload;
 import com.bahubba.bahubbabookclub.model.payload.BookClubSearch;
 import com.bahubba.bahubbabookclub.service.BookClubService;
@@ -13,8 +16,10 @@ import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 /** Book Club endpoints */
 @RestController
@@ -106,6 +111,48 @@ public class BookClubController {
         return ResponseEntity.ok(bookClubService.findAllForUser(pageNum, pageSize));
     }
 
+    /**
+     * Retrieves all book clubs for a given user without counting them all, optionally with an estimated total
+     *
+     * @param pageNum Page number for results
+     * @param pageSize Number of results per page, clamped to between 1 and 50
+     * @param totals NONE for no total, or ESTIMATED for an approximate one
+     * @return A page of book clubs that the requesting user has a role in
+     * @throws UserNotFoundException The user wasn't found in the DB
+     */
+    @GetMapping(
+            value = "/all-for-user",
+            params = {"totals", "!cursor"})
+    @Operation(
+            summary = "Get All for User without Counting",
+            description = "Retrieves all book clubs for a given user, without an exact total")
+    public ResponseEntity<SliceDTO<BookClubDTO>> getAllForUser(
+            @RequestParam int pageNum, @RequestParam int pageSize, @RequestParam PageTotals totals)
+            throws UserNotFoundException {
+
+        return ResponseEntity.ok(bookClubService.findAllForUser(pageNum, pageSize, totals));
+    }
+
+    /**
+     * Retrieves all book clubs for a given user, a keyset page at a time
+     *
+     * @param cursor Cursor from the previous page, or blank for the first page
+     * @param pageSize Number of results per page, clamped to between 1 and 50
+     * @return A page of book clubs that the requesting user has a role in, with the cursor for the next
+     * @throws UserNotFoundException The user wasn't found in the DB
+     * @throws InvalidCursorException The cursor wasn't one issued by the API
+     */
+    @GetMapping(value = "/all-for-user", params = "cursor")
+    @Operation(
+            summary = "Get All for User by Cursor",
+            description = "Retrieves all book clubs for a given user, a keyset page at a time")
+    public ResponseEntity<CursorPageDTO<BookClubDTO>> getAllForUser(
+            @RequestParam String cursor, @RequestParam(defaultValue = "10") int pageSize)
+            throws UserNotFoundException, InvalidCursorException {
+
+        return ResponseEntity.ok(bookClubService.findAllForUser(cursor, pageSize));
+    }
+
     // TODO - pre-authorize this endpoint to only allow admins to access it
     /**
      * Retrieves all book clubs
@@ -122,6 +169,41 @@ public class BookClubController {
         return ResponseEntity.ok(bookClubService.findAll(pageNum, pageSize));
     }
 
+    /**
+     * Retrieves all book clubs without counting them all, optionally with an estimated total
+     *
+     * @param pageNum Page number for results
+     * @param pageSize Number of results per page, clamped to between 1 and 50
+     * @param totals NONE for no total, or ESTIMATED for an approximate one
+     * @return A page of book clubs
+     */
+    @GetMapping(
+            value = "/all",
+            params = {"totals", "!cursor"})
+    @Operation(summary = "Get All without Counting", description = "Retrieves all book clubs, without an exact total")
+    public ResponseEntity<SliceDTO<BookClubDTO>> getAll(
+            @RequestParam int pageNum, @RequestParam int pageSize, @RequestParam PageTotals totals) {
+
+        return ResponseEntity.ok(bookClubService.findAll(pageNum, pageSize, totals));
+    }
+
+    /**
+     * Retrieves all book clubs, a keyset page at a time
+     *
+     * @param cursor Cursor from the previous page, or blank for the first page
+     * @param pageSize Number of results per page, clamped to between 1 and 50
+     * @return A page of book clubs, with the cursor for the next
+     * @throws InvalidCursorException The cursor wasn't one issued by the API
+     */
+    @GetMapping(value = "/all", params = "cursor")
+    @Operation(summary = "Get All by Cursor", description = "Retrieves all book clubs, a keyset page at a time")
+    public ResponseEntity<CursorPageDTO<BookClubDTO>> getAll(
+            @RequestParam String cursor, @RequestParam(defaultValue = "10") int pageSize)
+            throws InvalidCursorException {
+
+        return ResponseEntity.ok(bookClubService.findAll(cursor, pageSize));
+    }
+
     /**
      * Disbands (soft deletes) a book club
      *
@@ -176,6 +258,39 @@ public class BookClubController {
                 bookClubSearch.getSearchTerm(), bookClubSearch.getPageNum(), bookClubSearch.getPageSize()));
     }
 
+    /**
+     * Suggests book club names for type-ahead in the search box
+     *
+     * @param prefix What's been typed so far
+     * @param limit The maximum number of names to suggest, at most 20
+     * @return The names of matching book clubs
+     */
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest", description = "Suggests book club names starting with a prefix, for type-ahead")
+    public ResponseEntity<List<String>> suggest(
+            @RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(bookClubService.suggest(prefix, limit));
+    }
+
+    /**
+     * Uploads a custom image for a book club
+     *
+     * @param id The book club's ID
+     * @param image The image file
+     * @return The updated book club
+     * @throws UserNotFoundException The user was not found
+     * @throws BookClubNotFoundException The book club was not found where the reader was an active admin
+     * @throws BadBookClubActionException The image was empty or not of a supported type
+     */
+    @PostMapping(value = "/upload-image/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload Image", description = "Uploads a custom image for a book club")
+    public ResponseEntity<BookClubDTO> uploadImage(@PathVariable UUID id, @RequestPart MultipartFile image)
+            throws UserNotFoundException, BookClubNotFoundException, BadBookClubActionException {
+
+        return ResponseEntity.ok(bookClubService.uploadImage(id, image));
+    }
+
     /**
      * Gets pre-signed URLs for all stock book club images
      *
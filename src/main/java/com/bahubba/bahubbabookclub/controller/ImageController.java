@@ -0,0 +1,140 @@
+package com.bahubba.bahubbabookclub.controller;
+
+import com.bahubba.bahubbabookclub.service.BookClubService;
+import com.bahubba.bahubbabookclub.service.ImageVariantService;
+import com.bahubba.bahubbabookclub.service.S3Service;
+import com.bahubba.bahubbabookclub.service.StockImageCatalog;
+import com.bahubba.bahubbabookclub.service.StockImageMirror;
+import com.bahubba.bahubbabookclub.util.APIConstants;
+import com.bahubba.bahubbabookclub.util.ImageUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Image endpoints */
+@RestController
+@RequestMapping("/api/v1/images")
+@Tag(name = "Image Controller", description = "Image endpoints")
+@RequiredArgsConstructor
+public class ImageController {
+
+    // Pre-signed URLs are cached, but always have at least half their validity left when handed out
+    private static final Duration REDIRECT_MAX_AGE =
+            Duration.ofMinutes(APIConstants.BOOK_CLUB_IMAGE_URL_TIMEOUT_MINUTES).dividedBy(2);
+
+    // The URL isn't versioned, so a changed stock image is only picked up on revalidation (a cheap 304 otherwise)
+    private static final Duration MIRRORED_MAX_AGE = Duration.ofHours(1);
+
+    // Thumbnails are usually generated within seconds of being first asked for
+    private static final Duration THUMBNAIL_FALLBACK_MAX_AGE = Duration.ofMinutes(1);
+
+    // Uploaded images are named by the SHA-256 of their content
+    private static final Pattern CUSTOM_IMAGE_FILE_NAME = Pattern.compile("[0-9a-f]{64}\\.(png|jpg|gif|webp)");
+
+    private final S3Service s3Service;
+    private final BookClubService bookClubService;
+    private final StockImageCatalog stockImageCatalog;
+    private final ObjectProvider<StockImageMirror> stockImageMirror;
+    private final ImageVariantService imageVariantService;
+
+    /**
+     * Gets a stock book club image. With the local disk mirror enabled, mirrored originals are served straight from
+     * disk with their ETag (range and conditional requests are handled by Spring). Otherwise, this redirects to a
+     * pre-signed URL, the redirect itself being cacheable for as long as the pre-signed URL is guaranteed to stay
+     * valid, so clients hit the API once per image rather than once per response
+     *
+     * @param fileName The image's file name
+     * @param size The thumbnail size, if a thumbnail is wanted rather than the original
+     * @return The image, a redirect to it, or a 404 if it isn't a stock image or the size isn't a thumbnail size
+     */
+    @GetMapping("/book-clubs/{fileName}")
+    @Operation(summary = "Get Book Club Image", description = "Gets or redirects to a stock book club image")
+    public ResponseEntity<Resource> getBookClubImage(
+            @PathVariable String fileName, @RequestParam(required = false) Integer size) {
+        if (size == null) {
+            Optional<StockImageMirror.MirroredImage> mirrored =
+                    Optional.ofNullable(stockImageMirror.getIfAvailable()).flatMap(mirror -> mirror.getImage(fileName));
+            if (mirrored.isPresent()) {
+                return ResponseEntity.ok()
+                        .eTag(mirrored.get().eTag())
+                        .cacheControl(CacheControl.maxAge(MIRRORED_MAX_AGE).cachePublic())
+                        .contentType(MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                        .body(new FileSystemResource(mirrored.get().file()));
+            }
+        }
+
+        if (!stockImageCatalog.containsStockImage(fileName)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return redirect(fileName, size);
+    }
+
+    /**
+     * Redirects to a pre-signed URL for an uploaded book club image, cacheable like stock image redirects
+     *
+     * @param fileName The image's file name
+     * @param size The thumbnail size, if a thumbnail is wanted rather than the original
+     * @return A redirect to the image, or a 404 if the file name isn't that of an uploaded image a book club uses or
+     *     the size isn't a thumbnail size
+     */
+    @GetMapping("/book-clubs/custom/{fileName}")
+    @Operation(summary = "Get Custom Book Club Image", description = "Redirects to an uploaded book club image")
+    public ResponseEntity<Resource> getCustomBookClubImage(
+            @PathVariable String fileName, @RequestParam(required = false) Integer size) {
+        // Only sign URLs for (and queue thumbnails of) images that exist and are in use
+        if (!CUSTOM_IMAGE_FILE_NAME.matcher(fileName).matches()
+                || !bookClubService.isBookClubImage(APIConstants.CUSTOM_IMAGE_DIR + fileName)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return redirect(APIConstants.CUSTOM_IMAGE_DIR + fileName, size);
+    }
+
+    /**
+     * Redirects to a pre-signed URL for an image or its thumbnail. Until a thumbnail has been generated, this redirects
+     * to the original instead, only briefly cacheable so clients switch to the thumbnail once it's there
+     *
+     * @param fileName The image's file name, relative to the custom image directory for uploaded images
+     * @param size The thumbnail size, if a thumbnail is wanted rather than the original
+     * @return A redirect to the image, or a 404 if the size isn't a thumbnail size
+     */
+    private ResponseEntity<Resource> redirect(String fileName, Integer size) {
+        String key = ImageUtil.getBookClubImageKey(fileName);
+        Duration maxAge = REDIRECT_MAX_AGE;
+        if (size != null) {
+            if (!ImageUtil.isBookClubThumbnailSize(size)) {
+                return ResponseEntity.notFound().build();
+            }
+
+            Optional<String> variantKey = imageVariantService.getVariantKey(fileName, size);
+            if (variantKey.isPresent()) {
+                key = variantKey.get();
+            } else {
+                maxAge = THUMBNAIL_FALLBACK_MAX_AGE;
+            }
+        }
+
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(URI.create(s3Service.getPreSignedURL(key)))
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .build();
+    }
+}
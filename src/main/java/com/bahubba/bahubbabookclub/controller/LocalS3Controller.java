@@ -0,0 +1,58 @@
+package com.bahubba.bahubbabookclub.controller;
+
+import com.bahubba.bahubbabookclub.service.impl.LocalS3ServiceImpl;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+/** Serves the files behind the signed URLs handed out by the {@link LocalS3ServiceImpl} */
+@RestController
+@RequestMapping(LocalS3ServiceImpl.LOCAL_S3_PATH)
+@Profile("local")
+@Tag(name = "Local S3 Controller", description = "Local stand-in for S3 object downloads")
+@RequiredArgsConstructor
+public class LocalS3Controller {
+
+    private final LocalS3ServiceImpl localS3Service;
+
+    /**
+     * Gets a file by its object key, given a valid, unexpired signature
+     *
+     * @param expires When the URL expires, in epoch seconds
+     * @param signature The URL's signature
+     * @param req HTTP request from the client, whose path holds the object key
+     * @return The file, or a 403 if the signature is invalid or expired or the file doesn't exist (as S3 does)
+     */
+    @GetMapping("/**")
+    @Operation(summary = "Get Object", description = "Gets a file by a signed, expiring URL")
+    public ResponseEntity<Resource> getObject(
+            @RequestParam long expires, @RequestParam String signature, HttpServletRequest req) {
+        String key = UriUtils.decode(
+                req.getRequestURI()
+                        .substring(req.getContextPath().length() + LocalS3ServiceImpl.LOCAL_S3_PATH.length() + 1),
+                StandardCharsets.UTF_8);
+
+        return localS3Service
+                .resolveSignedObject(key, expires, signature)
+                .map(file -> ResponseEntity.ok()
+                        .contentType(
+                                MediaTypeFactory.getMediaType(file.getFileName().toString())
+                                        .orElse(MediaType.APPLICATION_OCTET_STREAM))
+                        .body((Resource) new FileSystemResource(file)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+    }
+}
@@ -2,7 +2,10 @@ package com.bahubba.bahubbabookclub.controller;
 
 import com.bahubba.bahubbabookclub.exception.*;
 import com.bahubba.bahubbabookclub.model.dto.BookClubMembershipDTO;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
 import com.bahubba.bahubbabookclub.model.enums.BookClubRole;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.payload.MembershipCompositeID;
 import com.bahubba.bahubbabookclub.model.payload.MembershipUpdate;
 import com.bahubba.bahubbabookclub.model.payload.NewOwner;
@@ -43,6 +46,57 @@ public class MembershipController {
         return ResponseEntity.ok(membershipService.getAll(bookClubName, pageNum, pageSize));
     }
 
+    /**
+     * Get all users in a book club without counting them all, optionally with an estimated total
+     *
+     * @param bookClubName The name of the book club
+     * @param pageNum The page number to retrieve
+     * @param pageSize The number of results per page, clamped to between 1 and 50
+     * @param totals NONE for no total, or ESTIMATED for an approximate one
+     * @return A page of users in the book club
+     * @throws UserNotFoundException The user was not logged in or did not exist
+     * @throws UnauthorizedBookClubActionException The user was not an admin of the book club
+     */
+    @GetMapping(
+            value = "/all/{bookClubName}",
+            params = {"totals", "!cursor"})
+    @Operation(
+            summary = "Get All Members without Counting",
+            description = "Gets all members of a book club, without an exact total")
+    public ResponseEntity<SliceDTO<BookClubMembershipDTO>> getAll(
+            @PathVariable String bookClubName,
+            @RequestParam int pageNum,
+            @RequestParam int pageSize,
+            @RequestParam PageTotals totals)
+            throws UserNotFoundException, UnauthorizedBookClubActionException {
+
+        return ResponseEntity.ok(membershipService.getAll(bookClubName, pageNum, pageSize, totals));
+    }
+
+    /**
+     * Get all users in a book club, a keyset page at a time
+     *
+     * @param bookClubName The name of the book club
+     * @param cursor Cursor from the previous page, or blank for the first page
+     * @param pageSize Number of results per page, clamped to between 1 and 50
+     * @return A page of users in the book club, with the cursor for the next
+     * @throws UserNotFoundException The user was not logged in or did not exist
+     * @throws UnauthorizedBookClubActionException The user was not an admin of the book club
+     * @throws InvalidCursorException The cursor wasn't one issued by the API
+     */
+    @GetMapping(value = "/all/{bookClubName}", params = "cursor")
+    @Operation(
+            summary = "Get All Members by Cursor",
+            description = "Gets all members of a book club, a keyset page at a time")
+    public ResponseEntity<CursorPageDTO<BookClubMembershipDTO>> getAll(
+            @PathVariable String bookClubName,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int pageSize)
+            throws UserNotFoundException, UnauthorizedBookClubActionException, InvalidCursorException {
+
+        return ResponseEntity.ok(membershipService.getAll(bookClubName, cursor, pageSize));
+    }
+
     /**
      * Get a non-private book club and the user's role in it
      *
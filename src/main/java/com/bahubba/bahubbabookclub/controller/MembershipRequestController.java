@@ -1,7 +1,10 @@
 package com.bahubba.bahubbabookclub.controller;
 
 import com.bahubba.bahubbabookclub.exception.*;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
 import com.bahubba.bahubbabookclub.model.dto.MembershipRequestDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.payload.MembershipRequestAction;
 import com.bahubba.bahubbabookclub.model.payload.NewMembershipRequest;
 import com.bahubba.bahubbabookclub.service.MembershipRequestService;
@@ -72,6 +75,62 @@ public class MembershipRequestController {
                 membershipRequestService.getMembershipRequestsForBookClub(bookClubName, pageNum, pageSize));
     }
 
+    /**
+     * Get all membership requests for a given book club without counting them all, optionally with an estimated total
+     *
+     * @param bookClubName The name of the book club
+     * @param pageNum The page number to retrieve
+     * @param pageSize The number of results per page, clamped to between 1 and 50
+     * @param totals NONE for no total, or ESTIMATED for an approximate one
+     * @return A page of membership requests for the book club
+     * @throws UserNotFoundException The user was not found or was not in the book club
+     * @throws BookClubNotFoundException The book club did not exist
+     * @throws UnauthorizedBookClubActionException The user was not an admin of the book club
+     */
+    @GetMapping(
+            value = "/all-for-club/{bookClubName}",
+            params = {"totals", "!cursor"})
+    @Operation(
+            summary = "Get All Requests without Counting",
+            description = "Get all membership requests for a book club, without an exact total")
+    public ResponseEntity<SliceDTO<MembershipRequestDTO>> getMembershipRequestsForBookClub(
+            @PathVariable String bookClubName,
+            @RequestParam int pageNum,
+            @RequestParam int pageSize,
+            @RequestParam PageTotals totals)
+            throws UserNotFoundException, BookClubNotFoundException, UnauthorizedBookClubActionException {
+
+        return ResponseEntity.ok(
+                membershipRequestService.getMembershipRequestsForBookClub(bookClubName, pageNum, pageSize, totals));
+    }
+
+    /**
+     * Get all membership requests for a given book club, a keyset page at a time
+     *
+     * @param bookClubName The name of the book club
+     * @param cursor Cursor from the previous page, or blank for the first page
+     * @param pageSize Number of results per page, clamped to between 1 and 50
+     * @return A page of membership requests for the book club, with the cursor for the next
+     * @throws UserNotFoundException The user was not found or was not in the book club
+     * @throws BookClubNotFoundException The book club did not exist
+     * @throws UnauthorizedBookClubActionException The user was not an admin of the book club
+     * @throws InvalidCursorException The cursor wasn't one issued by the API
+     */
+    @GetMapping(value = "/all-for-club/{bookClubName}", params = "cursor")
+    @Operation(
+            summary = "Get All Requests by Cursor",
+            description = "Get all membership requests for a book club, a keyset page at a time")
+    public ResponseEntity<CursorPageDTO<MembershipRequestDTO>> getMembershipRequestsForBookClub(
+            @PathVariable String bookClubName,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int pageSize)
+            throws UserNotFoundException, BookClubNotFoundException, UnauthorizedBookClubActionException,
+                    InvalidCursorException {
+
+        return ResponseEntity.ok(
+                membershipRequestService.getMembershipRequestsForBookClub(bookClubName, cursor, pageSize));
+    }
+
     /**
      * Approve or reject a membership request
      *
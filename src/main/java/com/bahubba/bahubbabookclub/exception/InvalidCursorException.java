@@ -0,0 +1,19 @@
+package com.bahubba.bahubbabookclub.exception;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/** Custom exception for a pagination cursor that wasn't issued by the API */
+public class InvalidCursorException extends RuntimeException implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor
+     *
+     * @param cursor The invalid cursor
+     */
+    public InvalidCursorException(String cursor) {
+        super("Invalid page cursor: " + cursor);
+    }
+}
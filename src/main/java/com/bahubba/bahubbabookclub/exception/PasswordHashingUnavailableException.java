@@ -0,0 +1,24 @@
+package com.bahubba.bahubbabookclub.exception;
+
+import java.io.Serial;
+import java.io.Serializable;
+import lombok.Getter;
+
+/** Custom exception for when the password hashing pool is saturated and can't take on more work */
+@Getter
+public class PasswordHashingUnavailableException extends RuntimeException implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor
+     *
+     * @param retryAfterSeconds how long the client should wait before trying again
+     */
+    public PasswordHashingUnavailableException(long retryAfterSeconds) {
+        super("Too many concurrent logins, please try again shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
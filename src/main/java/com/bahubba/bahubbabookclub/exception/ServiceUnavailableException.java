@@ -0,0 +1,25 @@
+package com.bahubba.bahubbabookclub.exception;
+
+import java.io.Serial;
+import java.io.Serializable;
+import lombok.Getter;
+
+/** Custom exception for when a downstream service is failing and calls to it are being short-circuited */
+@Getter
+public class ServiceUnavailableException extends RuntimeException implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor
+     *
+     * @param service Name of the unavailable service
+     * @param retryAfterSeconds how long the client should wait before trying again
+     */
+    public ServiceUnavailableException(String service, long retryAfterSeconds) {
+        super(service + " is temporarily unavailable, please try again shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
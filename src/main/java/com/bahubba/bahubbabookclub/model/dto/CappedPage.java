@@ -0,0 +1,42 @@
+package com.bahubba.bahubbabookclub.model.dto;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import lombok.Getter;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * A page of ranked results where only the first matches were ranked. When more matched than that, the total is the
+ * number ranked rather than the number that matched, and {@code totalCapped} says so
+ *
+ * @param <T> data type
+ */
+@Getter
+public class CappedPage<T> extends PageImpl<T> {
+
+    // Whether more results matched than were ranked
+    private final boolean totalCapped;
+
+    public CappedPage(List<T> content, Pageable pageable, long total, boolean totalCapped) {
+        super(content, pageable, total);
+        this.totalCapped = totalCapped;
+    }
+
+    @Override
+    public <U> CappedPage<U> map(Function<? super T, ? extends U> converter) {
+        return new CappedPage<>(
+                getContent().stream().<U>map(converter).toList(), getPageable(), getTotalElements(), totalCapped);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CappedPage<?> that && totalCapped == that.totalCapped && super.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), totalCapped);
+    }
+}
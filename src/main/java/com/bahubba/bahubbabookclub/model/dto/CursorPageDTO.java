@@ -0,0 +1,25 @@
+package com.bahubba.bahubbabookclub.model.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page of results from keyset pagination. There are no totals, since counting would cost as much as the offset
+ * pagination it replaces
+ *
+ * @param <T> data type
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+
+    // Opaque cursor to pass back for the next page, or null on the last page
+    private String nextCursor;
+}
@@ -1,5 +1,6 @@
 package com.bahubba.bahubbabookclub.model.dto;
 
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,4 +13,7 @@ import lombok.NoArgsConstructor;
 public class S3ImageDTO {
     private String fileName;
     private String url;
+
+    // Thumbnail URLs by width and height in pixels
+    private Map<Integer, String> thumbnails;
 }
@@ -0,0 +1,27 @@
+package com.bahubba.bahubbabookclub.model.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page of results that knows whether there's a next page without counting every result, optionally with an estimate
+ * of the total
+ *
+ * @param <T> data type
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SliceDTO<T> {
+    private List<T> content;
+    private int pageNum;
+    private int pageSize;
+    private boolean hasNext;
+
+    // Approximate number of results, or null when it wasn't asked for
+    private Long estimatedTotal;
+}
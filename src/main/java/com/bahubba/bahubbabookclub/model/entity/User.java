@@ -1,6 +1,7 @@
 package com.bahubba.bahubbabookclub.model.entity;
 
 import com.bahubba.bahubbabookclub.model.enums.Role;
+import com.bahubba.bahubbabookclub.model.listener.UserCacheEvictionListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.io.Serial;
@@ -21,6 +22,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 /** Users (users) */
 @Entity
 @Table(name = "app_user")
+@EntityListeners(UserCacheEvictionListener.class)
 @Data
 @Builder
 @NoArgsConstructor
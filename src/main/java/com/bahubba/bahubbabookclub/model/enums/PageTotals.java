@@ -0,0 +1,7 @@
+package com.bahubba.bahubbabookclub.model.enums;
+
+/** How a count-free page reports the total number of results */
+public enum PageTotals {
+    NONE,
+    ESTIMATED
+}
@@ -0,0 +1,29 @@
+package com.bahubba.bahubbabookclub.model.listener;
+
+import com.bahubba.bahubbabookclub.model.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserCache;
+
+/**
+ * Evicts a {@link User} from the principal cache whenever the entity is updated or removed, so that role changes
+ * and departures made anywhere in the app are picked up on the user's next request. Only this instance's cache is
+ * evicted; others pick the change up once their entry expires
+ */
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+
+    private final UserCache userCache;
+
+    /**
+     * Evicts the user from the principal cache
+     *
+     * @param user The updated or removed user
+     */
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        userCache.removeUserFromCache(user.getUsername());
+    }
+}
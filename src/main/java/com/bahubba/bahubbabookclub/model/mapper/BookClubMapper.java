@@ -2,14 +2,17 @@ package com.bahubba.bahubbabookclub.model.mapper;
 
 import com.bahubba.bahubbabookclub.model.dto.BookClubDTO;
 import com.bahubba.bahubbabookclub.model.entity.BookClub;
+import com.bahubba.bahubbabookclub.model.mapper.custom.BookClubImageMapper;
+import com.bahubba.bahubbabookclub.model.mapper.custom.ImageMapping;
 import com.bahubba.bahubbabookclub.model.payload.BookClubPayload;
 import java.util.List;
 import lombok.Generated;
+import org.mapstruct.InjectionStrategy;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
 /** Mapping logic for {@link BookClub} entities and {@link BookClubDTO} DTOs */
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = BookClubImageMapper.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
 public interface BookClubMapper {
     @Generated
     @Mapping(target = "id", ignore = true)
@@ -19,8 +22,7 @@ public interface BookClubMapper {
     BookClub payloadToEntity(BookClubPayload payload);
 
     @Generated
-    @Mapping(target = "image.fileName", source = "imageFileName")
-    @Mapping(target = "image.url", ignore = true)
+    @Mapping(target = "image", source = "imageFileName", qualifiedBy = ImageMapping.class)
     BookClubDTO entityToDTO(BookClub bookClub);
 
     @Generated
@@ -4,11 +4,12 @@ import com.bahubba.bahubbabookclub.model.dto.BookClubMembershipDTO;
 import com.bahubba.bahubbabookclub.model.entity.BookClubMembership;
 import java.util.List;
 import lombok.Generated;
+import org.mapstruct.InjectionStrategy;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
 /** Mapping logic for {@link BookClubMembership} entities and {@link BookClubMembershipDTO} DTOs */
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = BookClubMapper.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
 public interface BookClubMembershipMapper {
     @Mapping(target = "isOwner", source = "owner")
     @Generated
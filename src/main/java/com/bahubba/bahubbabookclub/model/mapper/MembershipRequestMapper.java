@@ -4,10 +4,11 @@ import com.bahubba.bahubbabookclub.model.dto.MembershipRequestDTO;
 import com.bahubba.bahubbabookclub.model.entity.MembershipRequest;
 import java.util.List;
 import lombok.Generated;
+import org.mapstruct.InjectionStrategy;
 import org.mapstruct.Mapper;
 
 /** Mapping logic for {@link MembershipRequest} entities and {@link MembershipRequestDTO} DTOs */
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = BookClubMapper.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
 public interface MembershipRequestMapper {
     @Generated
     MembershipRequestDTO entityToDTO(MembershipRequest membershipRequest);
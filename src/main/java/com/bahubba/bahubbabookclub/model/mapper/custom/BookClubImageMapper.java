@@ -0,0 +1,74 @@
+package com.bahubba.bahubbabookclub.model.mapper.custom;
+
+import com.bahubba.bahubbabookclub.model.dto.S3ImageDTO;
+import com.bahubba.bahubbabookclub.util.ImageUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Mapping logic for resolving book club image file names to the images and their URLs. Many clubs share a stock
+ * image, so while handling a request each distinct image is only built once, however many DTOs (and however deeply
+ * nested) it ends up in. The time spent doing so is recorded once per request, when it completes.
+ */
+@Component
+public class BookClubImageMapper {
+    private static final String IMAGES_ATTRIBUTE = BookClubImageMapper.class.getName() + ".images";
+
+    private final Timer enrichmentTimer;
+
+    public BookClubImageMapper(MeterRegistry meterRegistry) {
+        enrichmentTimer = Timer.builder("book-clubs.page.enrichment")
+                .description("Time spent resolving book club images for a request's DTOs")
+                .register(meterRegistry);
+    }
+
+    @ImageMapping
+    public S3ImageDTO toImage(String fileName) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return enrichmentTimer.record(() -> ImageUtil.getBookClubImage(fileName));
+        }
+
+        long start = System.nanoTime();
+        RequestImages requestImages = getRequestImages(requestAttributes);
+        S3ImageDTO image = fileName == null
+                ? ImageUtil.getBookClubImage(null)
+                : requestImages.images.computeIfAbsent(fileName, ImageUtil::getBookClubImage);
+        requestImages.nanos += System.nanoTime() - start;
+        return image;
+    }
+
+    /**
+     * Gets the images built so far for the current request, setting them up (and recording their time once the
+     * request completes) on first use
+     *
+     * @param requestAttributes The current request's attributes
+     * @return The request's images
+     */
+    private RequestImages getRequestImages(RequestAttributes requestAttributes) {
+        RequestImages requestImages = (RequestImages)
+                requestAttributes.getAttribute(IMAGES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (requestImages == null) {
+            RequestImages newRequestImages = new RequestImages();
+            requestAttributes.setAttribute(IMAGES_ATTRIBUTE, newRequestImages, RequestAttributes.SCOPE_REQUEST);
+            requestAttributes.registerDestructionCallback(
+                    IMAGES_ATTRIBUTE,
+                    () -> enrichmentTimer.record(newRequestImages.nanos, TimeUnit.NANOSECONDS),
+                    RequestAttributes.SCOPE_REQUEST);
+            requestImages = newRequestImages;
+        }
+        return requestImages;
+    }
+
+    /** The images built while handling a request, and the time spent on them */
+    private static class RequestImages {
+        private final Map<String, S3ImageDTO> images = new HashMap<>();
+        private long nanos;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bahubba.bahubbabookclub.model.mapper.custom;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.mapstruct.Qualifier;
+
+/** Annotation for resolving a book club image file name to the image and its URLs in a mapper */
+@Qualifier @Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.CLASS)
+public @interface ImageMapping {}
@@ -2,12 +2,15 @@ package com.bahubba.bahubbabookclub.repository;
 
 import com.bahubba.bahubbabookclub.model.entity.BookClubMembership;
 import com.bahubba.bahubbabookclub.model.enums.BookClubRole;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /** JPA Repository for the {@link BookClubMembership} entity */
@@ -29,6 +32,28 @@ public interface BookClubMembershipRepo extends JpaRepository<BookClubMembership
 
     Page<BookClubMembership> findAllByBookClubNameOrderByJoined(String bookClubName, Pageable pageable);
 
+    // Ordered by ID among equal join times, so the order is total and offset slices don't repeat or skip rows
+    Slice<BookClubMembership> findSliceByBookClubNameOrderByJoinedAscIdAsc(String bookClubName, Pageable pageable);
+
+    long countByBookClubName(String bookClubName);
+
+    long countByUserIdAndDepartedIsNullAndBookClubDisbandedIsNull(UUID userId);
+
+    // Keyset pages, walking the (book_club_id, joined, id) index; the page request only carries the limit. Ordering by
+    // the whole index, though the book club is fixed, lets every planner see the index returns rows already sorted
+    @Query("SELECT bcm FROM BookClubMembership bcm "
+            + "WHERE bcm.bookClub.id = :bookClubId "
+            + "ORDER BY bcm.bookClub.id, bcm.joined, bcm.id")
+    List<BookClubMembership> findFirstPageByBookClubId(UUID bookClubId, Pageable pageable);
+
+    @Query("SELECT bcm FROM BookClubMembership bcm "
+            + "WHERE bcm.bookClub.id = :bookClubId "
+            + "AND bcm.joined >= :joined "
+            + "AND (bcm.joined > :joined OR bcm.id > :id) "
+            + "ORDER BY bcm.bookClub.id, bcm.joined, bcm.id")
+    List<BookClubMembership> findPageByBookClubIdAfter(
+            UUID bookClubId, LocalDateTime joined, UUID id, Pageable pageable);
+
     Optional<BookClubMembership> findByBookClubNameAndUserIdAndIsOwnerTrue(String bookClubName, UUID userId);
 
     List<BookClubMembership> findAllByBookClubIdAndIsOwnerTrueAndDepartedIsNullAndUserIdIn(
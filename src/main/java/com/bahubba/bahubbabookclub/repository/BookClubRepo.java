@@ -3,13 +3,18 @@ package com.bahubba.bahubbabookclub.repository;
 import com.bahubba.bahubbabookclub.model.entity.BookClub;
 import com.bahubba.bahubbabookclub.model.enums.Publicity;
 import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /** JPA Repository for the {@link BookClub} entity */
 @Repository
@@ -30,8 +35,89 @@ public interface BookClubRepo extends JpaRepository<BookClub, UUID> {
                     + "AND r.id = :userId")
     Page<BookClub> findAllForUser(final UUID userId, Pageable pageable);
 
-    Page<BookClub> findAllByPublicityNotAndNameContainsIgnoreCase(
-            final Publicity publicity, final String searchTerm, Pageable pageable);
+    // Count-free pages, fetching one extra row to tell whether there's a next page. Offset pages are only consistent
+    // with a total order, so both are ordered by ID
+    @Query("SELECT bc FROM BookClub bc ORDER BY bc.id")
+    Slice<BookClub> findAllBy(Pageable pageable);
+
+    @Query("SELECT bcm.bookClub FROM BookClubMembership bcm "
+            + "WHERE bcm.user.id = :userId "
+            + "AND bcm.departed IS NULL "
+            + "AND bcm.bookClub.disbanded IS NULL "
+            + "ORDER BY bcm.bookClub.id")
+    Slice<BookClub> findSliceForUser(final UUID userId, Pageable pageable);
+
+    // Keyset pages, walking the (created, id) index; the page request only carries the limit. The seek condition is
+    // spelled as a range on the leading column so the planner can start the index scan at the cursor
+    @Query("SELECT bc FROM BookClub bc ORDER BY bc.created, bc.id")
+    List<BookClub> findFirstPage(Pageable pageable);
+
+    @Query("SELECT bc FROM BookClub bc "
+            + "WHERE bc.created >= :created AND (bc.created > :created OR bc.id > :id) "
+            + "ORDER BY bc.created, bc.id")
+    List<BookClub> findPageAfter(final LocalDateTime created, final UUID id, Pageable pageable);
+
+    @Query("SELECT bcm.bookClub FROM BookClubMembership bcm "
+            + "WHERE bcm.user.id = :userId "
+            + "AND bcm.departed IS NULL "
+            + "AND bcm.bookClub.disbanded IS NULL "
+            + "ORDER BY bcm.bookClub.created, bcm.bookClub.id")
+    List<BookClub> findFirstPageForUser(final UUID userId, Pageable pageable);
+
+    @Query("SELECT bcm.bookClub FROM BookClubMembership bcm "
+            + "WHERE bcm.user.id = :userId "
+            + "AND bcm.departed IS NULL "
+            + "AND bcm.bookClub.disbanded IS NULL "
+            + "AND bcm.bookClub.created >= :created "
+            + "AND (bcm.bookClub.created > :created OR bcm.bookClub.id > :id) "
+            + "ORDER BY bcm.bookClub.created, bcm.bookClub.id")
+    List<BookClub> findPageForUserAfter(
+            final UUID userId, final LocalDateTime created, final UUID id, Pageable pageable);
+
+    @Query(
+            value = "SELECT bc FROM BookClub bc "
+                    + "WHERE bc.publicity <> :publicity "
+                    + "AND LOWER(bc.name) LIKE :containsPattern ESCAPE '\\' "
+                    + "ORDER BY CASE WHEN LOWER(bc.name) LIKE :prefixPattern ESCAPE '\\' THEN 0 ELSE 1 END, "
+                    + "LENGTH(bc.name), bc.name",
+            countQuery = "SELECT COUNT(bc) FROM BookClub bc "
+                    + "WHERE bc.publicity <> :publicity "
+                    + "AND LOWER(bc.name) LIKE :containsPattern ESCAPE '\\'")
+    Page<BookClub> searchByNameLike(
+            final Publicity publicity, final String prefixPattern, final String containsPattern, Pageable pageable);
+
+    // Matches for the trigram search, at most :maxCandidates of them, straight off the GIN index on lower(name). Prefix
+    // (and so exact) matches are taken ahead of the other substring and fuzzy matches, so a common term can't push them
+    // out, and both arms are ordered so every page is cut from the same candidates
+    String TRIGRAM_SEARCH_CANDIDATES = "SELECT u.* FROM ("
+            + "SELECT p.* FROM (SELECT bc.* FROM book_club bc "
+            + "WHERE bc.publicity <> 'PRIVATE' "
+            + "AND lower(bc.name) LIKE :prefixPattern ESCAPE '\\' "
+            + "ORDER BY lower(bc.name), bc.id LIMIT :maxCandidates) p "
+            + "UNION ALL "
+            + "SELECT f.* FROM (SELECT bc.* FROM book_club bc "
+            + "WHERE bc.publicity <> 'PRIVATE' "
+            + "AND lower(bc.name) NOT LIKE :prefixPattern ESCAPE '\\' "
+            + "AND (lower(bc.name) LIKE :containsPattern ESCAPE '\\' OR lower(bc.name) % :searchTerm) "
+            + "ORDER BY lower(bc.name), bc.id LIMIT :maxCandidates) f"
+            + ") u "
+            + "ORDER BY CASE WHEN lower(u.name) LIKE :prefixPattern ESCAPE '\\' THEN 0 ELSE 1 END, lower(u.name), u.id "
+            + "LIMIT :maxCandidates";
+
+    String TRIGRAM_SEARCH = "SELECT c.* FROM (" + TRIGRAM_SEARCH_CANDIDATES + ") c "
+            + "ORDER BY similarity(lower(c.name), :searchTerm) DESC, c.name, c.id";
+
+    String TRIGRAM_SEARCH_COUNT = "SELECT count(*) FROM (" + TRIGRAM_SEARCH_CANDIDATES + ") c";
+
+    // Needs the pg_trgm extension. Only the capped candidate set is ranked and counted, so a very common term can't
+    // make the search sort or count every match
+    @Query(nativeQuery = true, value = TRIGRAM_SEARCH, countQuery = TRIGRAM_SEARCH_COUNT)
+    Page<BookClub> searchByNameTrigram(
+            final String searchTerm,
+            final String prefixPattern,
+            final String containsPattern,
+            final int maxCandidates,
+            Pageable pageable);
 
     @Query(
             nativeQuery = true,
@@ -47,4 +133,22 @@ public interface BookClubRepo extends JpaRepository<BookClub, UUID> {
                     + "AND r.departed IS NULL "
                     + "AND bcu.club_role = 'ADMIN'")
     Optional<BookClub> findByIdAndUserIsAdmin(final UUID id, final UUID userID);
+
+    boolean existsByImageFileName(final String imageFileName);
+
+    @Query("SELECT bc.id AS id, bc.name AS name FROM BookClub bc WHERE bc.publicity <> :publicity"
+            + " AND bc.disbanded IS NULL")
+    List<SearchableName> findAllSearchableNames(final Publicity publicity);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BookClub bc SET bc.imageFileName = :imageFileName WHERE bc.id = :id")
+    int updateImageFileName(final UUID id, final String imageFileName);
+
+    /** The ID and name of a book club that can be searched for */
+    interface SearchableName {
+        UUID getId();
+
+        String getName();
+    }
 }
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -22,6 +23,25 @@ public interface MembershipRequestRepo extends JpaRepository<MembershipRequest,
 
     Page<MembershipRequest> findAllByBookClubIdOrderByRequestedDesc(final UUID bookClubId, Pageable pageable);
 
+    // Ordered by ID among equal request times, so the order is total and offset slices don't repeat or skip rows
+    Slice<MembershipRequest> findSliceByBookClubIdOrderByRequestedDescIdDesc(final UUID bookClubId, Pageable pageable);
+
+    long countByBookClubId(final UUID bookClubId);
+
+    // Keyset pages, walking the (book_club_id, requested, id) index backwards; the page request only carries the limit
+    @Query("SELECT mr FROM MembershipRequest mr "
+            + "WHERE mr.bookClub.id = :bookClubId "
+            + "ORDER BY mr.requested DESC, mr.id DESC")
+    List<MembershipRequest> findFirstPageByBookClubId(final UUID bookClubId, Pageable pageable);
+
+    @Query("SELECT mr FROM MembershipRequest mr "
+            + "WHERE mr.bookClub.id = :bookClubId "
+            + "AND mr.requested <= :requested "
+            + "AND (mr.requested < :requested OR mr.id < :id) "
+            + "ORDER BY mr.requested DESC, mr.id DESC")
+    List<MembershipRequest> findPageByBookClubIdBefore(
+            final UUID bookClubId, final LocalDateTime requested, final UUID id, Pageable pageable);
+
     @Modifying
     @Query(
             "UPDATE MembershipRequest mr SET mr.status = :status, mr.role = :role, mr.reviewMessage = :reviewMessage, mr.reviewed = :reviewed WHERE mr.id = :id")
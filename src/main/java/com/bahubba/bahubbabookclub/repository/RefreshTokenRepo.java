@@ -2,17 +2,43 @@ package com.bahubba.bahubbabookclub.repository;
 
 import com.bahubba.bahubbabookclub.model.entity.RefreshToken;
 import com.bahubba.bahubbabookclub.model.entity.User;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /** JPA Repository for the {@link RefreshToken} entity */
 @Repository
-public interface RefreshTokenRepo extends JpaRepository<RefreshToken, UUID> {
+public interface RefreshTokenRepo extends JpaRepository<RefreshToken, UUID>, RefreshTokenRepoCustom {
     Optional<RefreshToken> findByToken(String token);
 
+    @Query("SELECT rt FROM RefreshToken rt LEFT JOIN FETCH rt.user WHERE rt.expiryDate > :now")
+    List<RefreshToken> findAllUnexpired(Instant now);
+
     @Modifying
     int deleteByUser(User user);
+
+    @Modifying
+    int deleteByToken(String token);
+
+    /**
+     * Deletes up to {@code batchSize} of the longest-expired refresh tokens. Rows already locked by another instance's
+     * sweep are skipped rather than waited on.
+     */
+    @Modifying
+    @Transactional
+    @Query(
+            nativeQuery = true,
+            value = "DELETE FROM refresh_token WHERE id IN ("
+                    + "SELECT id FROM refresh_token "
+                    + "WHERE expiry_date < :now "
+                    + "ORDER BY expiry_date "
+                    + "LIMIT :batchSize "
+                    + "FOR UPDATE SKIP LOCKED)")
+    int deleteExpiredBatch(final Instant now, final int batchSize);
 }
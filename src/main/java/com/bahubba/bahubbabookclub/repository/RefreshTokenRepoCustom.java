@@ -0,0 +1,16 @@
+package com.bahubba.bahubbabookclub.repository;
+
+import com.bahubba.bahubbabookclub.model.entity.RefreshToken;
+
+/** Queries on the {@link RefreshToken} entity that Spring Data can't derive */
+public interface RefreshTokenRepoCustom {
+    /**
+     * Atomically replaces the refresh token of the token's user in a single statement, inserting it if the user has
+     * none, so concurrent logins of the same user can't both insert. The row takes on the token's ID either way, a new
+     * one being assigned if it has none
+     *
+     * @param refreshToken The new refresh token, including its user
+     * @return The refresh token, with the ID of its row
+     */
+    RefreshToken upsertByUser(RefreshToken refreshToken);
+}
@@ -0,0 +1,63 @@
+package com.bahubba.bahubbabookclub.repository;
+
+import com.bahubba.bahubbabookclub.model.entity.RefreshToken;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.UUID;
+import org.hibernate.Session;
+
+/** Implementation of the {@link RefreshTokenRepoCustom} queries, picked up by Spring Data by name */
+public class RefreshTokenRepoCustomImpl implements RefreshTokenRepoCustom {
+
+    private static final String POSTGRES_UPSERT = "INSERT INTO refresh_token (id, user_id, token, expiry_date) "
+            + "VALUES (:id, :userID, :token, :expiryDate) "
+            + "ON CONFLICT (user_id) DO UPDATE "
+            + "SET id = EXCLUDED.id, token = EXCLUDED.token, expiry_date = EXCLUDED.expiry_date";
+
+    // H2 (in tests) has no ON CONFLICT, but its MERGE is just as atomic
+    private static final String MERGE_UPSERT = "MERGE INTO refresh_token rt "
+            + "USING (VALUES (CAST(:id AS uuid), CAST(:userID AS uuid), CAST(:token AS varchar(255)), "
+            + "CAST(:expiryDate AS timestamp(6) with time zone))) AS v (id, user_id, token, expiry_date) "
+            + "ON rt.user_id = v.user_id "
+            + "WHEN MATCHED THEN UPDATE SET id = v.id, token = v.token, expiry_date = v.expiry_date "
+            + "WHEN NOT MATCHED THEN INSERT (id, user_id, token, expiry_date) "
+            + "VALUES (v.id, v.user_id, v.token, v.expiry_date)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public RefreshToken upsertByUser(RefreshToken refreshToken) {
+        if (refreshToken.getId() == null) {
+            refreshToken.setId(UUID.randomUUID());
+        }
+
+        entityManager
+                .createNativeQuery(isPostgres() ? POSTGRES_UPSERT : MERGE_UPSERT)
+                .setParameter("id", refreshToken.getId())
+                .setParameter("userID", refreshToken.getUser().getId())
+                .setParameter("token", refreshToken.getToken())
+                .setParameter("expiryDate", refreshToken.getExpiryDate())
+                .executeUpdate();
+
+        return refreshToken;
+    }
+
+    /**
+     * Checks (once) whether the DB is Postgres
+     *
+     * @return Whether the DB is Postgres
+     */
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = entityManager
+                    .unwrap(Session.class)
+                    .doReturningWork(connection ->
+                            "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+
+        return postgres;
+    }
+}
@@ -0,0 +1,29 @@
+package com.bahubba.bahubbabookclub.service;
+
+import com.bahubba.bahubbabookclub.model.entity.BookClub;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/** Name search over the book clubs that aren't private, used by {@link BookClubService#search} */
+public interface BookClubSearchEngine {
+
+    /**
+     * Finds the book clubs whose names match a search term, best matches first
+     *
+     * @param searchTerm The search term, matched case-insensitively against book club names
+     * @param pageable The page of results to get; any sort is ignored in favor of the ranking
+     * @return The page of matching book clubs, a {@link com.bahubba.bahubbabookclub.model.dto.CappedPage} if the
+     *     engine only ranks some of the matches
+     */
+    Page<BookClub> search(String searchTerm, Pageable pageable);
+
+    /**
+     * Escapes the LIKE wildcards in a search term, so they're matched literally
+     *
+     * @param term The search term
+     * @return The term with its wildcards escaped with backslashes
+     */
+    static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -2,12 +2,16 @@ package com.bahubba.bahubbabookclub.service;
 
 import com.bahubba.bahubbabookclub.exception.*;
 import com.bahubba.bahubbabookclub.model.dto.BookClubDTO;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
 import com.bahubba.bahubbabookclub.model.dto.S3ImageDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
 import com.bahubba.bahubbabookclub.model.entity.BookClub;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.payload.BookClubPayload;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
+import org.springframework.web.multipart.MultipartFile;
 
 /** {@link BookClub} service layer */
 public interface BookClubService {
@@ -80,6 +84,49 @@ public interface BookClubService {
      */
     Page<BookClubDTO> findAll(int pageNum, int pageSize) throws PageSizeTooSmallException, PageSizeTooLargeException;
 
+    /**
+     * Finds book clubs that the user has some role in, without counting them all
+     *
+     * @param pageNum Page number for results
+     * @param pageSize Number of results per page, clamped to between 1 and 50
+     * @param totals Whether to estimate the total number of results
+     * @return A page of book clubs that the user has some role in
+     * @throws UserNotFoundException The user wasn't found in the DB
+     */
+    SliceDTO<BookClubDTO> findAllForUser(int pageNum, int pageSize, PageTotals totals) throws UserNotFoundException;
+
+    /**
+     * Find all book clubs, without counting them all
+     *
+     * @param pageNum Page number for results
+     * @param pageSize Number of results per page, clamped to between 1 and 50
+     * @param totals Whether to estimate the total number of results
+     * @return A page of all book clubs
+     */
+    SliceDTO<BookClubDTO> findAll(int pageNum, int pageSize, PageTotals totals);
+
+    /**
+     * Finds book clubs that the user has some role in, a keyset page at a time
+     *
+     * @param cursor Cursor from the previous page, or blank for the first page
+     * @param pageSize Number of results per page, clamped to between 1 and 50
+     * @return A page of book clubs that the user has some role in, oldest first
+     * @throws UserNotFoundException The user wasn't found in the DB
+     * @throws InvalidCursorException The cursor wasn't one issued by the API
+     */
+    CursorPageDTO<BookClubDTO> findAllForUser(String cursor, int pageSize)
+            throws UserNotFoundException, InvalidCursorException;
+
+    /**
+     * Find all book clubs, a keyset page at a time
+     *
+     * @param cursor Cursor from the previous page, or blank for the first page
+     * @param pageSize Number of results per page, clamped to between 1 and 50
+     * @return A page of all book clubs, oldest first
+     * @throws InvalidCursorException The cursor wasn't one issued by the API
+     */
+    CursorPageDTO<BookClubDTO> findAll(String cursor, int pageSize) throws InvalidCursorException;
+
     /**
      * Search for book clubs by name
      *
@@ -91,6 +138,17 @@ public interface BookClubService {
     Page<BookClubDTO> search(String searchTerm, int pageNum, int pageSize)
             throws PageSizeTooSmallException, PageSizeTooLargeException;
 
+    /**
+     * Suggest book club names for type-ahead, from an in-memory index rather than the DB
+     *
+     * @param prefix What's been typed so far
+     * @param limit The maximum number of names to suggest, capped at {@link
+     *     com.bahubba.bahubbabookclub.util.APIConstants#MAX_NAME_SUGGESTIONS}
+     * @return The names of book clubs that aren't private or disbanded, starting with the prefix or with a word that
+     *     does
+     */
+    List<String> suggest(String prefix, int limit);
+
     /**
      * Disband a book club
      *
@@ -119,6 +177,29 @@ public interface BookClubService {
             throws UserNotFoundException, MembershipNotFoundException, UnauthorizedBookClubActionException,
                     BadBookClubActionException;
 
+    /**
+     * Upload a custom image for a book club. The image is stored under the SHA-256 of its content, so identical
+     * uploads are only stored once, and the book club is only pointed at it once the upload has completed. Its type is
+     * taken from its content, not from what the client declared.
+     *
+     * @param id The ID of the book club
+     * @param image The uploaded image
+     * @return The updated book club
+     * @throws UserNotFoundException The user was not found
+     * @throws BookClubNotFoundException The book club was not found where the reader was an active admin
+     * @throws BadBookClubActionException The image was empty or not of a supported type
+     */
+    BookClubDTO uploadImage(UUID id, MultipartFile image)
+            throws UserNotFoundException, BookClubNotFoundException, BadBookClubActionException;
+
+    /**
+     * Check whether an uploaded image is one a book club uses, so only those are ever served
+     *
+     * @param fileName The image's file name, relative to the custom image directory
+     * @return true if a book club uses the image
+     */
+    boolean isBookClubImage(String fileName);
+
     /**
      * Get all stock book club images
      *
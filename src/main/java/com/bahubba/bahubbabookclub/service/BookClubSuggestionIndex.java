@@ -0,0 +1,26 @@
+package com.bahubba.bahubbabookclub.service;
+
+import com.bahubba.bahubbabookclub.model.entity.BookClub;
+import java.util.List;
+
+/** In-memory index of the names of the book clubs that can be searched for, for type-ahead suggestions */
+public interface BookClubSuggestionIndex {
+
+    /**
+     * Suggests book club names for what's been typed so far. Names starting with the prefix come first, then names
+     * with a later word starting with it
+     *
+     * @param prefix What's been typed so far, matched case-insensitively
+     * @param limit The maximum number of names to suggest
+     * @return The suggested names
+     */
+    List<String> suggest(String prefix, int limit);
+
+    /**
+     * Indexes a created or updated book club under its current name once the current transaction commits, or drops it
+     * from the index if it's private or disbanded
+     *
+     * @param bookClub The book club, which must have been saved
+     */
+    void update(BookClub bookClub);
+}
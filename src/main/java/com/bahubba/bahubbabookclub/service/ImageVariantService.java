@@ -0,0 +1,25 @@
+package com.bahubba.bahubbabookclub.service;
+
+import java.util.Optional;
+
+/** Generates and looks up the thumbnails of book club images */
+public interface ImageVariantService {
+
+    /**
+     * Queue the generation of an image's thumbnails, in each of the thumbnail sizes. Returns straight away; images that
+     * already have their thumbnails, are already queued or can't be decoded are skipped.
+     *
+     * @param fileName The image's file name, relative to the custom image directory for uploaded images
+     */
+    void generateVariants(String fileName);
+
+    /**
+     * Get the S3 key of an image's thumbnail, if it's known to exist. Never calls S3: if it isn't known to exist, a
+     * check for it (and its generation, if it's missing) is queued instead.
+     *
+     * @param fileName The image's file name, relative to the custom image directory for uploaded images
+     * @param size The thumbnail's width and height in pixels
+     * @return The thumbnail's key, if it exists
+     */
+    Optional<String> getVariantKey(String fileName, int size);
+}
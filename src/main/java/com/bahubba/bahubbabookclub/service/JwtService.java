@@ -4,7 +4,9 @@ import com.bahubba.bahubbabookclub.exception.TokenRefreshException;
 import com.bahubba.bahubbabookclub.exception.UserNotFoundException;
 import com.bahubba.bahubbabookclub.model.dto.AuthDTO;
 import com.bahubba.bahubbabookclub.model.entity.RefreshToken;
+import com.bahubba.bahubbabookclub.model.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.Optional;
 import java.util.UUID;
@@ -54,6 +56,43 @@ public interface JwtService {
      */
     String extractUsername(String token);
 
+    /**
+     * Parses and signature-checks the JWT auth token exactly once, returning its verified claims
+     *
+     * @param token The JWT auth token
+     * @return The verified (read-only) claims from the JWT auth token
+     * @throws JwtException The token was malformed, had an invalid signature, was expired, or was revoked
+     */
+    Claims verifyToken(String token) throws JwtException;
+
+    /**
+     * Revokes a JWT auth token on logout, rejecting it on this instance until it expires. Other instances keep
+     * accepting it until then, as nothing is shared between them
+     *
+     * @param token The JWT auth token
+     */
+    void invalidateToken(String token);
+
+    /**
+     * Drops all of a user's JWT auth tokens from the verified token cache, e.g. when the user is removed, and stops
+     * trusting the principal claims signed into their outstanding tokens
+     *
+     * @param username The user's username
+     */
+    void invalidateTokensForUser(String username);
+
+    /**
+     * Builds a lightweight principal (ID, username and role only) straight from the verified claims of a JWT auth
+     * token, without a DB lookup. Only available in stateless principal mode. The principal is not a loaded entity:
+     * reference it by ID when associating it with other entities, and load the user before building a DTO from it
+     *
+     * @param claims The verified claims from the JWT auth token
+     * @return The principal, or null if stateless principal mode is off, the token doesn't carry the principal, or the
+     *     user has departed
+     * @throws JwtException The token's principal claims were malformed
+     */
+    User extractPrincipal(Claims claims) throws JwtException;
+
     /**
      * Verifies that the token is for the requesting user and is not expired
      *
@@ -63,6 +102,15 @@ public interface JwtService {
      */
     boolean isTokenValid(String token, UserDetails userDetails);
 
+    /**
+     * Verifies that already-verified claims are for the requesting user and are not expired
+     *
+     * @param claims The verified claims from the JWT auth token
+     * @param userDetails The user's credentials and info
+     * @return Whether the token is valid
+     */
+    boolean isTokenValid(Claims claims, UserDetails userDetails);
+
     /**
      * Pulls a claim from the JWT auth token
      *
@@ -108,6 +156,14 @@ public interface JwtService {
      */
     RefreshToken createRefreshToken(UUID userID) throws UserNotFoundException;
 
+    /**
+     * Replaces any existing refresh token for an already loaded user with a new one, in a single upsert
+     *
+     * @param user The user
+     * @return The new refresh token
+     */
+    RefreshToken replaceRefreshToken(User user);
+
     /**
      * Verifies that the refresh token is not expired
      *
@@ -1,8 +1,11 @@
 package com.bahubba.bahubbabookclub.service;
 
 import com.bahubba.bahubbabookclub.exception.*;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
 import com.bahubba.bahubbabookclub.model.dto.MembershipRequestDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
 import com.bahubba.bahubbabookclub.model.entity.MembershipRequest;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.payload.MembershipRequestAction;
 import com.bahubba.bahubbabookclub.model.payload.NewMembershipRequest;
 import org.springframework.data.domain.Page;
@@ -47,6 +50,39 @@ public interface MembershipRequestService {
             throws UserNotFoundException, BookClubNotFoundException, UnauthorizedBookClubActionException,
                     PageSizeTooSmallException, PageSizeTooLargeException;
 
+    /**
+     * Get all membership requests for a book club, without counting them all
+     *
+     * @param bookClubName The name of the book club
+     * @param pageNum The page number to retrieve
+     * @param pageSize The number of results per page, clamped to between 1 and 50
+     * @param totals Whether to estimate the total number of membership requests
+     * @return A page of membership requests for the book club, newest first
+     * @throws UserNotFoundException The user was not found or was not in the book club
+     * @throws BookClubNotFoundException The book club did not exist
+     * @throws UnauthorizedBookClubActionException The user was not an admin of the book club
+     */
+    SliceDTO<MembershipRequestDTO> getMembershipRequestsForBookClub(
+            String bookClubName, int pageNum, int pageSize, PageTotals totals)
+            throws UserNotFoundException, BookClubNotFoundException, UnauthorizedBookClubActionException;
+
+    /**
+     * Get all membership requests for a book club, a keyset page at a time
+     *
+     * @param bookClubName The name of the book club
+     * @param cursor Cursor from the previous page, or blank for the first page
+     * @param pageSize Number of results per page, clamped to between 1 and 50
+     * @return A page of membership requests for the book club, newest first
+     * @throws UserNotFoundException The user was not found or was not in the book club
+     * @throws BookClubNotFoundException The book club did not exist
+     * @throws UnauthorizedBookClubActionException The user was not an admin of the book club
+     * @throws InvalidCursorException The cursor wasn't one issued by the API
+     */
+    CursorPageDTO<MembershipRequestDTO> getMembershipRequestsForBookClub(
+            String bookClubName, String cursor, int pageSize)
+            throws UserNotFoundException, BookClubNotFoundException, UnauthorizedBookClubActionException,
+                    InvalidCursorException;
+
     /**
      * Approve or reject a membership request
      *
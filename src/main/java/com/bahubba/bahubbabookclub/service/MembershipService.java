@@ -2,7 +2,10 @@ package com.bahubba.bahubbabookclub.service;
 
 import com.bahubba.bahubbabookclub.exception.*;
 import com.bahubba.bahubbabookclub.model.dto.BookClubMembershipDTO;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
 import com.bahubba.bahubbabookclub.model.enums.BookClubRole;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.payload.MembershipCompositeID;
 import com.bahubba.bahubbabookclub.model.payload.MembershipUpdate;
 import com.bahubba.bahubbabookclub.model.payload.NewOwner;
@@ -27,6 +30,34 @@ public interface MembershipService {
             throws UserNotFoundException, UnauthorizedBookClubActionException, PageSizeTooSmallException,
                     PageSizeTooLargeException;
 
+    /**
+     * Get all members of a book club, without counting them all
+     *
+     * @param bookClubName The name of a book club
+     * @param pageNum The page number to retrieve
+     * @param pageSize The number of results per page, clamped to between 1 and 50
+     * @param totals Whether to estimate the total number of members
+     * @return A page of members of the book club, in the order they joined
+     * @throws UserNotFoundException The user was not logged in or did not exist
+     * @throws UnauthorizedBookClubActionException The user was not an admin of the book club
+     */
+    SliceDTO<BookClubMembershipDTO> getAll(String bookClubName, int pageNum, int pageSize, PageTotals totals)
+            throws UserNotFoundException, UnauthorizedBookClubActionException;
+
+    /**
+     * Get all members of a book club, a keyset page at a time
+     *
+     * @param bookClubName The name of a book club
+     * @param cursor Cursor from the previous page, or blank for the first page
+     * @param pageSize Number of results per page, clamped to between 1 and 50
+     * @return A page of members of the book club, in the order they joined
+     * @throws UserNotFoundException The user was not logged in or did not exist
+     * @throws UnauthorizedBookClubActionException The user was not an admin of the book club
+     * @throws InvalidCursorException The cursor wasn't one issued by the API
+     */
+    CursorPageDTO<BookClubMembershipDTO> getAll(String bookClubName, String cursor, int pageSize)
+            throws UserNotFoundException, UnauthorizedBookClubActionException, InvalidCursorException;
+
     /**
      * Get the role of a user in a book club
      *
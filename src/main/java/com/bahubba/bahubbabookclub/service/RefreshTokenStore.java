@@ -0,0 +1,48 @@
+package com.bahubba.bahubbabookclub.service;
+
+import com.bahubba.bahubbabookclub.model.entity.RefreshToken;
+import com.bahubba.bahubbabookclub.model.entity.User;
+import java.util.Optional;
+
+/** Storage for the {@link RefreshToken}s issued by the {@link JwtService} */
+public interface RefreshTokenStore {
+
+    /**
+     * Finds a refresh token by its string value
+     *
+     * @param token The string value of the refresh token
+     * @return The refresh token, if it exists
+     */
+    Optional<RefreshToken> findByToken(String token);
+
+    /**
+     * Persists a refresh token
+     *
+     * @param refreshToken The refresh token
+     * @return The persisted refresh token
+     */
+    RefreshToken save(RefreshToken refreshToken);
+
+    /**
+     * Replaces the user's existing refresh token, or inserts one if they have none, atomically
+     *
+     * @param refreshToken The new refresh token, including its user
+     * @return The persisted refresh token
+     */
+    RefreshToken replace(RefreshToken refreshToken);
+
+    /**
+     * Deletes a refresh token
+     *
+     * @param refreshToken The refresh token
+     */
+    void delete(RefreshToken refreshToken);
+
+    /**
+     * Deletes all of a user's refresh tokens
+     *
+     * @param user The user
+     * @return The number of refresh tokens deleted
+     */
+    int deleteByUser(User user);
+}
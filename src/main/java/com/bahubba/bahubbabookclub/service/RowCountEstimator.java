@@ -0,0 +1,25 @@
+package com.bahubba.bahubbabookclub.service;
+
+import java.util.function.LongSupplier;
+
+/** Approximate row counts for listings too big to count exactly on every page */
+public interface RowCountEstimator {
+
+    /**
+     * Estimates the number of rows in a whole table
+     *
+     * @param table The table name
+     * @param exactCount Counts the rows exactly, for when there's no better estimate
+     * @return The estimated number of rows
+     */
+    long estimateTable(String table, LongSupplier exactCount);
+
+    /**
+     * Estimates the number of rows matching a filter, from a count that's cached and recounted periodically
+     *
+     * @param key Identifies the filter, e.g. the table and the ID filtered on
+     * @param exactCount Counts the matching rows exactly
+     * @return The estimated number of matching rows
+     */
+    long estimate(String key, LongSupplier exactCount);
+}
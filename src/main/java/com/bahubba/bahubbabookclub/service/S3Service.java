@@ -1,5 +1,7 @@
 package com.bahubba.bahubbabookclub.service;
 
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
@@ -8,7 +10,8 @@ import software.amazon.awssdk.services.s3.model.S3Object;
  */
 public interface S3Service {
     /**
-     * Get a list of objects from S3 with a given prefix
+     * Get a list of all objects from S3 with a given prefix, across as many pages as it takes. While S3 is unavailable,
+     * the last listing successfully fetched for the prefix is returned instead
      *
      * @param prefix The prefix to search for
      * @return The list of objects
@@ -16,10 +19,37 @@ public interface S3Service {
     List<S3Object> listS3ObjectsAtPrefix(String prefix);
 
     /**
-     * Get a pre-signed URL for a file from S3
+     * Get a pre-signed URL for a file from S3. URLs are cached per key, and are valid for at least half of {@link
+     * com.bahubba.bahubbabookclub.util.APIConstants#BOOK_CLUB_IMAGE_URL_TIMEOUT_MINUTES} when returned
      *
      * @param key The key of the file to get
      * @return The pre-signed URL
      */
     String getPreSignedURL(String key);
+
+    /**
+     * Download an object from S3 to a file
+     *
+     * @param key The key of the object to download
+     * @param destination The file to download to, which must not already exist
+     */
+    void downloadObject(String key, Path destination);
+
+    /**
+     * Check whether an object exists in S3
+     *
+     * @param key The key of the object
+     * @return true if the object exists
+     */
+    boolean objectExists(String key);
+
+    /**
+     * Upload an object to S3, streaming its content rather than holding it in memory
+     *
+     * @param key The key to upload to
+     * @param content The object's content
+     * @param contentLength The length of the content in bytes
+     * @param contentType The object's MIME type
+     */
+    void putObject(String key, InputStream content, long contentLength, String contentType);
 }
@@ -0,0 +1,30 @@
+package com.bahubba.bahubbabookclub.service;
+
+import com.bahubba.bahubbabookclub.model.dto.S3ImageDTO;
+import java.util.List;
+
+/** In-memory catalog of the stock book club images in S3 */
+public interface StockImageCatalog {
+
+    /**
+     * Get the stock book club images from the current snapshot of the catalog, with their image URLs
+     *
+     * @return The stock book club images
+     */
+    List<S3ImageDTO> getStockImages();
+
+    /**
+     * Check whether an image is in the current snapshot of the catalog
+     *
+     * @param fileName The image's file name
+     * @return true if the image is a stock book club image
+     */
+    boolean containsStockImage(String fileName);
+
+    /**
+     * Reload the catalog from S3, swapping in the new snapshot on success and keeping the last good one otherwise
+     *
+     * @return true if the catalog was reloaded
+     */
+    boolean refresh();
+}
@@ -0,0 +1,35 @@
+package com.bahubba.bahubbabookclub.service;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/** Local disk mirror of the stock book club images in S3, kept in step with the {@link StockImageCatalog} */
+public interface StockImageMirror {
+
+    /**
+     * Get a stock book club image from the mirror
+     *
+     * @param fileName The image's file name
+     * @return The mirrored image, if it has been downloaded
+     */
+    Optional<MirroredImage> getImage(String fileName);
+
+    /**
+     * Bring the mirror in line with a listing of the stock images, downloading new and changed images and deleting
+     * ones that are gone once they've gone unserved for a grace period. Images that fail to download keep their last
+     * mirrored version.
+     *
+     * @param s3Objects The stock image objects in S3
+     */
+    void sync(List<S3Object> s3Objects);
+
+    /**
+     * A stock image on local disk
+     *
+     * @param file The image's file
+     * @param eTag The S3 ETag of the image's contents, without quotes
+     */
+    record MirroredImage(Path file, String eTag) {}
+}
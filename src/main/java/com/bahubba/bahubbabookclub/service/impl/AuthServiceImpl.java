@@ -19,6 +19,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseCookie;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
 
@@ -66,18 +67,20 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public AuthDTO authenticate(@NotNull AuthRequest req) throws AuthenticationException, UserNotFoundException {
-        authManager.authenticate(new UsernamePasswordAuthenticationToken(req.getUsernameOrEmail(), req.getPassword()));
+        Authentication auth = authManager.authenticate(
+                new UsernamePasswordAuthenticationToken(req.getUsernameOrEmail(), req.getPassword()));
 
-        User user = userRepo.findByUsernameOrEmail(req.getUsernameOrEmail(), req.getUsernameOrEmail())
-                .orElseThrow(() -> new UserNotFoundException(req.getUsernameOrEmail()));
+        // Reuse the user loaded to check the password, only going back to the DB if the principal isn't our entity
+        User user = auth != null && auth.getPrincipal() instanceof User principal
+                ? principal
+                : userRepo.findByUsernameOrEmail(req.getUsernameOrEmail(), req.getUsernameOrEmail())
+                        .orElseThrow(() -> new UserNotFoundException(req.getUsernameOrEmail()));
 
         ResponseCookie jwtCookie = jwtService.generateJwtCookie(user);
 
-        // Delete existing refresh cookies
-        jwtService.deleteByUserID(user.getId());
-
+        // Swap out any existing refresh token for a new one
         ResponseCookie refreshCookie = jwtService.generateJwtRefreshCookie(
-                jwtService.createRefreshToken(user.getId()).getToken());
+                jwtService.replaceRefreshToken(user).getToken());
 
         return AuthDTO.builder()
                 .user(userMapper.entityToDTO(user))
@@ -88,6 +91,7 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public AuthDTO logout(HttpServletRequest req) {
+        jwtService.invalidateToken(jwtService.getJwtFromCookies(req));
         jwtService.deleteRefreshToken(req);
 
         return AuthDTO.builder()
@@ -2,35 +2,61 @@ package com.bahubba.bahubbabookclub.service.impl;
 
 import com.bahubba.bahubbabookclub.exception.*;
 import com.bahubba.bahubbabookclub.model.dto.BookClubDTO;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
 import com.bahubba.bahubbabookclub.model.dto.S3ImageDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
 import com.bahubba.bahubbabookclub.model.entity.BookClub;
 import com.bahubba.bahubbabookclub.model.entity.BookClubMembership;
 import com.bahubba.bahubbabookclub.model.entity.Notification;
 import com.bahubba.bahubbabookclub.model.entity.User;
 import com.bahubba.bahubbabookclub.model.enums.BookClubRole;
 import com.bahubba.bahubbabookclub.model.enums.NotificationType;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.enums.Publicity;
 import com.bahubba.bahubbabookclub.model.mapper.BookClubMapper;
 import com.bahubba.bahubbabookclub.model.payload.BookClubPayload;
 import com.bahubba.bahubbabookclub.repository.BookClubMembershipRepo;
 import com.bahubba.bahubbabookclub.repository.BookClubRepo;
 import com.bahubba.bahubbabookclub.repository.NotificationRepo;
+import com.bahubba.bahubbabookclub.repository.UserRepo;
+import com.bahubba.bahubbabookclub.service.BookClubSearchEngine;
 import com.bahubba.bahubbabookclub.service.BookClubService;
+import com.bahubba.bahubbabookclub.service.BookClubSuggestionIndex;
+import com.bahubba.bahubbabookclub.service.ImageVariantService;
+import com.bahubba.bahubbabookclub.service.RowCountEstimator;
 import com.bahubba.bahubbabookclub.service.S3Service;
+import com.bahubba.bahubbabookclub.service.StockImageCatalog;
 import com.bahubba.bahubbabookclub.util.APIConstants;
+import com.bahubba.bahubbabookclub.util.CursorUtil;
+import com.bahubba.bahubbabookclub.util.ImageUtil;
 import com.bahubba.bahubbabookclub.util.SecurityUtil;
+import com.bahubba.bahubbabookclub.util.SliceUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import software.amazon.awssdk.services.s3.model.S3Object;
+import org.springframework.web.multipart.MultipartFile;
 
 /** {@link BookClub} business logic implementation */
 @Service
@@ -38,11 +64,38 @@ import software.amazon.awssdk.services.s3.model.S3Object;
 @RequiredArgsConstructor
 public class BookClubServiceImpl implements BookClubService {
 
+    // Supported image MIME types, with the extension they're stored under
+    private static final Map<String, String> CUSTOM_IMAGE_EXTENSIONS = Map.of(
+            MediaType.IMAGE_PNG_VALUE,
+            "png",
+            MediaType.IMAGE_JPEG_VALUE,
+            "jpg",
+            MediaType.IMAGE_GIF_VALUE,
+            "gif",
+            "image/webp",
+            "webp");
+
+    // Uploaded images known to be in use, so serving them doesn't take a DB query each time. Bounded, and short-lived
+    // so a replaced image stops being served soon after
+    private static final long MAX_KNOWN_IMAGES = 10_000L;
+    private static final Duration KNOWN_IMAGE_TTL = Duration.ofMinutes(5);
+
+    private final Cache<String, Boolean> knownImages = Caffeine.newBuilder()
+            .maximumSize(MAX_KNOWN_IMAGES)
+            .expireAfterWrite(KNOWN_IMAGE_TTL)
+            .build();
+
+    private final StockImageCatalog stockImageCatalog;
     private final S3Service s3Service;
+    private final ImageVariantService imageVariantService;
     private final BookClubRepo bookClubRepo;
+    private final BookClubSearchEngine bookClubSearchEngine;
+    private final BookClubSuggestionIndex bookClubSuggestionIndex;
     private final BookClubMembershipRepo bookClubMembershipRepo;
     private final NotificationRepo notificationRepo;
+    private final UserRepo userRepo;
     private final BookClubMapper bookClubMapper;
+    private final RowCountEstimator rowCountEstimator;
 
     @Override
     public BookClubDTO create(BookClubPayload newBookClub) throws UserNotFoundException, BadBookClubActionException {
@@ -60,22 +113,25 @@ public class BookClubServiceImpl implements BookClubService {
         // Convert the book club to an entity and persist it
         BookClub newBookClubEntity = bookClubRepo.save(bookClubMapper.payloadToEntity(newBookClub));
 
-        // Add the user as a member/owner
+        // Add the user as a member/owner, by reference as the principal may be a partial user
+        User userRef = userRepo.getReferenceById(user.getId());
         bookClubMembershipRepo.save(BookClubMembership.builder()
                 .bookClub(newBookClubEntity)
-                .user(user)
+                .user(userRef)
                 .clubRole(BookClubRole.ADMIN)
                 .isOwner(true)
                 .build());
 
         // Generate a notification for the book club's creation
         notificationRepo.save(Notification.builder()
-                .sourceUser(user)
-                .targetUser(user)
+                .sourceUser(userRef)
+                .targetUser(userRef)
                 .bookClub(newBookClubEntity)
                 .type(NotificationType.BOOK_CLUB_CREATED)
                 .build());
 
+        bookClubSuggestionIndex.update(newBookClubEntity);
+
         return bookClubMapper.entityToDTO(newBookClubEntity);
     }
 
@@ -102,6 +158,7 @@ public class BookClubServiceImpl implements BookClubService {
         // TODO - Add notifications for each piece of metadata that was updated
 
         // Persist and return the book club
+        bookClubSuggestionIndex.update(bookClub);
         return bookClubMapper.entityToDTO(bookClubRepo.save(bookClub));
     }
 
@@ -175,6 +232,71 @@ public class BookClubServiceImpl implements BookClubService {
         return getPageOfAll(pageNum, pageSize);
     }
 
+    @Override
+    public SliceDTO<BookClubDTO> findAllForUser(int pageNum, int pageSize, PageTotals totals)
+            throws UserNotFoundException {
+
+        // Get the current user from the security context
+        User user = SecurityUtil.getCurrentUserDetails();
+        if (user == null) {
+            throw new UserNotFoundException();
+        }
+
+        Slice<BookClub> entitySlice =
+                bookClubRepo.findSliceForUser(user.getId(), SliceUtil.pageRequest(pageNum, pageSize));
+
+        return SliceUtil.toSlice(
+                entitySlice,
+                bookClubMapper::entityToDTO,
+                totals,
+                () -> rowCountEstimator.estimate(
+                        "book_club_users:user:" + user.getId(),
+                        () -> bookClubMembershipRepo.countByUserIdAndDepartedIsNullAndBookClubDisbandedIsNull(
+                                user.getId())));
+    }
+
+    @Override
+    public SliceDTO<BookClubDTO> findAll(int pageNum, int pageSize, PageTotals totals) {
+        Slice<BookClub> entitySlice = bookClubRepo.findAllBy(SliceUtil.pageRequest(pageNum, pageSize));
+
+        return SliceUtil.toSlice(
+                entitySlice,
+                bookClubMapper::entityToDTO,
+                totals,
+                () -> rowCountEstimator.estimateTable("book_club", bookClubRepo::count));
+    }
+
+    @Override
+    public CursorPageDTO<BookClubDTO> findAllForUser(String cursor, int pageSize)
+            throws UserNotFoundException, InvalidCursorException {
+
+        // Get the current user from the security context
+        User user = SecurityUtil.getCurrentUserDetails();
+        if (user == null) {
+            throw new UserNotFoundException();
+        }
+
+        // Seek past the last book club of the previous page, if there was one
+        CursorUtil.Cursor after = CursorUtil.decode(cursor);
+        List<BookClub> bookClubs = after == null
+                ? bookClubRepo.findFirstPageForUser(user.getId(), CursorUtil.pageRequest(pageSize))
+                : bookClubRepo.findPageForUserAfter(
+                        user.getId(), after.time(), after.id(), CursorUtil.pageRequest(pageSize));
+
+        return CursorUtil.toPage(bookClubs, pageSize, BookClubServiceImpl::cursorOf, bookClubMapper::entityToDTO);
+    }
+
+    @Override
+    public CursorPageDTO<BookClubDTO> findAll(String cursor, int pageSize) throws InvalidCursorException {
+        // Seek past the last book club of the previous page, if there was one
+        CursorUtil.Cursor after = CursorUtil.decode(cursor);
+        List<BookClub> bookClubs = after == null
+                ? bookClubRepo.findFirstPage(CursorUtil.pageRequest(pageSize))
+                : bookClubRepo.findPageAfter(after.time(), after.id(), CursorUtil.pageRequest(pageSize));
+
+        return CursorUtil.toPage(bookClubs, pageSize, BookClubServiceImpl::cursorOf, bookClubMapper::entityToDTO);
+    }
+
     @Override
     public Page<BookClubDTO> search(String searchTerm, int pageNum, int pageSize)
             throws PageSizeTooSmallException, PageSizeTooLargeException {
@@ -194,6 +316,11 @@ public class BookClubServiceImpl implements BookClubService {
         return getPageOfSearchResults(searchTerm, pageNum, pageSize);
     }
 
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        return bookClubSuggestionIndex.suggest(prefix, Math.min(limit, APIConstants.MAX_NAME_SUGGESTIONS));
+    }
+
     @Override
     public BookClubDTO disbandBookClubByID(UUID id)
             throws UserNotFoundException, MembershipNotFoundException, UnauthorizedBookClubActionException,
@@ -233,25 +360,95 @@ public class BookClubServiceImpl implements BookClubService {
     }
 
     @Override
-    public List<S3ImageDTO> getStockBookClubImages() {
-        List<S3ImageDTO> stockImages = new ArrayList<>();
-
-        // Get the list of stock book club images from S3
-        List<S3Object> s3ImageObjects = s3Service.listS3ObjectsAtPrefix(APIConstants.BOOK_CLUB_STOCK_IMAGE_PREFIX);
-
-        // Get the pre-signed URLs for each image
-        for (S3Object s3ImageObject : s3ImageObjects) {
-            if (s3ImageObject.size() > 0) {
-                stockImages.add(S3ImageDTO.builder()
-                        .fileName(s3ImageObject
-                                .key()
-                                .substring(s3ImageObject.key().lastIndexOf("/") + 1))
-                        .url(s3Service.getPreSignedURL(s3ImageObject.key()))
-                        .build());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BookClubDTO uploadImage(UUID id, MultipartFile image)
+            throws UserNotFoundException, BookClubNotFoundException, BadBookClubActionException {
+        // Get the current user from the security context
+        User user = SecurityUtil.getCurrentUserDetails();
+        if (user == null) {
+            throw new UserNotFoundException();
+        }
+
+        // Check the user can change the book club before storing anything
+        BookClub bookClub = bookClubRepo
+                .findByIdAndUserIsAdmin(id, user.getId())
+                .orElseThrow(() -> new BookClubNotFoundException(id));
+
+        // The declared content type is the client's word for it, go by the content's magic bytes instead
+        String contentType = image.isEmpty() ? null : sniffContentType(image);
+        String extension = contentType != null ? CUSTOM_IMAGE_EXTENSIONS.get(contentType) : null;
+        if (extension == null) {
+            throw new BadBookClubActionException("Image must be a non-empty PNG, JPEG, GIF or WebP file");
+        }
+
+        // Multipart files are spooled to disk, so they're streamed from there twice, once to hash and once to upload,
+        // rather than ever held in memory. No transaction is held open in the meantime.
+        String fileName = APIConstants.CUSTOM_IMAGE_DIR + sha256Hex(image) + "." + extension;
+        String key = APIConstants.BOOK_CLUB_IMAGE_PREFIX + fileName;
+        if (!s3Service.objectExists(key)) {
+            try (InputStream content = image.getInputStream()) {
+                s3Service.putObject(key, content, image.getSize(), contentType);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         }
 
-        return stockImages;
+        bookClubRepo.updateImageFileName(id, fileName);
+        knownImages.put(fileName, Boolean.TRUE);
+        imageVariantService.generateVariants(fileName);
+        bookClub.setImageFileName(fileName);
+        return bookClubMapper.entityToDTO(bookClub);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isBookClubImage(String fileName) {
+        if (knownImages.getIfPresent(fileName) != null) {
+            return true;
+        }
+
+        boolean used = bookClubRepo.existsByImageFileName(fileName);
+        if (used) {
+            knownImages.put(fileName, Boolean.TRUE);
+        }
+        return used;
+    }
+
+    @Override
+    public List<S3ImageDTO> getStockBookClubImages() {
+        return stockImageCatalog.getStockImages();
+    }
+
+    /**
+     * Work out an uploaded image's type from its first bytes
+     *
+     * @param file The uploaded file
+     * @return The image's MIME type, or null if it isn't a PNG, JPEG, GIF or WebP image
+     */
+    private static String sniffContentType(MultipartFile file) {
+        try (InputStream content = file.getInputStream()) {
+            return ImageUtil.sniffImageType(content.readNBytes(ImageUtil.IMAGE_SIGNATURE_LENGTH));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Hash the content of an uploaded file
+     *
+     * @param file The uploaded file
+     * @return The lowercase hex SHA-256 of the file's content
+     */
+    private static String sha256Hex(MultipartFile file) {
+        try (DigestInputStream content =
+                new DigestInputStream(file.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            content.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(content.getMessageDigest().digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     /**
@@ -294,6 +491,10 @@ public class BookClubServiceImpl implements BookClubService {
         return entityPage.map(bookClubMapper::entityToDTO);
     }
 
+    private static String cursorOf(BookClub bookClub) {
+        return CursorUtil.encode(bookClub.getCreated(), bookClub.getId());
+    }
+
     /**
      * Retrieves a page of all book clubs
      *
@@ -317,8 +518,7 @@ public class BookClubServiceImpl implements BookClubService {
      */
     private @NotNull Page<BookClubDTO> getPageOfSearchResults(String searchTerm, int pageNum, int pageSize) {
         // Get results
-        Page<BookClub> entityPage = bookClubRepo.findAllByPublicityNotAndNameContainsIgnoreCase(
-                Publicity.PRIVATE, searchTerm, PageRequest.of(pageNum, pageSize));
+        Page<BookClub> entityPage = bookClubSearchEngine.search(searchTerm, PageRequest.of(pageNum, pageSize));
 
         // Convert results to DTOs and return
         return entityPage.map(bookClubMapper::entityToDTO);
@@ -347,6 +547,7 @@ public class BookClubServiceImpl implements BookClubService {
 
         // Disband the book club
         bookClub.setDisbanded(LocalDateTime.now());
+        bookClubSuggestionIndex.update(bookClub);
         return bookClubMapper.entityToDTO(bookClubRepo.save(bookClub));
     }
 }
@@ -0,0 +1,315 @@
+package com.bahubba.bahubbabookclub.service.impl;
+
+import com.bahubba.bahubbabookclub.exception.ServiceUnavailableException;
+import com.bahubba.bahubbabookclub.service.ImageVariantService;
+import com.bahubba.bahubbabookclub.service.S3Service;
+import com.bahubba.bahubbabookclub.util.APIConstants;
+import com.bahubba.bahubbabookclub.util.ImageUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkClientException;
+
+/**
+ * Thumbnail generation on a small, bounded worker pool, so a burst of new images can't take CPU or memory from request
+ * handling; when the queue is full, generation is skipped and picked up again the next time the thumbnail is asked
+ * for. Images are decoded subsampled to about twice the largest missing thumbnail size, so even large uploads are
+ * never decoded at full resolution, then center-cropped to a square and scaled down in halving steps.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageVariantServiceImpl implements ImageVariantService, DisposableBean {
+
+    // Enough to remember the thumbnails of every image the app has, without it being unbounded
+    private static final long MAX_TRACKED_IMAGES = 10_000L;
+
+    private final S3Service s3Service;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.properties.image_variants.pool_size}")
+    private int poolSize;
+
+    @Value("${app.properties.image_variants.queue_capacity}")
+    private int queueCapacity;
+
+    @Value("${app.properties.image_variants.retry_failed_millis}")
+    private long retryFailedMillis;
+
+    private ThreadPoolExecutor executor;
+
+    // Images queued or being processed, so each is only worked on once at a time
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    // Thumbnail keys known to exist
+    private Cache<String, Boolean> existingVariants;
+
+    // Images that couldn't be processed (e.g. formats ImageIO can't decode), not retried for a while
+    private Cache<String, Boolean> failedImages;
+
+    private Timer generationTimer;
+    private Counter rejections;
+    private Counter failures;
+
+    /** Sets up the worker pool, caches and metrics */
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        existingVariants = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_IMAGES * APIConstants.BOOK_CLUB_THUMBNAIL_SIZES.size())
+                .build();
+        failedImages = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_IMAGES)
+                .expireAfterWrite(Duration.ofMillis(retryFailedMillis))
+                .build();
+
+        Gauge.builder("images.variants.queue", executor, pool -> pool.getQueue().size())
+                .description("Images waiting for thumbnail generation")
+                .register(meterRegistry);
+        generationTimer = Timer.builder("images.variants.generation")
+                .description("Time spent generating an image's thumbnails")
+                .register(meterRegistry);
+        rejections = Counter.builder("images.variants.rejections")
+                .description("Thumbnail generations skipped because the queue was full")
+                .register(meterRegistry);
+        failures = Counter.builder("images.variants.failures")
+                .description("Failed thumbnail generations")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void generateVariants(String fileName) {
+        if (fileName == null
+                || failedImages.getIfPresent(fileName) != null
+                || missingSizes(fileName).isEmpty()) {
+            return;
+        }
+
+        if (!inProgress.add(fileName)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    generationTimer.record(() -> generate(fileName));
+                } finally {
+                    inProgress.remove(fileName);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inProgress.remove(fileName);
+            rejections.increment();
+        }
+    }
+
+    @Override
+    public Optional<String> getVariantKey(String fileName, int size) {
+        String key = ImageUtil.getBookClubThumbnailKey(fileName, size);
+        if (existingVariants.getIfPresent(key) != null) {
+            return Optional.of(key);
+        }
+
+        // Not known here, but another instance may have made it. Rather than hold up the request asking S3, serve the
+        // original this time and leave the worker to look for it (and make it if it isn't there)
+        generateVariants(fileName);
+        return Optional.empty();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Generates and uploads an image's missing thumbnails
+     *
+     * @param fileName The image's file name
+     */
+    private void generate(String fileName) {
+        Path original = null;
+        Path thumbnail = null;
+        try {
+            List<Integer> sizes = missingSizes(fileName).stream()
+                    .filter(size -> {
+                        String key = ImageUtil.getBookClubThumbnailKey(fileName, size);
+                        if (s3Service.objectExists(key)) {
+                            existingVariants.put(key, Boolean.TRUE);
+                            return false;
+                        }
+                        return true;
+                    })
+                    .toList();
+            if (sizes.isEmpty()) {
+                return;
+            }
+
+            // Downloads need a path that doesn't exist yet
+            original = Files.createTempFile("book-club-image", null);
+            Files.delete(original);
+            s3Service.downloadObject(ImageUtil.getBookClubImageKey(fileName), original);
+
+            BufferedImage source = read(
+                    original, sizes.stream().mapToInt(Integer::intValue).max().orElseThrow());
+            if (source == null) {
+                failures.increment();
+                failedImages.put(fileName, Boolean.TRUE);
+                log.info("No thumbnails for {}, its format can't be decoded", fileName);
+                return;
+            }
+
+            thumbnail = Files.createTempFile("book-club-thumbnail", ".png");
+            for (int size : sizes) {
+                ImageIO.write(thumbnail(source, size), "png", thumbnail.toFile());
+                String key = ImageUtil.getBookClubThumbnailKey(fileName, size);
+                try (InputStream content = Files.newInputStream(thumbnail)) {
+                    s3Service.putObject(key, content, Files.size(thumbnail), MediaType.IMAGE_PNG_VALUE);
+                }
+                existingVariants.put(key, Boolean.TRUE);
+            }
+        } catch (ServiceUnavailableException | SdkClientException e) {
+            // S3 being down says nothing about the image, so leave it to be retried on the next request for it
+            failures.increment();
+            log.warn("Couldn't generate thumbnails for {}, S3 is unavailable: {}", fileName, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            failedImages.put(fileName, Boolean.TRUE);
+            log.warn("Failed to generate thumbnails for {}", fileName, e);
+        } finally {
+            deleteQuietly(original);
+            deleteQuietly(thumbnail);
+        }
+    }
+
+    /**
+     * Finds the thumbnail sizes not yet known to exist for an image
+     *
+     * @param fileName The image's file name
+     * @return The missing sizes
+     */
+    private List<Integer> missingSizes(String fileName) {
+        return APIConstants.BOOK_CLUB_THUMBNAIL_SIZES.stream()
+                .filter(size ->
+                        existingVariants.getIfPresent(ImageUtil.getBookClubThumbnailKey(fileName, size)) == null)
+                .toList();
+    }
+
+    /**
+     * Decodes an image, subsampled to no less than twice the target size on its short side
+     *
+     * @param file The image file
+     * @param targetSize The largest size it will be scaled to
+     * @return The decoded image, or null if no ImageIO reader can decode it
+     * @throws IOException If the file can't be read
+     */
+    private static BufferedImage read(Path file, int targetSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int shortSide = Math.min(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, shortSide / (targetSize * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Center-crops an image to a square and scales it to a thumbnail, halving it at a time while it's more than twice
+     * the target size, since a single bilinear step that large skips most of the source pixels
+     *
+     * @param source The image
+     * @param size The thumbnail's width and height in pixels
+     * @return The thumbnail
+     */
+    private static BufferedImage thumbnail(BufferedImage source, int size) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        BufferedImage current =
+                source.getSubimage((source.getWidth() - side) / 2, (source.getHeight() - side) / 2, side, side);
+
+        int currentSize = side;
+        while (currentSize / 2 >= size) {
+            currentSize /= 2;
+            current = scale(current, currentSize);
+        }
+        return scale(current, size);
+    }
+
+    private static BufferedImage scale(BufferedImage source, int size) {
+        BufferedImage scaled = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.debug("Failed to delete temporary file {}", file, e);
+            }
+        }
+    }
+}
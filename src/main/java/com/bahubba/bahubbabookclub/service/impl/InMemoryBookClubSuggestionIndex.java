@@ -0,0 +1,242 @@
+package com.bahubba.bahubbabookclub.service.impl;
+
+import com.bahubba.bahubbabookclub.model.entity.BookClub;
+import com.bahubba.bahubbabookclub.model.enums.Publicity;
+import com.bahubba.bahubbabookclub.repository.BookClubRepo;
+import com.bahubba.bahubbabookclub.service.BookClubSuggestionIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link BookClubSuggestionIndex} over two concurrent skip lists of book club IDs, one ordered by the lower-cased names
+ * and one by every lower-cased name suffix starting at a later word. Each name is held once, in a map by ID, and the
+ * skip list entries only point into its lower-cased copy, so a name with many words doesn't cost a copy per word. A
+ * suggestion is a walk over the range of entries starting with the prefix, so reads never lock and cost
+ * O(log n + limit) however many clubs there are.
+ *
+ * <p>The index is built from the DB on startup, updated as clubs are created, updated and disbanded here, and rebuilt
+ * periodically to pick up changes made by other instances. Updates made here while a rebuild is reading the DB are
+ * replayed onto the rebuilt index before it's swapped in, so none are lost.
+ */
+@Service
+@Slf4j
+public class InMemoryBookClubSuggestionIndex implements BookClubSuggestionIndex {
+
+    private final BookClubRepo bookClubRepo;
+    private final Object rebuildLock = new Object();
+
+    private volatile Index index = new Index();
+
+    // Updates applied since the running rebuild started reading the DB, null when there's no rebuild running
+    private List<Update> pendingUpdates;
+
+    public InMemoryBookClubSuggestionIndex(BookClubRepo bookClubRepo, MeterRegistry meterRegistry) {
+        this.bookClubRepo = bookClubRepo;
+
+        Gauge.builder("book-clubs.suggestions.indexed", this, suggestionIndex -> suggestionIndex.index.namesByID.size())
+                .description("Book club names in the type-ahead index")
+                .register(meterRegistry);
+    }
+
+    /** Rebuilds the index from the DB, replays the updates made in the meantime onto it, and swaps it in */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${app.properties.book_club_suggestions.rebuild_millis}",
+            fixedDelayString = "${app.properties.book_club_suggestions.rebuild_millis}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pendingUpdates = new ArrayList<>();
+            }
+
+            Index rebuilt = new Index();
+            try {
+                bookClubRepo
+                        .findAllSearchableNames(Publicity.PRIVATE)
+                        .forEach(bookClub -> rebuilt.add(bookClub.getId(), bookClub.getName()));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendingUpdates = null;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                pendingUpdates.forEach(update -> update.applyTo(rebuilt));
+                pendingUpdates = null;
+                index = rebuilt;
+            }
+            log.debug("Indexed {} book club names for suggestions", rebuilt.namesByID.size());
+        }
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        String key = prefix.strip().toLowerCase(Locale.ROOT);
+        if (key.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        Index current = index;
+        Set<String> suggestions = new LinkedHashSet<>();
+        current.collect(current.names, key, limit, suggestions);
+        current.collect(current.words, key, limit, suggestions);
+        return new ArrayList<>(suggestions);
+    }
+
+    @Override
+    public void update(BookClub bookClub) {
+        if (bookClub.getId() == null) {
+            return;
+        }
+
+        Update update = new Update(
+                bookClub.getId(),
+                bookClub.getName(),
+                bookClub.getPublicity() != Publicity.PRIVATE && bookClub.getDisbanded() == null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(update);
+                }
+            });
+        } else {
+            apply(update);
+        }
+    }
+
+    /**
+     * Applies an update to the index, and records it for the running rebuild, if any. Only updates lock, and only
+     * briefly; reads never do
+     *
+     * @param update The update
+     */
+    private synchronized void apply(Update update) {
+        update.applyTo(index);
+        if (pendingUpdates != null) {
+            pendingUpdates.add(update);
+        }
+    }
+
+    /**
+     * A book club's change, captured at commit so it can be replayed onto a rebuilt index
+     *
+     * @param id The book club's ID
+     * @param name The book club's name
+     * @param searchable Whether it should be suggested, i.e. isn't private or disbanded
+     */
+    private record Update(UUID id, String name, boolean searchable) {
+        void applyTo(Index index) {
+            index.remove(id);
+            if (searchable) {
+                index.add(id, name);
+            }
+        }
+    }
+
+    /**
+     * An entry in one of the skip lists: the ID of a book club, and where in its lower-cased name the entry's key starts
+     *
+     * @param lowerName The book club's lower-cased name, shared by all of its entries
+     * @param start Where the key starts in the name
+     * @param id The book club's ID, or null for the bounds of a range lookup
+     */
+    private record Entry(String lowerName, int start, UUID id) {}
+
+    /** The skip lists and the names they point to, swapped out together on a rebuild */
+    private static class Index {
+
+        // Orders entries by the name from their start, then by ID (with bounds before any ID) to tell equal keys apart
+        private static final Comparator<Entry> ORDER = Index::compareKeys;
+
+        private final Map<UUID, String> namesByID = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<Entry> names = new ConcurrentSkipListSet<>(ORDER);
+        private final ConcurrentSkipListSet<Entry> words = new ConcurrentSkipListSet<>(ORDER);
+
+        void add(UUID id, String name) {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            namesByID.put(id, name);
+            names.add(new Entry(lowerName, 0, id));
+            for (int start : laterWordStarts(lowerName)) {
+                words.add(new Entry(lowerName, start, id));
+            }
+        }
+
+        void remove(UUID id) {
+            String name = namesByID.remove(id);
+            if (name == null) {
+                return;
+            }
+
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            names.remove(new Entry(lowerName, 0, id));
+            for (int start : laterWordStarts(lowerName)) {
+                words.remove(new Entry(lowerName, start, id));
+            }
+        }
+
+        void collect(ConcurrentSkipListSet<Entry> entries, String prefix, int limit, Set<String> suggestions) {
+            if (suggestions.size() >= limit) {
+                return;
+            }
+            Entry from = new Entry(prefix, 0, null);
+            Entry to = new Entry(prefix + Character.MAX_VALUE, 0, null);
+            for (Entry entry : entries.subSet(from, true, to, false)) {
+                // Removed by an update since the walk started
+                String name = namesByID.get(entry.id());
+                if (name != null) {
+                    suggestions.add(name);
+                    if (suggestions.size() >= limit) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private static int compareKeys(Entry a, Entry b) {
+            int lengthA = a.lowerName().length() - a.start();
+            int lengthB = b.lowerName().length() - b.start();
+            for (int i = 0; i < Math.min(lengthA, lengthB); i++) {
+                int diff = a.lowerName().charAt(a.start() + i) - b.lowerName().charAt(b.start() + i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            if (lengthA != lengthB) {
+                return lengthA - lengthB;
+            }
+            if (a.id() == null || b.id() == null) {
+                return a.id() == null ? (b.id() == null ? 0 : -1) : 1;
+            }
+            return a.id().compareTo(b.id());
+        }
+
+        private static List<Integer> laterWordStarts(String name) {
+            List<Integer> starts = new ArrayList<>();
+            for (int i = 1; i < name.length(); i++) {
+                if (Character.isWhitespace(name.charAt(i - 1)) && !Character.isWhitespace(name.charAt(i))) {
+                    starts.add(i);
+                }
+            }
+            return starts;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.bahubba.bahubbabookclub.service.impl;
+
+import com.bahubba.bahubbabookclub.model.entity.RefreshToken;
+import com.bahubba.bahubbabookclub.model.entity.User;
+import com.bahubba.bahubbabookclub.repository.RefreshTokenRepo;
+import com.bahubba.bahubbabookclub.repository.UserRepo;
+import com.bahubba.bahubbabookclub.service.RefreshTokenStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Opt-in {@link RefreshTokenStore} for single-node deployments: a concurrent in-memory index of refresh tokens keyed by
+ * a SHA-256 digest of the token, written through to the {@link RefreshTokenRepo} for durability. Tokens are expired by
+ * a hashed timing wheel (which also deletes their rows), the index is warm-loaded from the DB on startup, and misses
+ * fall back to the DB.
+ *
+ * <p>The index is node-local, so with more than one instance a token deleted or replaced on one is still accepted from
+ * another's index until it expires. Use the {@link JpaRefreshTokenStore} there.
+ *
+ * <p>Only the user's ID is held in memory; tokens are handed out with a reference to the user, loaded from the DB when
+ * first accessed
+ */
+@Service
+@ConditionalOnProperty(name = "app.properties.refresh_token_store.type", havingValue = "memory")
+@Slf4j
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepo refreshTokenRepo;
+    private final UserRepo userRepo;
+    private final long tickMillis;
+
+    private final Map<ByteBuffer, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<ByteBuffer>> tokensByUser = new ConcurrentHashMap<>();
+
+    // Each bucket holds the keys of the tokens expiring in the ticks that hash to it; tokens expiring more than one
+    // revolution out simply stay put until the wheel comes back around to them
+    private final List<Set<ByteBuffer>> wheel;
+    private long lastTick;
+
+    public InMemoryRefreshTokenStore(
+            RefreshTokenRepo refreshTokenRepo,
+            UserRepo userRepo,
+            @Value("${app.properties.refresh_token_store.wheel_size}") int wheelSize,
+            @Value("${app.properties.refresh_token_store.tick_millis}") long tickMillis,
+            MeterRegistry meterRegistry) {
+        this.refreshTokenRepo = refreshTokenRepo;
+        this.userRepo = userRepo;
+        this.tickMillis = tickMillis;
+
+        wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+        lastTick = System.currentTimeMillis() / tickMillis;
+
+        Gauge.builder("auth.refresh-tokens.cached", tokens, Map::size)
+                .description("Refresh tokens held in memory")
+                .register(meterRegistry);
+    }
+
+    /** Loads the unexpired refresh tokens from the DB, so a refresh storm right after a deploy is served from memory */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmLoad() {
+        List<RefreshToken> unexpired = refreshTokenRepo.findAllUnexpired(Instant.now());
+        unexpired.forEach(this::index);
+        log.info("Loaded {} refresh tokens into memory", unexpired.size());
+    }
+
+    @Override
+    public Optional<RefreshToken> findByToken(String token) {
+        CachedToken cachedToken = tokens.get(digest(token));
+        if (cachedToken != null) {
+            return Optional.of(cachedToken.toRefreshToken(userRepo));
+        }
+
+        // Fall back to the DB for tokens issued elsewhere
+        Optional<RefreshToken> persisted = refreshTokenRepo.findByToken(token);
+        persisted.ifPresent(this::index);
+        return persisted;
+    }
+
+    @Override
+    public RefreshToken save(RefreshToken refreshToken) {
+        RefreshToken saved = refreshTokenRepo.save(refreshToken);
+        indexAfterCommit(saved);
+        return saved;
+    }
+
+    @Override
+    public RefreshToken replace(RefreshToken refreshToken) {
+        RefreshToken replaced = refreshTokenRepo.upsertByUser(refreshToken);
+        unindexUser(replaced.getUser().getId());
+        indexAfterCommit(replaced);
+        return replaced;
+    }
+
+    @Override
+    public void delete(RefreshToken refreshToken) {
+        unindex(refreshToken);
+        refreshTokenRepo.deleteByToken(refreshToken.getToken());
+    }
+
+    @Override
+    public int deleteByUser(User user) {
+        unindexUser(user.getId());
+        return refreshTokenRepo.deleteByUser(user);
+    }
+
+    /**
+     * Advances the timing wheel to the current time, dropping expired tokens from memory, then deletes their rows in a
+     * single batch
+     */
+    @Scheduled(fixedRateString = "${app.properties.refresh_token_store.tick_millis}")
+    public void tick() {
+        // Delete outside the lock, so indexing isn't held up behind the DB
+        List<UUID> expiredIDs = advanceWheel();
+        if (!expiredIDs.isEmpty()) {
+            refreshTokenRepo.deleteAllByIdInBatch(expiredIDs);
+            log.debug("Expired {} refresh tokens", expiredIDs.size());
+        }
+    }
+
+    /**
+     * Advances the timing wheel to the current time, dropping expired tokens from memory
+     *
+     * @return The IDs of the expired tokens
+     */
+    private synchronized List<UUID> advanceWheel() {
+        long now = System.currentTimeMillis();
+        long currentTick = now / tickMillis;
+
+        // Never walk more than one full revolution, each bucket only needs visiting once
+        long fromTick = Math.max(lastTick + 1, currentTick - wheel.size() + 1);
+        List<UUID> expiredIDs = new ArrayList<>();
+        for (long t = fromTick; t <= currentTick; t++) {
+            Iterator<ByteBuffer> bucket = wheel.get(bucketIndex(t)).iterator();
+            while (bucket.hasNext()) {
+                ByteBuffer key = bucket.next();
+                CachedToken cachedToken = tokens.get(key);
+                if (cachedToken == null) {
+                    bucket.remove();
+                } else if (cachedToken.expiryDate().toEpochMilli() <= now) {
+                    bucket.remove();
+                    unindex(key, cachedToken.userID());
+                    if (cachedToken.id() != null) {
+                        expiredIDs.add(cachedToken.id());
+                    }
+                }
+            }
+        }
+        lastTick = currentTick;
+
+        return expiredIDs;
+    }
+
+    /**
+     * Adds a token to the index and schedules it on the timing wheel
+     *
+     * @param refreshToken The refresh token
+     */
+    private void index(RefreshToken refreshToken) {
+        ByteBuffer key = digest(refreshToken.getToken());
+        CachedToken cachedToken = CachedToken.of(refreshToken);
+        tokens.put(key, cachedToken);
+        if (cachedToken.userID() != null) {
+            tokensByUser
+                    .computeIfAbsent(cachedToken.userID(), id -> ConcurrentHashMap.newKeySet())
+                    .add(key);
+        }
+
+        // Round up so the bucket isn't visited before the token expires, and never schedule behind the wheel
+        long expiryTick = Math.floorDiv(refreshToken.getExpiryDate().toEpochMilli(), tickMillis) + 1;
+        synchronized (this) {
+            wheel.get(bucketIndex(Math.max(expiryTick, lastTick + 1))).add(key);
+        }
+    }
+
+    /**
+     * Indexes a token once the current transaction (if any) commits, so it isn't served from memory before it's
+     * actually in the DB
+     *
+     * @param refreshToken The refresh token
+     */
+    private void indexAfterCommit(RefreshToken refreshToken) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index(refreshToken);
+                }
+            });
+        } else {
+            index(refreshToken);
+        }
+    }
+
+    /**
+     * Drops all of a user's tokens from the index
+     *
+     * @param userID The ID of the user
+     */
+    private void unindexUser(UUID userID) {
+        Set<ByteBuffer> keys = userID == null ? null : tokensByUser.remove(userID);
+        if (keys != null) {
+            keys.forEach(tokens::remove);
+        }
+    }
+
+    /**
+     * Drops a token from the index; its wheel entry is cleaned up when its bucket is next visited
+     *
+     * @param refreshToken The refresh token
+     */
+    private void unindex(RefreshToken refreshToken) {
+        unindex(
+                digest(refreshToken.getToken()),
+                refreshToken.getUser() == null ? null : refreshToken.getUser().getId());
+    }
+
+    /**
+     * Drops a token from the index by its key
+     *
+     * @param key The digest of the token
+     * @param userID The ID of the token's user, if any
+     */
+    private void unindex(ByteBuffer key, UUID userID) {
+        tokens.remove(key);
+        if (userID != null) {
+            tokensByUser.computeIfPresent(userID, (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private int bucketIndex(long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.size());
+    }
+
+    /**
+     * SHA-256 digest of a token, so raw refresh tokens aren't used as map keys
+     *
+     * @param token The token
+     * @return The digest, wrapped for use as a map key
+     */
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** What's held in memory for a token: its row, minus the user, who is only referenced by ID */
+    private record CachedToken(UUID id, UUID userID, String token, Instant expiryDate) {
+
+        static CachedToken of(RefreshToken refreshToken) {
+            return new CachedToken(
+                    refreshToken.getId(),
+                    refreshToken.getUser() == null ? null : refreshToken.getUser().getId(),
+                    refreshToken.getToken(),
+                    refreshToken.getExpiryDate());
+        }
+
+        RefreshToken toRefreshToken(UserRepo userRepo) {
+            return RefreshToken.builder()
+                    .id(id)
+                    .user(userID == null ? null : userRepo.getReferenceById(userID))
+                    .token(token)
+                    .expiryDate(expiryDate)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.bahubba.bahubbabookclub.service.impl;
+
+import com.bahubba.bahubbabookclub.model.entity.RefreshToken;
+import com.bahubba.bahubbabookclub.model.entity.User;
+import com.bahubba.bahubbabookclub.repository.RefreshTokenRepo;
+import com.bahubba.bahubbabookclub.service.RefreshTokenStore;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/** Default {@link RefreshTokenStore}, which goes straight to the DB on every call so all instances agree */
+@Service
+@ConditionalOnProperty(name = "app.properties.refresh_token_store.type", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepo refreshTokenRepo;
+
+    @Override
+    public Optional<RefreshToken> findByToken(String token) {
+        return refreshTokenRepo.findByToken(token);
+    }
+
+    @Override
+    public RefreshToken save(RefreshToken refreshToken) {
+        return refreshTokenRepo.save(refreshToken);
+    }
+
+    @Override
+    public RefreshToken replace(RefreshToken refreshToken) {
+        return refreshTokenRepo.upsertByUser(refreshToken);
+    }
+
+    @Override
+    public void delete(RefreshToken refreshToken) {
+        // By token, as a token that was never loaded (e.g. just replaced) isn't necessarily a managed entity
+        refreshTokenRepo.deleteByToken(refreshToken.getToken());
+    }
+
+    @Override
+    public int deleteByUser(User user) {
+        return refreshTokenRepo.deleteByUser(user);
+    }
+}
@@ -5,19 +5,33 @@ import com.bahubba.bahubbabookclub.exception.UserNotFoundException;
 import com.bahubba.bahubbabookclub.model.dto.AuthDTO;
 import com.bahubba.bahubbabookclub.model.entity.RefreshToken;
 import com.bahubba.bahubbabookclub.model.entity.User;
+import com.bahubba.bahubbabookclub.model.enums.Role;
 import com.bahubba.bahubbabookclub.model.mapper.UserMapper;
-import com.bahubba.bahubbabookclub.repository.RefreshTokenRepo;
 import com.bahubba.bahubbabookclub.repository.UserRepo;
 import com.bahubba.bahubbabookclub.service.JwtService;
+import com.bahubba.bahubbabookclub.service.RefreshTokenStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.NotNull;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.Function;
@@ -35,6 +49,12 @@ import org.springframework.web.util.WebUtils;
 @Transactional
 @RequiredArgsConstructor
 public class JwtServiceImpl implements JwtService {
+    private static final long ACCESS_TOKEN_VALIDITY_MS = 1000L * 60L * 60L; // 1 hr validity
+    private static final long REFRESH_TOKEN_VALIDITY_MS = 1000L * 60L * 60L; // 1 hr validity
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String DEPARTED_CLAIM = "departed";
+
     @Value("${app.properties.secret_key}")
     private String secretKey;
 
@@ -44,13 +64,102 @@ public class JwtServiceImpl implements JwtService {
     @Value("${app.properties.refresh_cookie_name}")
     private String refreshCookieName;
 
-    private final RefreshTokenRepo refreshTokenRepo;
+    @Value("${app.properties.verified_token_cache.max_size}")
+    private long verifiedTokenCacheMaxSize;
+
+    @Value("${app.properties.stateless_principal}")
+    private boolean statelessPrincipal;
+
+    private final RefreshTokenStore refreshTokenStore;
     private final UserRepo userRepo;
     private final UserMapper userMapper;
+    private final MeterRegistry meterRegistry;
+
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    // Verified (read-only) claims keyed by a SHA-256 digest of the token, each evicted at the token's own expiration
+    private Cache<ByteBuffer, Claims> verifiedTokenCache;
+
+    // Digests of logged out tokens, mapped to their expiration and held until then. Node-local, like the cache above.
+    // Never size-evicted, as that would let a logged out token verify again; expiry alone bounds it to the tokens logged
+    // out within an access token's lifetime
+    private Cache<ByteBuffer, Date> revokedTokens;
+
+    // Users removed since their tokens were issued, whose signed principal claims can no longer be trusted. Like the
+    // revoked tokens, never size-evicted; each entry is only needed until the tokens issued before it expire
+    private Cache<String, Boolean> revokedPrincipals;
+
+    /**
+     * Decodes the signing key and builds the (thread-safe) JWT parser once, rather than per token, and sets up the
+     * verified and revoked token caches
+     */
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+
+        verifiedTokenCache = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheMaxSize)
+                .expireAfter(new Expiry<ByteBuffer, Claims>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+                        return Math.max(0L, claims.getExpiration().getTime() - System.currentTimeMillis()) * 1_000_000L;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(
+                            ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokenCache, "jwt.verified-tokens");
+
+        revokedTokens = Caffeine.newBuilder()
+                .expireAfter(new Expiry<ByteBuffer, Date>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, Date expiration, long currentTime) {
+                        return Math.max(0L, expiration.getTime() - System.currentTimeMillis()) * 1_000_000L;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(
+                            ByteBuffer key, Date expiration, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(
+                            ByteBuffer key, Date expiration, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        revokedPrincipals = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ACCESS_TOKEN_VALIDITY_MS))
+                .build();
+    }
 
     @Override
     public ResponseCookie generateJwtCookie(UserDetails userDetails) {
-        String jwt = generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> extraClaims = new HashMap<>();
+
+        // In stateless principal mode, sign what the auth filter needs to rebuild the principal into the token
+        if (statelessPrincipal && userDetails instanceof User user && user.getId() != null) {
+            extraClaims.put(USER_ID_CLAIM, user.getId().toString());
+            extraClaims.put(ROLE_CLAIM, user.getRole().name());
+            extraClaims.put(DEPARTED_CLAIM, user.getDeparted() != null);
+        }
+
+        String jwt = generateToken(extraClaims, userDetails);
         return generateCookie(authCookieName, jwt, "/api");
     }
 
@@ -74,17 +183,104 @@ public class JwtServiceImpl implements JwtService {
         return extractClaim(token, Claims::getSubject);
     }
 
-    // TODO - Update validity checks with error handling (see
-    // https://www.bezkoder.com/spring-security-refresh-token/)
+    @Override
+    public Claims verifyToken(String token) throws JwtException {
+        ByteBuffer key = digest(token);
+        if (revokedTokens.getIfPresent(key) != null) {
+            throw new JwtException("JWT has been revoked");
+        }
+
+        // Repeat presentations of the same token skip the signature check entirely
+        Claims claims = verifiedTokenCache.getIfPresent(key);
+        if (claims != null) {
+            return claims;
+        }
+
+        // Shared between requests from here on, so hand out a read-only copy
+        claims = new ReadOnlyClaims(jwtParser.parseClaimsJws(token).getBody());
+
+        // Only cache tokens that will expire; anything else has to be re-verified every time
+        if (claims.getExpiration() != null) {
+            verifiedTokenCache.put(key, claims);
+        }
+
+        return claims;
+    }
+
+    @Override
+    public void invalidateToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+
+        // Tokens that no longer verify (or never expire, so can't be held until they do) have nothing to revoke
+        final Claims claims;
+        try {
+            claims = verifyToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return;
+        }
+
+        // Deny first, so a concurrent verification can't re-cache the token once it's dropped
+        ByteBuffer key = digest(token);
+        if (claims.getExpiration() != null) {
+            revokedTokens.put(key, claims.getExpiration());
+        }
+        verifiedTokenCache.invalidate(key);
+    }
+
+    @Override
+    public void invalidateTokensForUser(String username) {
+        if (username != null) {
+            verifiedTokenCache.asMap().values().removeIf(claims -> username.equals(claims.getSubject()));
+            revokedPrincipals.put(username, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public User extractPrincipal(@NotNull Claims claims) {
+        if (!statelessPrincipal) {
+            return null;
+        }
+
+        // Tokens issued before stateless mode was enabled don't carry the principal
+        String userID = claims.get(USER_ID_CLAIM, String.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userID == null || role == null) {
+            return null;
+        }
+
+        // Departed and since-removed users have to go through the DB
+        if (Boolean.TRUE.equals(claims.get(DEPARTED_CLAIM, Boolean.class))
+                || revokedPrincipals.getIfPresent(claims.getSubject()) != null) {
+            return null;
+        }
+
+        // Signed by us, so anything unparseable is from an incompatible version and the token can't be trusted
+        try {
+            return User.builder()
+                    .id(UUID.fromString(userID))
+                    .username(claims.getSubject())
+                    .role(Role.valueOf(role))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            throw new JwtException("JWT has invalid principal claims", e);
+        }
+    }
+
     @Override
     public boolean isTokenValid(String token, @NotNull UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return isTokenValid(verifyToken(token), userDetails);
+    }
+
+    @Override
+    public boolean isTokenValid(@NotNull Claims claims, @NotNull UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject()) && !isTokenExpired(claims);
     }
 
     @Override
     public <T> T extractClaim(String token, @NotNull Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verifyToken(token);
         return claimsResolver.apply(claims);
     }
 
@@ -116,7 +312,7 @@ public class JwtServiceImpl implements JwtService {
 
     @Override
     public Optional<RefreshToken> getByToken(String token) {
-        return refreshTokenRepo.findByToken(token);
+        return refreshTokenStore.findByToken(token);
     }
 
     @Override
@@ -127,16 +323,25 @@ public class JwtServiceImpl implements JwtService {
         RefreshToken refreshToken = RefreshToken.builder()
                 .user(user)
                 .token(UUID.randomUUID().toString())
-                .expiryDate(Instant.now().plusMillis(1000L * 60L * 60L))
+                .expiryDate(Instant.now().plusMillis(REFRESH_TOKEN_VALIDITY_MS))
                 .build();
 
-        return refreshTokenRepo.save(refreshToken);
+        return refreshTokenStore.save(refreshToken);
+    }
+
+    @Override
+    public RefreshToken replaceRefreshToken(@NotNull User user) {
+        return refreshTokenStore.replace(RefreshToken.builder()
+                .user(user)
+                .token(UUID.randomUUID().toString())
+                .expiryDate(Instant.now().plusMillis(REFRESH_TOKEN_VALIDITY_MS))
+                .build());
     }
 
     @Override
     public RefreshToken verifyExpiration(@NotNull RefreshToken token) throws TokenRefreshException {
         if (token.getExpiryDate().compareTo(Instant.now()) < 0) {
-            refreshTokenRepo.delete(token);
+            refreshTokenStore.delete(token);
             throw new TokenRefreshException(token.getToken(), "Refresh token expired");
         }
 
@@ -147,7 +352,7 @@ public class JwtServiceImpl implements JwtService {
     // existing refresh tokens
     @Override
     public int deleteByUserID(UUID userID) throws UserNotFoundException {
-        return refreshTokenRepo.deleteByUser(
+        return refreshTokenStore.deleteByUser(
                 userRepo.findById(userID).orElseThrow(() -> new UserNotFoundException(userID)));
     }
 
@@ -167,8 +372,8 @@ public class JwtServiceImpl implements JwtService {
     public void deleteRefreshToken(HttpServletRequest req) {
         String refreshToken = getJwtRefreshFromCookies(req);
         if (refreshToken != null && !refreshToken.isEmpty()) {
-            Optional<RefreshToken> refreshTokenEntity = refreshTokenRepo.findByToken(refreshToken);
-            refreshTokenEntity.ifPresent(refreshTokenRepo::delete);
+            Optional<RefreshToken> refreshTokenEntity = refreshTokenStore.findByToken(refreshToken);
+            refreshTokenEntity.ifPresent(refreshTokenStore::delete);
         }
     }
 
@@ -184,8 +389,8 @@ public class JwtServiceImpl implements JwtService {
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)) // 1 hr validity
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + ACCESS_TOKEN_VALIDITY_MS))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -205,49 +410,30 @@ public class JwtServiceImpl implements JwtService {
         return null;
     }
 
-    // FIXME - Gracefully handle io.jsonwebtoken.ExpiredJwtException
-
-    /**
-     * Extracts all claims from a JWT token
-     *
-     * @param token The JWT token
-     * @return All claims from the JWT token
-     */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
     /**
-     * Generates a signing key for JWTs using a secret key
+     * Computes the SHA-256 digest of a JWT, used as the key into the verified token cache
      *
-     * @return A JWT signing key
+     * @param token The JWT
+     * @return The digest of the JWT
      */
-    private @NotNull Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    /**
-     * Checks if a JWT token is expired
-     *
-     * @param token The JWT token
-     * @return Whether the JWT token is expired
-     */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private @NotNull ByteBuffer digest(@NotNull String token) {
+        try {
+            return ByteBuffer.wrap(
+                    MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
-     * Extracts the expiration date from a JWT token
+     * Checks if a set of verified JWT claims is expired
      *
-     * @param token The JWT token
-     * @return The expiration date of the JWT token
+     * @param claims The verified JWT claims
+     * @return Whether the JWT is expired (tokens without an expiration are treated as expired)
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(@NotNull Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration == null || expiration.before(new Date());
     }
 }
@@ -0,0 +1,34 @@
+package com.bahubba.bahubbabookclub.service.impl;
+
+import com.bahubba.bahubbabookclub.model.entity.BookClub;
+import com.bahubba.bahubbabookclub.model.enums.Publicity;
+import com.bahubba.bahubbabookclub.repository.BookClubRepo;
+import com.bahubba.bahubbabookclub.service.BookClubSearchEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link BookClubSearchEngine} for databases without trigram indexes, such as H2 in tests. Names containing the term
+ * are found with a LIKE scan of the table and ranked prefix matches first, then shortest name first.
+ */
+@Service
+@ConditionalOnProperty(name = "app.properties.book_club_search.engine", havingValue = "like", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LikeBookClubSearchEngine implements BookClubSearchEngine {
+
+    private final BookClubRepo bookClubRepo;
+
+    @Override
+    public Page<BookClub> search(String searchTerm, Pageable pageable) {
+        String term = BookClubSearchEngine.escapeLike(searchTerm.toLowerCase());
+        return bookClubRepo.searchByNameLike(
+                Publicity.PRIVATE,
+                term + "%",
+                "%" + term + "%",
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+}
@@ -0,0 +1,218 @@
+package com.bahubba.bahubbabookclub.service.impl;
+
+import com.bahubba.bahubbabookclub.service.S3Service;
+import com.bahubba.bahubbabookclub.util.APIConstants;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriUtils;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * {@link S3Service} backed by a local directory, for running and load testing the app without AWS. Keys map to paths
+ * under the root directory, and "pre-signed" URLs point at the local file endpoint with an HMAC-signed expiry, so they
+ * behave like the real thing: they can be shared, they stop working when they expire and they can't be forged.
+ * Optional latency can be injected to stand in for S3 round trips.
+ */
+@Service
+@Profile("local")
+public class LocalS3ServiceImpl implements S3Service {
+    public static final String LOCAL_S3_PATH = "/api/v1/local-s3";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Duration URL_TIMEOUT = Duration.ofMinutes(APIConstants.BOOK_CLUB_IMAGE_URL_TIMEOUT_MINUTES);
+
+    @Value("${app.properties.local_s3.root_dir}")
+    private String rootDir;
+
+    @Value("${app.properties.local_s3.base_url}")
+    private String baseURL;
+
+    @Value("${app.properties.local_s3.signing_key}")
+    private String signingKey;
+
+    @Value("${app.properties.local_s3.list_latency_millis}")
+    private long listLatencyMillis;
+
+    @Value("${app.properties.local_s3.get_latency_millis}")
+    private long getLatencyMillis;
+
+    private Path root;
+    private SecretKeySpec keySpec;
+
+    /** Resolves the root directory, creating it if needed, and sets up the URL signing key */
+    @PostConstruct
+    void init() throws IOException {
+        root = Files.createDirectories(Paths.get(rootDir)).toAbsolutePath().normalize();
+        keySpec = new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    @Override
+    public List<S3Object> listS3ObjectsAtPrefix(String prefix) {
+        injectLatency(listLatencyMillis);
+
+        // Like S3, the prefix is a plain string prefix of the key rather than necessarily a directory
+        Path start = root.resolve(prefix.contains("/") ? prefix.substring(0, prefix.lastIndexOf('/')) : "")
+                .normalize();
+        if (!start.startsWith(root) || !Files.isDirectory(start)) {
+            return List.of();
+        }
+
+        try (Stream<Path> paths = Files.walk(start)) {
+            return paths.filter(Files::isRegularFile)
+                    .map(this::toS3Object)
+                    .filter(s3Object -> s3Object.key().startsWith(prefix))
+                    .sorted((a, b) -> a.key().compareTo(b.key()))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String getPreSignedURL(String key) {
+        long expires = Instant.now().plus(URL_TIMEOUT).getEpochSecond();
+        return baseURL
+                + LOCAL_S3_PATH
+                + "/"
+                + UriUtils.encodePath(key, StandardCharsets.UTF_8)
+                + "?expires=" + expires
+                + "&signature=" + URLEncoder.encode(sign(key, expires), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void downloadObject(String key, Path destination) {
+        injectLatency(getLatencyMillis);
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            throw NoSuchKeyException.builder().message("No such key: " + key).build();
+        }
+
+        try {
+            Files.copy(file, destination);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean objectExists(String key) {
+        Path file = root.resolve(key).normalize();
+        return file.startsWith(root) && Files.isRegularFile(file);
+    }
+
+    @Override
+    public void putObject(String key, InputStream content, long contentLength, String contentType) {
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root)) {
+            throw new IllegalArgumentException("Key outside of the local S3 root: " + key);
+        }
+
+        // Write next to the final path and move into place, so readers never see a partial object
+        try {
+            Files.createDirectories(file.getParent());
+            Path partial =
+                    Files.createTempFile(file.getParent(), file.getFileName().toString(), ".part");
+            try {
+                Files.copy(content, partial, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Resolves the file behind a signed URL, injecting the configured read latency
+     *
+     * @param key The object key
+     * @param expires When the URL expires, in epoch seconds
+     * @param signature The URL's signature
+     * @return The file, if the signature is valid, the URL hasn't expired and the file exists
+     */
+    public Optional<Path> resolveSignedObject(String key, long expires, String signature) {
+        if (signature == null
+                || Instant.now().getEpochSecond() > expires
+                || !MessageDigest.isEqual(
+                        sign(key, expires).getBytes(StandardCharsets.UTF_8),
+                        signature.getBytes(StandardCharsets.UTF_8))) {
+            return Optional.empty();
+        }
+
+        injectLatency(getLatencyMillis);
+        Path file = root.resolve(key).normalize();
+        return file.startsWith(root) && Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    /**
+     * Signs an object key and expiry
+     *
+     * @param key The object key
+     * @param expires When the URL expires, in epoch seconds
+     * @return The URL-safe base64 HMAC
+     */
+    private String sign(String key, long expires) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(keySpec);
+            return Base64.getUrlEncoder()
+                    .withoutPadding()
+                    .encodeToString(mac.doFinal((key + "\n" + expires).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Unable to sign local S3 URL", e);
+        }
+    }
+
+    private S3Object toS3Object(Path file) {
+        try {
+            long size = Files.size(file);
+            Instant lastModified = Files.getLastModifiedTime(file).toInstant();
+
+            // Not an MD5 like S3's, but it changes whenever the file does, which is all ETag users rely on
+            return S3Object.builder()
+                    .key(root.relativize(file)
+                            .toString()
+                            .replace(file.getFileSystem().getSeparator(), "/"))
+                    .size(size)
+                    .lastModified(lastModified)
+                    .eTag("\"" + Long.toHexString(lastModified.toEpochMilli()) + "-" + Long.toHexString(size) + "\"")
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void injectLatency(long millis) {
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.bahubba.bahubbabookclub.service.impl;
 
 import com.bahubba.bahubbabookclub.exception.*;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
 import com.bahubba.bahubbabookclub.model.dto.MembershipRequestDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
 import com.bahubba.bahubbabookclub.model.entity.BookClub;
 import com.bahubba.bahubbabookclub.model.entity.BookClubMembership;
 import com.bahubba.bahubbabookclub.model.entity.MembershipRequest;
 import com.bahubba.bahubbabookclub.model.entity.User;
 import com.bahubba.bahubbabookclub.model.enums.BookClubRole;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.enums.RequestAction;
 import com.bahubba.bahubbabookclub.model.enums.RequestStatus;
 import com.bahubba.bahubbabookclub.model.mapper.MembershipRequestMapper;
@@ -15,14 +18,20 @@ import com.bahubba.bahubbabookclub.model.payload.NewMembershipRequest;
 import com.bahubba.bahubbabookclub.repository.BookClubMembershipRepo;
 import com.bahubba.bahubbabookclub.repository.BookClubRepo;
 import com.bahubba.bahubbabookclub.repository.MembershipRequestRepo;
+import com.bahubba.bahubbabookclub.repository.UserRepo;
 import com.bahubba.bahubbabookclub.service.MembershipRequestService;
+import com.bahubba.bahubbabookclub.service.RowCountEstimator;
+import com.bahubba.bahubbabookclub.util.CursorUtil;
 import com.bahubba.bahubbabookclub.util.SecurityUtil;
+import com.bahubba.bahubbabookclub.util.SliceUtil;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,6 +45,8 @@ public class MembershipRequestServiceImpl implements MembershipRequestService {
     private final MembershipRequestMapper membershipRequestMapper;
     private final BookClubRepo bookClubRepo;
     private final BookClubMembershipRepo bookClubMembershipRepo;
+    private final UserRepo userRepo;
+    private final RowCountEstimator rowCountEstimator;
 
     @Override
     public MembershipRequestDTO requestMembership(NewMembershipRequest newMembershipRequest)
@@ -55,7 +66,7 @@ public class MembershipRequestServiceImpl implements MembershipRequestService {
         // Create the membership request and persist it
         return membershipRequestMapper.entityToDTO(membershipRequestRepo.save(MembershipRequest.builder()
                 .bookClub(bookClub)
-                .user(user)
+                .user(userRepo.getReferenceById(user.getId()))
                 .message(newMembershipRequest.getMessage())
                 .build()));
     }
@@ -78,25 +89,7 @@ public class MembershipRequestServiceImpl implements MembershipRequestService {
     public Page<MembershipRequestDTO> getMembershipRequestsForBookClub(String bookClubName, int pageNum, int pageSize)
             throws UserNotFoundException, BookClubNotFoundException, UnauthorizedBookClubActionException,
                     PageSizeTooSmallException, PageSizeTooLargeException {
-        // Get the current user from the security context
-        User user = SecurityUtil.getCurrentUserDetails();
-        if (user == null) {
-            throw new UserNotFoundException();
-        }
-
-        // Get the book club
-        BookClub bookClub = bookClubRepo
-                .findByName(bookClubName)
-                .orElseThrow(() -> new BookClubNotFoundException("Book club not found"));
-
-        // Ensure the user is an admin of the book club
-        BookClubMembership membership = bookClub.getMembers().stream()
-                .filter(member -> member.getUser().getId().equals(user.getId()))
-                .findFirst()
-                .orElseThrow(() -> new UserNotFoundException(user.getUsername(), bookClub.getName()));
-        if (!membership.getClubRole().equals(BookClubRole.ADMIN)) {
-            throw new UnauthorizedBookClubActionException();
-        }
+        BookClub bookClub = getBookClubAsAdmin(bookClubName);
 
         // Ensure the page size is valid
         if (pageSize < 1) {
@@ -115,6 +108,45 @@ public class MembershipRequestServiceImpl implements MembershipRequestService {
         return getPageOfMembershipRequestsForBookClub(bookClub.getId(), pageNum, pageSize);
     }
 
+    @Override
+    public SliceDTO<MembershipRequestDTO> getMembershipRequestsForBookClub(
+            String bookClubName, int pageNum, int pageSize, PageTotals totals)
+            throws UserNotFoundException, BookClubNotFoundException, UnauthorizedBookClubActionException {
+        BookClub bookClub = getBookClubAsAdmin(bookClubName);
+
+        Slice<MembershipRequest> entitySlice = membershipRequestRepo.findSliceByBookClubIdOrderByRequestedDescIdDesc(
+                bookClub.getId(), SliceUtil.pageRequest(pageNum, pageSize));
+
+        return SliceUtil.toSlice(
+                entitySlice,
+                membershipRequestMapper::entityToDTO,
+                totals,
+                () -> rowCountEstimator.estimate(
+                        "membership_request:book_club:" + bookClub.getId(),
+                        () -> membershipRequestRepo.countByBookClubId(bookClub.getId())));
+    }
+
+    @Override
+    public CursorPageDTO<MembershipRequestDTO> getMembershipRequestsForBookClub(
+            String bookClubName, String cursor, int pageSize)
+            throws UserNotFoundException, BookClubNotFoundException, UnauthorizedBookClubActionException,
+                    InvalidCursorException {
+        BookClub bookClub = getBookClubAsAdmin(bookClubName);
+
+        // Seek past the last membership request of the previous page, if there was one
+        CursorUtil.Cursor before = CursorUtil.decode(cursor);
+        List<MembershipRequest> membershipRequests = before == null
+                ? membershipRequestRepo.findFirstPageByBookClubId(bookClub.getId(), CursorUtil.pageRequest(pageSize))
+                : membershipRequestRepo.findPageByBookClubIdBefore(
+                        bookClub.getId(), before.time(), before.id(), CursorUtil.pageRequest(pageSize));
+
+        return CursorUtil.toPage(
+                membershipRequests,
+                pageSize,
+                membershipRequest -> CursorUtil.encode(membershipRequest.getRequested(), membershipRequest.getId()),
+                membershipRequestMapper::entityToDTO);
+    }
+
     @Override
     public MembershipRequestDTO reviewMembershipRequest(MembershipRequestAction membershipRequestAction)
             throws UserNotFoundException, MembershipRequestNotFoundException, UnauthorizedBookClubActionException,
@@ -182,7 +214,7 @@ public class MembershipRequestServiceImpl implements MembershipRequestService {
                 membershipRequestAction.getAction().equals(RequestAction.APPROVE)
                         ? membershipRequestAction.getRole()
                         : BookClubRole.NONE);
-        membershipRequest.setReviewer(reviewer);
+        membershipRequest.setReviewer(userRepo.getReferenceById(reviewer.getId()));
         membershipRequest.setReviewMessage(membershipRequestAction.getReviewMessage());
         membershipRequest.setReviewed(LocalDateTime.now());
 
@@ -190,6 +222,40 @@ public class MembershipRequestServiceImpl implements MembershipRequestService {
         return membershipRequestMapper.entityToDTO(membershipRequestRepo.save(membershipRequest));
     }
 
+    /**
+     * Gets a book club, ensuring the current user is one of its admins
+     *
+     * @param bookClubName The name of the book club
+     * @return The book club
+     * @throws UserNotFoundException The user was not found or was not in the book club
+     * @throws BookClubNotFoundException The book club did not exist
+     * @throws UnauthorizedBookClubActionException The user was not an admin of the book club
+     */
+    private BookClub getBookClubAsAdmin(String bookClubName)
+            throws UserNotFoundException, BookClubNotFoundException, UnauthorizedBookClubActionException {
+        // Get the current user from the security context
+        User user = SecurityUtil.getCurrentUserDetails();
+        if (user == null) {
+            throw new UserNotFoundException();
+        }
+
+        // Get the book club
+        BookClub bookClub = bookClubRepo
+                .findByName(bookClubName)
+                .orElseThrow(() -> new BookClubNotFoundException("Book club not found"));
+
+        // Ensure the user is an admin of the book club
+        BookClubMembership membership = bookClub.getMembers().stream()
+                .filter(member -> member.getUser().getId().equals(user.getId()))
+                .findFirst()
+                .orElseThrow(() -> new UserNotFoundException(user.getUsername(), bookClub.getName()));
+        if (!membership.getClubRole().equals(BookClubRole.ADMIN)) {
+            throw new UnauthorizedBookClubActionException();
+        }
+
+        return bookClub;
+    }
+
     /**
      * Get a page of results for all membership requests for a given book club
      *
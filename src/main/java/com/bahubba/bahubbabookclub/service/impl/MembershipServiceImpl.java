@@ -2,10 +2,13 @@ package com.bahubba.bahubbabookclub.service.impl;
 
 import com.bahubba.bahubbabookclub.exception.*;
 import com.bahubba.bahubbabookclub.model.dto.BookClubMembershipDTO;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
 import com.bahubba.bahubbabookclub.model.entity.BookClub;
 import com.bahubba.bahubbabookclub.model.entity.BookClubMembership;
 import com.bahubba.bahubbabookclub.model.entity.User;
 import com.bahubba.bahubbabookclub.model.enums.BookClubRole;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.mapper.BookClubMapper;
 import com.bahubba.bahubbabookclub.model.mapper.BookClubMembershipMapper;
 import com.bahubba.bahubbabookclub.model.mapper.UserMapper;
@@ -14,8 +17,12 @@ import com.bahubba.bahubbabookclub.model.payload.MembershipUpdate;
 import com.bahubba.bahubbabookclub.model.payload.NewOwner;
 import com.bahubba.bahubbabookclub.repository.BookClubMembershipRepo;
 import com.bahubba.bahubbabookclub.repository.BookClubRepo;
+import com.bahubba.bahubbabookclub.repository.UserRepo;
 import com.bahubba.bahubbabookclub.service.MembershipService;
+import com.bahubba.bahubbabookclub.service.RowCountEstimator;
+import com.bahubba.bahubbabookclub.util.CursorUtil;
 import com.bahubba.bahubbabookclub.util.SecurityUtil;
+import com.bahubba.bahubbabookclub.util.SliceUtil;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,6 +30,7 @@ import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,25 +41,18 @@ public class MembershipServiceImpl implements MembershipService {
 
     private final BookClubMembershipRepo bookClubMembershipRepo;
     private final BookClubRepo bookClubRepo;
+    private final UserRepo userRepo;
     private final BookClubMembershipMapper bookClubMembershipMapper;
     private final BookClubMapper bookClubMapper;
     private final UserMapper userMapper;
+    private final RowCountEstimator rowCountEstimator;
 
     @Override
     public Page<BookClubMembershipDTO> getAll(String bookClubName, int pageNum, int pageSize)
             throws UserNotFoundException, UnauthorizedBookClubActionException, PageSizeTooSmallException,
                     PageSizeTooLargeException {
 
-        // Get the user from the security context
-        User user = SecurityUtil.getCurrentUserDetails();
-        if (user == null) {
-            throw new UserNotFoundException();
-        }
-
-        // Get the User's membership in the book club, ensuring they are an admin
-        bookClubMembershipRepo
-                .findByBookClubNameAndClubRoleAndUserId(bookClubName, BookClubRole.ADMIN, user.getId())
-                .orElseThrow(UnauthorizedBookClubActionException::new);
+        checkAdmin(bookClubName);
 
         // Ensure the page size is valid
         if (pageSize < 1) {
@@ -64,6 +65,44 @@ public class MembershipServiceImpl implements MembershipService {
         return getPageOfMembershipsForBookClub(bookClubName, pageNum, pageSize);
     }
 
+    @Override
+    public SliceDTO<BookClubMembershipDTO> getAll(String bookClubName, int pageNum, int pageSize, PageTotals totals)
+            throws UserNotFoundException, UnauthorizedBookClubActionException {
+        checkAdmin(bookClubName);
+
+        Slice<BookClubMembership> entitySlice = bookClubMembershipRepo.findSliceByBookClubNameOrderByJoinedAscIdAsc(
+                bookClubName, SliceUtil.pageRequest(pageNum, pageSize));
+
+        return SliceUtil.toSlice(
+                entitySlice,
+                bookClubMembershipMapper::entityToDTO,
+                totals,
+                () -> rowCountEstimator.estimate(
+                        "book_club_users:book_club:" + bookClubName,
+                        () -> bookClubMembershipRepo.countByBookClubName(bookClubName)));
+    }
+
+    @Override
+    public CursorPageDTO<BookClubMembershipDTO> getAll(String bookClubName, String cursor, int pageSize)
+            throws UserNotFoundException, UnauthorizedBookClubActionException, InvalidCursorException {
+
+        // Page by the book club's ID, so the page query needn't join to the book club
+        UUID bookClubID = checkAdmin(bookClubName).getBookClub().getId();
+
+        // Seek past the last membership of the previous page, if there was one
+        CursorUtil.Cursor after = CursorUtil.decode(cursor);
+        List<BookClubMembership> memberships = after == null
+                ? bookClubMembershipRepo.findFirstPageByBookClubId(bookClubID, CursorUtil.pageRequest(pageSize))
+                : bookClubMembershipRepo.findPageByBookClubIdAfter(
+                        bookClubID, after.time(), after.id(), CursorUtil.pageRequest(pageSize));
+
+        return CursorUtil.toPage(
+                memberships,
+                pageSize,
+                membership -> CursorUtil.encode(membership.getJoined(), membership.getId()),
+                bookClubMembershipMapper::entityToDTO);
+    }
+
     @Override
     public BookClubRole getRole(String bookClubName) throws UserNotFoundException, MembershipNotFoundException {
         // Get the current user from the security context
@@ -102,9 +141,12 @@ public class MembershipServiceImpl implements MembershipService {
                     .findByName(bookClubName)
                     .orElseThrow(() -> new BookClubNotFoundException(bookClubName));
 
+            // The principal may be a partial user, so load the full one for the DTO
+            User fullUser = userRepo.findById(user.getId()).orElseThrow(() -> new UserNotFoundException(user.getId()));
+
             return BookClubMembershipDTO.builder()
                     .bookClub(bookClubMapper.entityToDTO(bookClub))
-                    .user(userMapper.entityToDTO(user))
+                    .user(userMapper.entityToDTO(fullUser))
                     .clubRole(BookClubRole.NONE)
                     .isOwner(false)
                     .build();
@@ -262,6 +304,28 @@ public class MembershipServiceImpl implements MembershipService {
         return bookClubMembershipMapper.entityToDTO(bookClubMembershipRepo.save(targetMembership));
     }
 
+    /**
+     * Ensures the current user is an admin of a book club
+     *
+     * @param bookClubName The name of the book club
+     * @return The user's membership in the book club
+     * @throws UserNotFoundException The user was not logged in or did not exist
+     * @throws UnauthorizedBookClubActionException The user was not an admin of the book club
+     */
+    private BookClubMembership checkAdmin(String bookClubName)
+            throws UserNotFoundException, UnauthorizedBookClubActionException {
+        // Get the user from the security context
+        User user = SecurityUtil.getCurrentUserDetails();
+        if (user == null) {
+            throw new UserNotFoundException();
+        }
+
+        // Get the User's membership in the book club, ensuring they are an admin
+        return bookClubMembershipRepo
+                .findByBookClubNameAndClubRoleAndUserId(bookClubName, BookClubRole.ADMIN, user.getId())
+                .orElseThrow(UnauthorizedBookClubActionException::new);
+    }
+
     /**
      * Get a page of memberships for a book club
      *
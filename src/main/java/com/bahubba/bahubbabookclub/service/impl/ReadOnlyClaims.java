@@ -0,0 +1,118 @@
+package com.bahubba.bahubbabookclub.service.impl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only view over a private copy of a token's verified claims, so one instance can be cached and handed to every
+ * request presenting the same token. Mutators throw {@link UnsupportedOperationException}
+ */
+final class ReadOnlyClaims extends AbstractMap<String, Object> implements Claims {
+    private final Claims claims;
+    private final Set<Map.Entry<String, Object>> entries;
+
+    /**
+     * Copies the claims, so later changes to the original don't show through
+     *
+     * @param claims The verified claims
+     */
+    ReadOnlyClaims(Claims claims) {
+        this.claims = Jwts.claims(claims);
+        this.entries = Collections.unmodifiableMap(this.claims).entrySet();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return entries;
+    }
+
+    @Override
+    public Object get(Object key) {
+        return claims.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return claims.containsKey(key);
+    }
+
+    @Override
+    public <T> T get(String claimName, Class<T> requiredType) {
+        return claims.get(claimName, requiredType);
+    }
+
+    @Override
+    public String getIssuer() {
+        return claims.getIssuer();
+    }
+
+    @Override
+    public String getSubject() {
+        return claims.getSubject();
+    }
+
+    @Override
+    public String getAudience() {
+        return claims.getAudience();
+    }
+
+    @Override
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    @Override
+    public Date getNotBefore() {
+        return claims.getNotBefore();
+    }
+
+    @Override
+    public Date getIssuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    @Override
+    public String getId() {
+        return claims.getId();
+    }
+
+    @Override
+    public Claims setIssuer(String iss) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Claims setSubject(String sub) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Claims setAudience(String aud) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Claims setExpiration(Date exp) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Claims setNotBefore(Date nbf) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Claims setIssuedAt(Date iat) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Claims setId(String jti) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,68 @@
+package com.bahubba.bahubbabookclub.service.impl;
+
+import com.bahubba.bahubbabookclub.service.RowCountEstimator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link RowCountEstimator} that reads whole-table estimates from the planner statistics Postgres keeps in
+ * {@code pg_class.reltuples}, which costs a catalog lookup rather than a scan, and caches exact counts for everything
+ * else. Cached counts expire after a while and are recounted on the next request for them, so an estimate is at most
+ * that old.
+ */
+@Service
+@Slf4j
+public class RowCountEstimatorImpl implements RowCountEstimator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean useTableStatistics;
+    private final Cache<String, Long> counts;
+
+    public RowCountEstimatorImpl(
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.properties.row_estimates.table_statistics}") boolean useTableStatistics,
+            @Value("${app.properties.row_estimates.ttl_seconds}") long ttlSeconds,
+            @Value("${app.properties.row_estimates.max_size}") long maxSize,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.useTableStatistics = useTableStatistics;
+        counts = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "row-count-estimates");
+    }
+
+    @Override
+    public long estimateTable(String table, LongSupplier exactCount) {
+        if (useTableStatistics) {
+            try {
+                // reltuples is -1 until the table is first vacuumed or analyzed
+                Long reltuples = jdbcTemplate.queryForObject(
+                        "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, table);
+                if (reltuples != null && reltuples >= 0L) {
+                    return reltuples;
+                }
+            } catch (DataAccessException e) {
+                log.warn("Couldn't read the row estimate for {} from pg_class, counting instead", table, e);
+            }
+        }
+
+        return estimate(table, exactCount);
+    }
+
+    @Override
+    public long estimate(String key, LongSupplier exactCount) {
+        return counts.get(key, k -> exactCount.getAsLong());
+    }
+}
@@ -1,42 +1,245 @@
 package com.bahubba.bahubbabookclub.service.impl;
 
+import com.bahubba.bahubbabookclub.exception.ServiceUnavailableException;
 import com.bahubba.bahubbabookclub.service.S3Service;
 import com.bahubba.bahubbabookclub.util.APIConstants;
+import com.bahubba.bahubbabookclub.util.CircuitBreaker;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
 @Service
+@Profile("!local")
 @Transactional
 @RequiredArgsConstructor
+@Slf4j
 public class S3ServiceImpl implements S3Service {
+    private static final Duration URL_TIMEOUT = Duration.ofMinutes(APIConstants.BOOK_CLUB_IMAGE_URL_TIMEOUT_MINUTES);
+
+    // A cached URL is handed out for at most half its validity, so clients always get at least the other half; it's
+    // re-signed in the background once it's been cached for a third of its validity
+    private static final Duration URL_CACHE_EXPIRY = URL_TIMEOUT.dividedBy(2);
+    private static final Duration URL_CACHE_REFRESH = URL_TIMEOUT.dividedBy(3);
 
     private final S3Client s3Client;
     private final S3Presigner s3PreSigner;
+    private final MeterRegistry meterRegistry;
 
     @Value("${aws.s3.bucket}")
     private String bucket;
 
+    @Value("${app.properties.presigned_url_cache.max_size}")
+    private long preSignedURLCacheMaxSize;
+
+    @Value("${app.properties.s3.list_timeout_millis}")
+    private long listTimeoutMillis;
+
+    @Value("${app.properties.s3.head_timeout_millis}")
+    private long headTimeoutMillis;
+
+    @Value("${app.properties.s3.transfer_timeout_millis}")
+    private long transferTimeoutMillis;
+
+    @Value("${app.properties.s3.circuit_breaker.failure_threshold}")
+    private int breakerFailureThreshold;
+
+    @Value("${app.properties.s3.circuit_breaker.open_millis}")
+    private long breakerOpenMillis;
+
+    private Timer signingTimer;
+
+    private CircuitBreaker circuitBreaker;
+
+    // Last successful listing per prefix, served while S3 is failing
+    private final Map<String, List<S3Object>> lastKnownListings = new ConcurrentHashMap<>();
+
+    // Pre-signed URLs by object key
+    private LoadingCache<String, String> preSignedURLCache;
+
+    /** Sets up the circuit breaker, the pre-signed URL cache and their metrics */
+    @PostConstruct
+    void init() {
+        circuitBreaker = new CircuitBreaker(
+                "s3",
+                breakerFailureThreshold,
+                Duration.ofMillis(breakerOpenMillis),
+                S3ServiceImpl::isUnavailable,
+                meterRegistry);
+
+        signingTimer = Timer.builder("s3.presign")
+                .description("Time spent signing S3 URLs")
+                .register(meterRegistry);
+
+        preSignedURLCache = Caffeine.newBuilder()
+                .maximumSize(preSignedURLCacheMaxSize)
+                .expireAfterWrite(URL_CACHE_EXPIRY)
+                .refreshAfterWrite(URL_CACHE_REFRESH)
+                .recordStats()
+                .build(key -> signingTimer.record(() -> preSign(key)));
+        CaffeineCacheMetrics.monitor(meterRegistry, preSignedURLCache, "s3.presigned-urls");
+    }
+
     @Override
     public List<S3Object> listS3ObjectsAtPrefix(String prefix) {
-        return s3Client.listObjectsV2(builder -> builder.bucket(bucket).prefix(prefix))
-                .contents();
+        try {
+            List<S3Object> s3Objects = execute("list", () -> list(prefix));
+            lastKnownListings.put(prefix, s3Objects);
+            return s3Objects;
+        } catch (RuntimeException e) {
+            List<S3Object> lastKnown = lastKnownListings.get(prefix);
+            if (lastKnown == null || !isUnavailable(e)) {
+                throw e;
+            }
+            log.warn("Listing {} failed, serving the last known {} objects", prefix, lastKnown.size(), e);
+            return lastKnown;
+        }
     }
 
     @Override
     public String getPreSignedURL(String key) {
+        return preSignedURLCache.get(key);
+    }
+
+    @Override
+    public void downloadObject(String key, Path destination) {
+        execute(
+                "download",
+                () -> s3Client.getObject(
+                        builder -> builder.bucket(bucket)
+                                .key(key)
+                                .overrideConfiguration(
+                                        config -> config.apiCallTimeout(Duration.ofMillis(transferTimeoutMillis))),
+                        destination));
+    }
+
+    @Override
+    public boolean objectExists(String key) {
+        return execute("exists", () -> {
+            try {
+                s3Client.headObject(builder -> builder.bucket(bucket)
+                        .key(key)
+                        .overrideConfiguration(config -> config.apiCallTimeout(Duration.ofMillis(headTimeoutMillis))));
+                return true;
+            } catch (NoSuchKeyException e) {
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public void putObject(String key, InputStream content, long contentLength, String contentType) {
+        execute(
+                "put",
+                () -> s3Client.putObject(
+                        builder -> builder.bucket(bucket)
+                                .key(key)
+                                .contentType(contentType)
+                                .overrideConfiguration(
+                                        config -> config.apiCallTimeout(Duration.ofMillis(transferTimeoutMillis))),
+                        RequestBody.fromInputStream(content, contentLength)));
+    }
+
+    /**
+     * Lists all objects with a prefix, following the continuation tokens since S3 returns at most 1000 keys per page
+     *
+     * @param prefix The prefix to search for
+     * @return The list of objects
+     */
+    private List<S3Object> list(String prefix) {
+        List<S3Object> s3Objects = new ArrayList<>();
+
+        String continuationToken = null;
+        ListObjectsV2Response page;
+        do {
+            String pageToken = continuationToken;
+            page = s3Client.listObjectsV2(builder -> builder.bucket(bucket)
+                    .prefix(prefix)
+                    .continuationToken(pageToken)
+                    .overrideConfiguration(config -> config.apiCallTimeout(Duration.ofMillis(listTimeoutMillis))));
+            s3Objects.addAll(page.contents());
+            continuationToken = page.nextContinuationToken();
+        } while (Boolean.TRUE.equals(page.isTruncated()) && continuationToken != null);
+
+        return List.copyOf(s3Objects);
+    }
+
+    /**
+     * Runs an S3 call through the circuit breaker, recording its latency by operation and outcome
+     *
+     * @param operation Name of the operation, for the latency metrics
+     * @param call The S3 call
+     * @return The call's result
+     */
+    private <T> T execute(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return circuitBreaker.call(call);
+        } catch (ServiceUnavailableException e) {
+            outcome = "rejected";
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = isUnavailable(e) ? "failure" : "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("s3.requests")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .description("Latency of S3 calls")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Whether an exception means S3 itself is failing (timeouts, connection errors and 5xx responses), rather than it
+     * answering a bad request
+     *
+     * @param e The exception
+     * @return True if the exception counts against the circuit breaker
+     */
+    private static boolean isUnavailable(RuntimeException e) {
+        return e instanceof ServiceUnavailableException
+                || e instanceof SdkClientException
+                || (e instanceof S3Exception s3Exception && s3Exception.statusCode() >= 500);
+    }
+
+    /**
+     * Signs a URL for an object, valid for {@link APIConstants#BOOK_CLUB_IMAGE_URL_TIMEOUT_MINUTES}
+     *
+     * @param key The key of the object
+     * @return The pre-signed URL
+     */
+    private String preSign(String key) {
         GetObjectPresignRequest preSignRequest = GetObjectPresignRequest.builder()
-                .signatureDuration(Duration.between(
-                        Instant.now(),
-                        Instant.now().plus(Duration.ofMinutes(APIConstants.BOOK_CLUB_IMAGE_URL_TIMEOUT_MINUTES))))
+                .signatureDuration(Duration.between(Instant.now(), Instant.now().plus(URL_TIMEOUT)))
                 .getObjectRequest(
                         getObjectRequest -> getObjectRequest.bucket(bucket).key(key))
                 .build();
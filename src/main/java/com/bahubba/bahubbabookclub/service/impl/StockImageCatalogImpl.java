@@ -0,0 +1,103 @@
+package com.bahubba.bahubbabookclub.service.impl;
+
+import com.bahubba.bahubbabookclub.model.dto.S3ImageDTO;
+import com.bahubba.bahubbabookclub.service.ImageVariantService;
+import com.bahubba.bahubbabookclub.service.S3Service;
+import com.bahubba.bahubbabookclub.service.StockImageCatalog;
+import com.bahubba.bahubbabookclub.service.StockImageMirror;
+import com.bahubba.bahubbabookclub.util.APIConstants;
+import com.bahubba.bahubbabookclub.util.ImageUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Stock image catalog, loaded when the app starts and refreshed in the background. Requests are served from an
+ * immutable snapshot of the image keys that refreshes swap out atomically, so they never wait on S3, and a failed
+ * refresh leaves the last good snapshot in place. Image URLs point at the stable image redirect endpoint, so listing
+ * the catalog doesn't need any pre-signing either. If the local disk mirror is enabled, it's synced on each refresh, and
+ * thumbnails are queued for any new images.
+ */
+@Service
+@Slf4j
+public class StockImageCatalogImpl implements StockImageCatalog {
+
+    private final S3Service s3Service;
+    private final ObjectProvider<StockImageMirror> stockImageMirror;
+    private final ImageVariantService imageVariantService;
+    private final AtomicReference<Map<String, String>> snapshot = new AtomicReference<>(Map.of());
+    private final Counter refreshFailures;
+
+    public StockImageCatalogImpl(
+            S3Service s3Service,
+            ObjectProvider<StockImageMirror> stockImageMirror,
+            ImageVariantService imageVariantService,
+            MeterRegistry meterRegistry) {
+        this.s3Service = s3Service;
+        this.stockImageMirror = stockImageMirror;
+        this.imageVariantService = imageVariantService;
+        Gauge.builder("s3.stock-images", snapshot, images -> images.get().size())
+                .description("Stock book club images in the catalog")
+                .register(meterRegistry);
+        refreshFailures = Counter.builder("s3.stock-images.refresh.failures")
+                .description("Failed stock book club image catalog refreshes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<S3ImageDTO> getStockImages() {
+        return snapshot.get().keySet().stream().map(ImageUtil::getBookClubImage).toList();
+    }
+
+    @Override
+    public boolean containsStockImage(String fileName) {
+        return snapshot.get().containsKey(fileName);
+    }
+
+    /** Loads the catalog at startup and keeps it up to date */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${app.properties.stock_image_catalog.refresh_millis}",
+            fixedDelayString = "${app.properties.stock_image_catalog.refresh_millis}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    @Override
+    public boolean refresh() {
+        try {
+            // Skip the zero-byte "folder" objects; file names map to keys, in listing order
+            List<S3Object> s3Objects =
+                    s3Service.listS3ObjectsAtPrefix(APIConstants.BOOK_CLUB_STOCK_IMAGE_PREFIX).stream()
+                            .filter(s3Object -> s3Object.size() != null && s3Object.size() > 0)
+                            .toList();
+            Map<String, String> images = new LinkedHashMap<>();
+            s3Objects.forEach(s3Object ->
+                    images.put(s3Object.key().substring(s3Object.key().lastIndexOf("/") + 1), s3Object.key()));
+
+            snapshot.set(Collections.unmodifiableMap(images));
+            stockImageMirror.ifAvailable(mirror -> mirror.sync(s3Objects));
+            images.keySet().forEach(imageVariantService::generateVariants);
+            return true;
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            log.warn(
+                    "Failed to refresh the stock image catalog, keeping the last {} images",
+                    snapshot.get().size(),
+                    e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.bahubba.bahubbabookclub.service.impl;
+
+import com.bahubba.bahubbabookclub.service.S3Service;
+import com.bahubba.bahubbabookclub.service.StockImageMirror;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Stock image mirror that keeps each image at {@code <dir>/<ETag>/<file name>}. Since a path only ever holds one
+ * version of an image, files are never overwritten in place, unchanged images aren't downloaded again, and the mirror
+ * can be picked back up from disk after a restart, even with S3 unreachable. Versions that are no longer served are
+ * only deleted after a grace period, as responses handed them just before the switch may still be streaming them.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.properties.stock_image_mirror", name = "enabled", havingValue = "true")
+@Slf4j
+public class StockImageMirrorImpl implements StockImageMirror {
+
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private final S3Service s3Service;
+    private final AtomicReference<Map<String, MirroredImage>> images = new AtomicReference<>(Map.of());
+    private final Counter downloadFailures;
+
+    // When each ETag directory stopped being referenced, only touched from sync
+    private final Map<Path, Long> unreferencedSince = new HashMap<>();
+
+    @Value("${app.properties.stock_image_mirror.dir}")
+    private String dir;
+
+    @Value("${app.properties.stock_image_mirror.delete_grace_millis}")
+    private long deleteGraceMillis;
+
+    private Path root;
+
+    public StockImageMirrorImpl(S3Service s3Service, MeterRegistry meterRegistry) {
+        this.s3Service = s3Service;
+        Gauge.builder("s3.stock-images.mirrored", images, mirrored -> mirrored.get()
+                        .size())
+                .description("Stock book club images mirrored to local disk")
+                .register(meterRegistry);
+        downloadFailures = Counter.builder("s3.stock-images.mirror.failures")
+                .description("Failed stock book club image downloads")
+                .register(meterRegistry);
+    }
+
+    /** Creates the mirror directory if needed and picks up any images already mirrored to it */
+    @PostConstruct
+    void init() throws IOException {
+        root = Files.createDirectories(Paths.get(dir)).toAbsolutePath().normalize();
+
+        Map<String, MirroredImage> mirrored = new HashMap<>();
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            files.filter(file -> file.getNameCount() == root.getNameCount() + 2 && Files.isRegularFile(file))
+                    .filter(file -> !file.getFileName().toString().endsWith(PARTIAL_SUFFIX))
+                    .forEach(file -> mirrored.put(
+                            file.getFileName().toString(),
+                            new MirroredImage(
+                                    file, file.getParent().getFileName().toString())));
+        }
+        images.set(Collections.unmodifiableMap(mirrored));
+        log.info("Stock image mirror at {} starting with {} images", root, mirrored.size());
+    }
+
+    @Override
+    public Optional<MirroredImage> getImage(String fileName) {
+        return Optional.ofNullable(images.get().get(fileName));
+    }
+
+    @Override
+    public synchronized void sync(List<S3Object> s3Objects) {
+        Map<String, MirroredImage> current = images.get();
+        Map<String, MirroredImage> mirrored = new HashMap<>();
+
+        for (S3Object s3Object : s3Objects) {
+            String fileName = s3Object.key().substring(s3Object.key().lastIndexOf("/") + 1);
+            String eTag = s3Object.eTag() != null ? s3Object.eTag().replace("\"", "") : null;
+            if (fileName.isEmpty() || eTag == null || eTag.isEmpty()) {
+                continue;
+            }
+
+            Path file = root.resolve(eTag).resolve(fileName).normalize();
+            if (!file.startsWith(root)) {
+                continue;
+            }
+
+            try {
+                if (!Files.isRegularFile(file) || Files.size(file) != s3Object.size()) {
+                    download(s3Object.key(), file);
+                }
+                mirrored.put(fileName, new MirroredImage(file, eTag));
+            } catch (IOException | RuntimeException e) {
+                downloadFailures.increment();
+                log.warn("Failed to mirror stock image {}, keeping the last mirrored version", s3Object.key(), e);
+                if (current.containsKey(fileName)) {
+                    mirrored.put(fileName, current.get(fileName));
+                }
+            }
+        }
+
+        images.set(Collections.unmodifiableMap(mirrored));
+        deleteUnreferenced(mirrored);
+    }
+
+    /**
+     * Downloads an object next to its final path and moves it into place, so a half-written file is never served
+     *
+     * @param key The object's key
+     * @param file The object's path in the mirror
+     * @throws IOException If the file can't be written or moved
+     */
+    private void download(String key, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path partial = file.resolveSibling(file.getFileName() + PARTIAL_SUFFIX);
+        Files.deleteIfExists(partial);
+
+        s3Service.downloadObject(key, partial);
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Deletes the ETag directories no mirrored image has been in for the grace period
+     *
+     * @param mirrored The mirrored images
+     */
+    private void deleteUnreferenced(Map<String, MirroredImage> mirrored) {
+        Set<Path> referenced = new HashSet<>();
+        mirrored.values().forEach(image -> referenced.add(image.file().getParent()));
+
+        long now = System.currentTimeMillis();
+        try (Stream<Path> dirs = Files.list(root)) {
+            List<Path> unreferenced = dirs.filter(eTagDir -> !referenced.contains(eTagDir)).toList();
+            unreferencedSince.keySet().retainAll(unreferenced);
+
+            for (Path eTagDir : unreferenced) {
+                if (now - unreferencedSince.computeIfAbsent(eTagDir, d -> now) >= deleteGraceMillis) {
+                    FileSystemUtils.deleteRecursively(eTagDir);
+                    unreferencedSince.remove(eTagDir);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean up the stock image mirror at {}", root, e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.bahubba.bahubbabookclub.service.impl;
+
+import com.bahubba.bahubbabookclub.model.dto.CappedPage;
+import com.bahubba.bahubbabookclub.model.entity.BookClub;
+import com.bahubba.bahubbabookclub.repository.BookClubRepo;
+import com.bahubba.bahubbabookclub.service.BookClubSearchEngine;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link BookClubSearchEngine} backed by a Postgres pg_trgm GIN index on the lower-cased book club names. Both the
+ * substring match and the fuzzy ({@code %}) match are answered from the index rather than a scan of the table, and
+ * results are ranked by trigram similarity to the term, so typos still find the club. Only the first
+ * {@value #MAX_CANDIDATES} matches are ranked, prefix matches first, which bounds the cost of very common terms. When
+ * more than that match, the page's total is the number ranked and it says so (see {@link CappedPage}).
+ *
+ * <p>The extension and index are set up by the Postgres migrations, which carry on without them if the DB user can't
+ * install extensions. That's checked at startup, and without pg_trgm this falls back to the
+ * {@link LikeBookClubSearchEngine} rather than failing every search.
+ */
+@Service
+@ConditionalOnProperty(name = "app.properties.book_club_search.engine", havingValue = "trigram")
+@Slf4j
+public class TrigramBookClubSearchEngine implements BookClubSearchEngine {
+
+    static final int MAX_CANDIDATES = 1_000;
+
+    private final BookClubRepo bookClubRepo;
+    private final BookClubSearchEngine fallback;
+
+    public TrigramBookClubSearchEngine(BookClubRepo bookClubRepo, JdbcTemplate jdbcTemplate) {
+        this.bookClubRepo = bookClubRepo;
+        if (isTrigramInstalled(jdbcTemplate)) {
+            fallback = null;
+        } else {
+            log.warn("pg_trgm isn't installed, book club search falls back to the like engine");
+            fallback = new LikeBookClubSearchEngine(bookClubRepo);
+        }
+    }
+
+    @Override
+    public Page<BookClub> search(String searchTerm, Pageable pageable) {
+        if (fallback != null) {
+            return fallback.search(searchTerm, pageable);
+        }
+
+        String term = searchTerm.toLowerCase();
+        String escapedTerm = BookClubSearchEngine.escapeLike(term);
+        Pageable pageRequest = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+
+        // One candidate more than is ranked, to tell whether the cap cut any matches off
+        Page<BookClub> page = bookClubRepo.searchByNameTrigram(
+                term, escapedTerm + "%", "%" + escapedTerm + "%", MAX_CANDIDATES + 1, pageRequest);
+        if (page.getTotalElements() <= MAX_CANDIDATES) {
+            return new CappedPage<>(page.getContent(), pageRequest, page.getTotalElements(), false);
+        }
+
+        long ranked = Math.max(0L, MAX_CANDIDATES - pageRequest.getOffset());
+        List<BookClub> content =
+                page.getContent().subList(0, (int) Math.min(page.getNumberOfElements(), ranked));
+        return new CappedPage<>(content, pageRequest, MAX_CANDIDATES, true);
+    }
+
+    private static boolean isTrigramInstalled(JdbcTemplate jdbcTemplate) {
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class));
+        } catch (DataAccessException e) {
+            log.warn("Couldn't check for the pg_trgm extension", e);
+            return false;
+        }
+    }
+}
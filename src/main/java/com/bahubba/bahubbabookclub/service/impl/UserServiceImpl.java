@@ -5,11 +5,13 @@ import com.bahubba.bahubbabookclub.model.dto.UserDTO;
 import com.bahubba.bahubbabookclub.model.entity.User;
 import com.bahubba.bahubbabookclub.model.mapper.UserMapper;
 import com.bahubba.bahubbabookclub.repository.UserRepo;
+import com.bahubba.bahubbabookclub.service.JwtService;
 import com.bahubba.bahubbabookclub.service.UserService;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +22,8 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepo userRepo;
     private final UserMapper userMapper;
+    private final JwtService jwtService;
+    private final UserCache userCache;
 
     @Override
     public UserDTO findByID(UUID id) throws UserNotFoundException {
@@ -37,6 +41,12 @@ public class UserServiceImpl implements UserService {
     public UserDTO removeUser(UUID id) throws UserNotFoundException {
         User user = userRepo.findById(id).orElseThrow(() -> new UserNotFoundException(id));
         user.setDeparted(LocalDateTime.now());
-        return userMapper.entityToDTO(userRepo.save(user));
+        UserDTO removedUser = userMapper.entityToDTO(userRepo.save(user));
+
+        // Stop serving the departed user's tokens and principal from the caches
+        jwtService.invalidateTokensForUser(user.getUsername());
+        userCache.removeUserFromCache(user.getUsername());
+
+        return removedUser;
     }
 }
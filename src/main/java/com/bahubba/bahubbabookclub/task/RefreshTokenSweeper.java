@@ -0,0 +1,77 @@
+package com.bahubba.bahubbabookclub.task;
+
+import com.bahubba.bahubbabookclub.repository.RefreshTokenRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically purges expired refresh tokens, so rows left behind by users who never return don't accumulate. Tokens
+ * are deleted oldest first in bounded chunks, each in its own short transaction with a pause in between, so a large
+ * backlog never holds locks for long. Chunks skip rows locked by other instances, so every node can run the sweep.
+ */
+@Component
+@Slf4j
+public class RefreshTokenSweeper {
+
+    private final RefreshTokenRepo refreshTokenRepo;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final Counter purgedCounter;
+    private final Timer sweepTimer;
+
+    public RefreshTokenSweeper(
+            RefreshTokenRepo refreshTokenRepo,
+            @Value("${app.properties.refresh_token_sweeper.batch_size}") int batchSize,
+            @Value("${app.properties.refresh_token_sweeper.pause_millis}") long pauseMillis,
+            MeterRegistry meterRegistry) {
+        this.refreshTokenRepo = refreshTokenRepo;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        purgedCounter = Counter.builder("auth.refresh-tokens.purged")
+                .description("Expired refresh tokens deleted by the sweeper")
+                .register(meterRegistry);
+        sweepTimer = Timer.builder("auth.refresh-tokens.sweep")
+                .description("Time taken by refresh token sweeps")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Deletes expired refresh tokens until a chunk comes back short
+     *
+     * @return The number of refresh tokens deleted
+     */
+    @Scheduled(
+            initialDelayString = "${app.properties.refresh_token_sweeper.interval_millis}",
+            fixedDelayString = "${app.properties.refresh_token_sweeper.interval_millis}")
+    public int sweep() {
+        Timer.Sample sample = Timer.start();
+        Instant now = Instant.now();
+        int purged = 0;
+
+        try {
+            int deleted;
+            do {
+                deleted = refreshTokenRepo.deleteExpiredBatch(now, batchSize);
+                purged += deleted;
+                purgedCounter.increment(deleted);
+
+                if (deleted == batchSize && pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
+            } while (deleted == batchSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            long elapsedNanos = sample.stop(sweepTimer);
+            log.info("Purged {} expired refresh tokens in {} ms", purged, elapsedNanos / 1_000_000L);
+        }
+
+        return purged;
+    }
+}
@@ -1,14 +1,27 @@
 package com.bahubba.bahubbabookclub.util;
 
+import java.util.List;
+
 /** Constants for the API */
 public interface APIConstants {
     /* BOOK CLUB CONSTANTS */
     String[] RESERVED_NAMES = {"create", "default"};
+    int MAX_NAME_SUGGESTIONS = 20;
+
+    /* PAGING CONSTANTS */
+    int MAX_PAGE_SIZE = 50;
 
     /* ERROR MESSAGES */
     String USER_NOT_FOUND = "Not logged in or user not found";
 
     /* S3 CONSTANTS */
     String BOOK_CLUB_STOCK_IMAGE_PREFIX = "book-clubs/images/stock/";
+    String BOOK_CLUB_IMAGE_PREFIX = "book-clubs/images/";
+    String CUSTOM_IMAGE_DIR = "custom/";
+    String BOOK_CLUB_THUMBNAIL_PREFIX = "book-clubs/images/thumbnails/";
+    List<Integer> BOOK_CLUB_THUMBNAIL_SIZES = List.of(64, 256);
     int BOOK_CLUB_IMAGE_URL_TIMEOUT_MINUTES = 10;
+
+    /* IMAGE CONSTANTS */
+    String BOOK_CLUB_IMAGE_PATH = "/api/v1/images/book-clubs/";
 }
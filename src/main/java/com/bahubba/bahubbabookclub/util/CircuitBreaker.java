@@ -0,0 +1,183 @@
+package com.bahubba.bahubbabookclub.util;
+
+import com.bahubba.bahubbabookclub.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaker around calls to a downstream service. After enough consecutive failures it opens and fails calls
+ * straight away with a {@link ServiceUnavailableException}; once the open duration has passed, a single call is let
+ * through as a probe, which closes the breaker again if it succeeds and re-opens it if it doesn't.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    /** States of the breaker, the ordinal being what the state gauge reports */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Predicate<RuntimeException> isFailure;
+    private final LongSupplier nanoClock;
+    private final MeterRegistry meterRegistry;
+    private final AtomicReference<Status> status;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final Counter rejections;
+
+    /**
+     * Constructor
+     *
+     * @param name Name of the downstream service, used in metric tags and error messages
+     * @param failureThreshold Consecutive failures that open the breaker
+     * @param openDuration How long the breaker stays open before probing
+     * @param isFailure Which exceptions count as the service failing, as opposed to it answering with an error
+     * @param meterRegistry Registry for the state, transition and rejection metrics
+     */
+    public CircuitBreaker(
+            String name,
+            int failureThreshold,
+            Duration openDuration,
+            Predicate<RuntimeException> isFailure,
+            MeterRegistry meterRegistry) {
+        this(name, failureThreshold, openDuration, isFailure, meterRegistry, System::nanoTime);
+    }
+
+    CircuitBreaker(
+            String name,
+            int failureThreshold,
+            Duration openDuration,
+            Predicate<RuntimeException> isFailure,
+            MeterRegistry meterRegistry,
+            LongSupplier nanoClock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.isFailure = isFailure;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.status = new AtomicReference<>(new Status(State.CLOSED, 0L));
+
+        Gauge.builder("circuit-breaker.state", status, current -> current.get().state().ordinal())
+                .tag("name", name)
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        rejections = Counter.builder("circuit-breaker.rejections")
+                .tag("name", name)
+                .description("Calls short-circuited by an open circuit breaker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a call through the breaker
+     *
+     * @param call The call to the downstream service
+     * @return The call's result
+     * @throws ServiceUnavailableException If the breaker is open, or half-open with its probe already in flight
+     */
+    public <T> T call(Supplier<T> call) throws ServiceUnavailableException {
+        if (!tryAcquirePermission()) {
+            rejections.increment();
+            throw new ServiceUnavailableException(name, retryAfterSeconds());
+        }
+
+        try {
+            T result = call.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isFailure.test(e)) {
+                onFailure();
+            } else {
+                onSuccess();
+            }
+            throw e;
+        }
+    }
+
+    public State getState() {
+        return status.get().state();
+    }
+
+    private boolean tryAcquirePermission() {
+        // Whoever moves the breaker to half-open makes the probe call, everyone else keeps being rejected
+        Status current = status.get();
+        return switch (current.state()) {
+            case CLOSED -> true;
+            case OPEN -> nanoClock.getAsLong() - current.openedAt() >= openNanos
+                    && transition(State.OPEN, State.HALF_OPEN);
+            case HALF_OPEN -> false;
+        };
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        transition(State.HALF_OPEN, State.CLOSED);
+    }
+
+    private void onFailure() {
+        if (!transition(State.HALF_OPEN, State.OPEN) && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            transition(State.CLOSED, State.OPEN);
+        }
+    }
+
+    /**
+     * Moves the breaker from one state to another, if it's still in the first. Opening it stamps the time it opened
+     * at, in the same swap, so a failed transition (e.g. a late failure while it's already open) leaves it untouched
+     *
+     * @param from The state the breaker must be in
+     * @param to The state to move it to
+     * @return Whether this call made the transition
+     */
+    private boolean transition(State from, State to) {
+        Status current;
+        Status next;
+        do {
+            current = status.get();
+            if (current.state() != from) {
+                return false;
+            }
+            next = new Status(to, to == State.OPEN ? nanoClock.getAsLong() : current.openedAt());
+        } while (!status.compareAndSet(current, next));
+
+        if (to == State.CLOSED) {
+            log.info("Circuit breaker for {} closed", name);
+        } else {
+            log.warn("Circuit breaker for {} moved from {} to {}", name, from, to);
+        }
+        Counter.builder("circuit-breaker.transitions")
+                .tag("name", name)
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .description("Circuit breaker state transitions")
+                .register(meterRegistry)
+                .increment();
+        return true;
+    }
+
+    private long retryAfterSeconds() {
+        long remainingNanos = openNanos - (nanoClock.getAsLong() - status.get().openedAt());
+        return Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(remainingNanos) + 1L);
+    }
+
+    /**
+     * The breaker's state, with when it last opened, swapped as one so the two never disagree
+     *
+     * @param state The state
+     * @param openedAt When the breaker last opened, on the nano clock
+     */
+    private record Status(State state, long openedAt) {}
+}
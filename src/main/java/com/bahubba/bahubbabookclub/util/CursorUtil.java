@@ -0,0 +1,113 @@
+package com.bahubba.bahubbabookclub.util;
+
+import com.bahubba.bahubbabookclub.exception.InvalidCursorException;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Utility class for keyset pagination. Results are ordered by a (timestamp, ID) pair, and a cursor is the pair of the
+ * last row on a page, encoded so clients treat it as opaque. The next page is the rows strictly after it, which an
+ * index on the pair finds directly however deep the page is.
+ */
+@UtilityClass
+public class CursorUtil {
+
+    private static final int CURSOR_BYTES = Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+    /**
+     * A position in a keyset ordered by timestamp, then ID
+     *
+     * @param time The timestamp of the last row on the previous page
+     * @param id The ID of the last row on the previous page
+     */
+    public record Cursor(LocalDateTime time, UUID id) {}
+
+    /**
+     * Encodes a cursor
+     *
+     * @param time The timestamp of the last row on a page
+     * @param id The ID of the last row on a page
+     * @return The opaque cursor
+     */
+    public static String encode(LocalDateTime time, UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(CURSOR_BYTES)
+                .putLong(time.toEpochSecond(ZoneOffset.UTC))
+                .putInt(time.getNano())
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a cursor
+     *
+     * @param cursor The opaque cursor
+     * @return The position it encodes, or null for a blank cursor (the first page)
+     * @throws InvalidCursorException If the cursor wasn't issued by {@link #encode}
+     */
+    public static Cursor decode(String cursor) throws InvalidCursorException {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != CURSOR_BYTES) {
+                throw new InvalidCursorException(cursor);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            LocalDateTime time = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            return new Cursor(time, new UUID(buffer.getLong(), buffer.getLong()));
+        } catch (IllegalArgumentException | BufferUnderflowException | DateTimeException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Gets the page request for fetching a page of rows, one more than the page size so the last page can be told
+     * apart without a count
+     *
+     * @param pageSize The page size, clamped to between 1 and {@link APIConstants#MAX_PAGE_SIZE}
+     * @return The page request
+     */
+    public static Pageable pageRequest(int pageSize) {
+        return PageRequest.ofSize(clampPageSize(pageSize) + 1);
+    }
+
+    /**
+     * Turns the rows fetched with {@link #pageRequest} into a page of DTOs
+     *
+     * @param rows The rows fetched
+     * @param pageSize The page size, clamped to between 1 and {@link APIConstants#MAX_PAGE_SIZE}
+     * @param cursorOf Gets the cursor pointing just past a row
+     * @param mapper Maps a row to its DTO
+     * @return The page, with a cursor for the next one if there are more rows
+     */
+    public static <E, D> CursorPageDTO<D> toPage(
+            List<E> rows, int pageSize, Function<E, String> cursorOf, Function<E, D> mapper) {
+        int size = clampPageSize(pageSize);
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        return CursorPageDTO.<D>builder()
+                .content(pageRows.stream().map(mapper).toList())
+                .size(pageRows.size())
+                .nextCursor(hasNext ? cursorOf.apply(pageRows.get(size - 1)) : null)
+                .build();
+    }
+
+    private static int clampPageSize(int pageSize) {
+        return Math.max(1, Math.min(pageSize, APIConstants.MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,158 @@
+package com.bahubba.bahubbabookclub.util;
+
+import com.bahubba.bahubbabookclub.model.dto.S3ImageDTO;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+/** Utility class for image keys and URLs */
+@UtilityClass
+public class ImageUtil {
+
+    /** How many leading bytes {@link #sniffImageType(byte[])} needs */
+    public static final int IMAGE_SIGNATURE_LENGTH = 12;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xff, (byte) 0xd8, (byte) 0xff};
+    private static final byte[] GIF87_SIGNATURE = {'G', 'I', 'F', '8', '7', 'a'};
+    private static final byte[] GIF89_SIGNATURE = {'G', 'I', 'F', '8', '9', 'a'};
+    private static final byte[] RIFF_SIGNATURE = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP_SIGNATURE = {'W', 'E', 'B', 'P'};
+
+    /**
+     * Gets a book club image with its stable URLs, for the original and for each thumbnail size
+     *
+     * @param fileName The image's file name, relative to the custom image directory for uploaded images
+     * @return The image
+     */
+    public static S3ImageDTO getBookClubImage(String fileName) {
+        return getBookClubImage(fileName, getBaseURL());
+    }
+
+    /**
+     * Gets the stable URL of a book club image, which redirects to a pre-signed S3 URL. Unlike the pre-signed URL it
+     * doesn't change between responses, so clients can cache the image.
+     *
+     * @param fileName The image's file name, relative to the custom image directory for uploaded images
+     * @return The image's URL, absolute when called while handling a request, or null if there's no image
+     */
+    public static String getBookClubImageURL(String fileName) {
+        return getBookClubImageURL(fileName, getBaseURL());
+    }
+
+    /**
+     * Gets the S3 key of a book club image
+     *
+     * @param fileName The image's file name, relative to the custom image directory for uploaded images
+     * @return The image's key
+     */
+    public static String getBookClubImageKey(String fileName) {
+        return fileName.startsWith(APIConstants.CUSTOM_IMAGE_DIR)
+                ? APIConstants.BOOK_CLUB_IMAGE_PREFIX + fileName
+                : APIConstants.BOOK_CLUB_STOCK_IMAGE_PREFIX + fileName;
+    }
+
+    /**
+     * Gets the S3 key of a book club image's thumbnail. Thumbnails are PNGs under their own prefix, mirroring the
+     * layout of the originals, so they never show up in listings of the stock images.
+     *
+     * @param fileName The image's file name, relative to the custom image directory for uploaded images
+     * @param size The thumbnail's width and height in pixels
+     * @return The thumbnail's key
+     */
+    public static String getBookClubThumbnailKey(String fileName, int size) {
+        return APIConstants.BOOK_CLUB_THUMBNAIL_PREFIX
+                + size
+                + "/"
+                + getBookClubImageKey(fileName).substring(APIConstants.BOOK_CLUB_IMAGE_PREFIX.length())
+                + ".png";
+    }
+
+    /**
+     * Checks whether thumbnails are made in a given size
+     *
+     * @param size The thumbnail's width and height in pixels
+     * @return true if it's one of the thumbnail sizes
+     */
+    public static boolean isBookClubThumbnailSize(int size) {
+        return APIConstants.BOOK_CLUB_THUMBNAIL_SIZES.contains(size);
+    }
+
+    /**
+     * Identifies an image's type by its signature (magic bytes), for the types book club images can be uploaded as
+     *
+     * @param header The first {@link #IMAGE_SIGNATURE_LENGTH} bytes of the image, or all of it if it's shorter
+     * @return The image's MIME type, or null if it isn't a PNG, JPEG, GIF or WebP image
+     */
+    public static String sniffImageType(byte[] header) {
+        if (startsWith(header, 0, PNG_SIGNATURE)) {
+            return MediaType.IMAGE_PNG_VALUE;
+        }
+        if (startsWith(header, 0, JPEG_SIGNATURE)) {
+            return MediaType.IMAGE_JPEG_VALUE;
+        }
+        if (startsWith(header, 0, GIF87_SIGNATURE) || startsWith(header, 0, GIF89_SIGNATURE)) {
+            return MediaType.IMAGE_GIF_VALUE;
+        }
+        // RIFF container, with its size in between
+        if (startsWith(header, 0, RIFF_SIGNATURE) && startsWith(header, 8, WEBP_SIGNATURE)) {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, byte[] prefix) {
+        return bytes.length >= offset + prefix.length
+                && Arrays.equals(bytes, offset, offset + prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static S3ImageDTO getBookClubImage(String fileName, String baseURL) {
+        String url = getBookClubImageURL(fileName, baseURL);
+        Map<Integer, String> thumbnails = null;
+        if (url != null) {
+            thumbnails = new LinkedHashMap<>();
+            for (int size : APIConstants.BOOK_CLUB_THUMBNAIL_SIZES) {
+                thumbnails.put(size, url + "?size=" + size);
+            }
+        }
+
+        return S3ImageDTO.builder()
+                .fileName(fileName)
+                .url(url)
+                .thumbnails(thumbnails)
+                .build();
+    }
+
+    private static String getBookClubImageURL(String fileName, String baseURL) {
+        if (fileName == null) {
+            return null;
+        }
+
+        return fileName.startsWith(APIConstants.CUSTOM_IMAGE_DIR)
+                ? baseURL
+                        + APIConstants.BOOK_CLUB_IMAGE_PATH
+                        + APIConstants.CUSTOM_IMAGE_DIR
+                        + UriUtils.encodePathSegment(
+                                fileName.substring(APIConstants.CUSTOM_IMAGE_DIR.length()), StandardCharsets.UTF_8)
+                : baseURL
+                        + APIConstants.BOOK_CLUB_IMAGE_PATH
+                        + UriUtils.encodePathSegment(fileName, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the base URL of the app, as seen by the client of the request being handled
+     *
+     * @return The base URL, or an empty string (for relative URLs) outside of a request
+     */
+    private static String getBaseURL() {
+        return RequestContextHolder.getRequestAttributes() != null
+                ? ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString()
+                : "";
+    }
+}
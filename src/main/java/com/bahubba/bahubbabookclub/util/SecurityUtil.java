@@ -12,7 +12,9 @@ public class SecurityUtil {
     /**
      * Gets the current user's details
      *
-     * @return The current user
+     * @return The current user, never a managed entity and without a password hash; in stateless principal mode only
+     *     the ID, username and role are populated. Use a reference by ID to associate it with other entities, and load
+     *     the user to build a DTO
      */
     public static User getCurrentUserDetails() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
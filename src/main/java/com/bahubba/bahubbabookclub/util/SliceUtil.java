@@ -0,0 +1,50 @@
+package com.bahubba.bahubbabookclub.util;
+
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Utility class for count-free pages. Spring Data fetches one row more than the page size for a {@link Slice}, which is
+ * enough to tell whether there's a next page, so the {@code COUNT(*)} a {@link org.springframework.data.domain.Page}
+ * costs is skipped.
+ */
+@UtilityClass
+public class SliceUtil {
+
+    /**
+     * Gets the page request for a slice
+     *
+     * @param pageNum The page number, at least 0
+     * @param pageSize The page size, clamped to between 1 and {@link APIConstants#MAX_PAGE_SIZE}
+     * @return The page request
+     */
+    public static Pageable pageRequest(int pageNum, int pageSize) {
+        return PageRequest.of(Math.max(pageNum, 0), Math.max(1, Math.min(pageSize, APIConstants.MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Turns a slice of entities into a slice of DTOs
+     *
+     * @param slice The slice of entities
+     * @param mapper Maps an entity to its DTO
+     * @param totals How to report the total
+     * @param estimateTotal Estimates the total, only called when {@code totals} asks for an estimate
+     * @return The slice of DTOs
+     */
+    public static <E, D> SliceDTO<D> toSlice(
+            Slice<E> slice, Function<E, D> mapper, PageTotals totals, LongSupplier estimateTotal) {
+        return SliceDTO.<D>builder()
+                .content(slice.getContent().stream().map(mapper).toList())
+                .pageNum(slice.getNumber())
+                .pageSize(slice.getSize())
+                .hasNext(slice.hasNext())
+                .estimatedTotal(totals == PageTotals.ESTIMATED ? estimateTotal.getAsLong() : null)
+                .build();
+    }
+}
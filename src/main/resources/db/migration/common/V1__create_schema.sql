@@ -0,0 +1,105 @@
+-- Schema as Hibernate generated it from the entities before migrations took over
+CREATE TABLE app_user (
+    id          uuid         NOT NULL,
+    username    varchar(255) NOT NULL UNIQUE,
+    email       varchar(255) NOT NULL UNIQUE,
+    password    varchar(255) NOT NULL,
+    given_name  varchar(255),
+    middle_name varchar(255),
+    surname     varchar(255),
+    suffix      varchar(255),
+    title       varchar(255),
+    role        varchar(255) NOT NULL CHECK (role IN ('ADMIN', 'USER')),
+    joined      timestamp(6) NOT NULL,
+    departed    timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE book_club (
+    id              uuid         NOT NULL,
+    name            varchar(255) NOT NULL UNIQUE,
+    image_file_name varchar(255) NOT NULL,
+    description     varchar(255) NOT NULL,
+    publicity       varchar(255) NOT NULL CHECK (publicity IN ('PUBLIC', 'OBSERVABLE', 'PRIVATE')),
+    created         timestamp(6) NOT NULL,
+    disbanded       timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE book_club_users (
+    id           uuid         NOT NULL,
+    book_club_id uuid,
+    user_id      uuid,
+    club_role    varchar(255) NOT NULL CHECK (club_role IN ('NONE', 'ADMIN', 'USER', 'PARTICIPANT', 'OBSERVER')),
+    is_owner     boolean      NOT NULL,
+    joined       timestamp(6) NOT NULL,
+    departed     timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE membership_request (
+    id             uuid         NOT NULL,
+    user_id        uuid,
+    book_club_id   uuid,
+    message        varchar(255),
+    status         varchar(255) CHECK (status IN ('OPEN', 'APPROVED', 'REJECTED')),
+    role           varchar(255) CHECK (role IN ('NONE', 'ADMIN', 'USER', 'PARTICIPANT', 'OBSERVER')),
+    reviewer_id    uuid,
+    review_message varchar(255),
+    viewed         boolean,
+    requested      timestamp(6) NOT NULL,
+    reviewed       timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE notification (
+    id             uuid         NOT NULL,
+    source_user_id uuid         NOT NULL,
+    target_user_id uuid         NOT NULL,
+    book_club_id   uuid,
+    type           varchar(255) NOT NULL CHECK (type IN ('REGISTERED', 'INVITED_TO_CLUB', 'MEMBERSHIP_REQUESTED',
+                                                         'MEMBERSHIP_DECLINED', 'MEMBERSHIP_APPROVED',
+                                                         'MEMBERSHIP_OFFERED', 'MEMBERSHIP_REJECTED',
+                                                         'MEMBERSHIP_ACCEPTED', 'NEW_USER', 'BOOK_CLUB_CREATED',
+                                                         'BOOK_CLUB_UPDATED')),
+    action_link    varchar(255),
+    generated      timestamp(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE notification_views (
+    notification_id uuid NOT NULL,
+    user_id         uuid NOT NULL,
+    PRIMARY KEY (notification_id, user_id)
+);
+
+CREATE TABLE refresh_token (
+    id          uuid                        NOT NULL,
+    user_id     uuid UNIQUE,
+    token       varchar(255)                NOT NULL UNIQUE,
+    expiry_date timestamp(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE book_club_users
+    ADD CONSTRAINT book_club_users_book_club_fk FOREIGN KEY (book_club_id) REFERENCES book_club;
+ALTER TABLE book_club_users
+    ADD CONSTRAINT book_club_users_user_fk FOREIGN KEY (user_id) REFERENCES app_user;
+ALTER TABLE membership_request
+    ADD CONSTRAINT membership_request_book_club_fk FOREIGN KEY (book_club_id) REFERENCES book_club;
+ALTER TABLE membership_request
+    ADD CONSTRAINT membership_request_reviewer_fk FOREIGN KEY (reviewer_id) REFERENCES app_user;
+ALTER TABLE membership_request
+    ADD CONSTRAINT membership_request_user_fk FOREIGN KEY (user_id) REFERENCES app_user;
+ALTER TABLE notification
+    ADD CONSTRAINT notification_book_club_fk FOREIGN KEY (book_club_id) REFERENCES book_club;
+ALTER TABLE notification
+    ADD CONSTRAINT notification_source_user_fk FOREIGN KEY (source_user_id) REFERENCES app_user;
+ALTER TABLE notification
+    ADD CONSTRAINT notification_target_user_fk FOREIGN KEY (target_user_id) REFERENCES app_user;
+ALTER TABLE notification_views
+    ADD CONSTRAINT notification_views_notification_fk FOREIGN KEY (notification_id) REFERENCES notification;
+ALTER TABLE notification_views
+    ADD CONSTRAINT notification_views_user_fk FOREIGN KEY (user_id) REFERENCES app_user;
+ALTER TABLE refresh_token
+    ADD CONSTRAINT refresh_token_user_fk FOREIGN KEY (user_id) REFERENCES app_user;
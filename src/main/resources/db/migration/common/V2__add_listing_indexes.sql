@@ -0,0 +1,16 @@
+-- Composite indexes for the queries the repositories issue, so none of them scan or sort a whole table
+
+-- Membership lookups by book club and user (role checks, joining, leaving)
+CREATE INDEX book_club_users_club_user_idx ON book_club_users (book_club_id, user_id);
+
+-- Members of a book club in the order they joined, with the ID as the keyset tiebreaker
+CREATE INDEX book_club_users_club_joined_id_idx ON book_club_users (book_club_id, joined, id);
+
+-- Membership requests for a book club, newest first (scanned backwards), with the ID as the keyset tiebreaker
+CREATE INDEX membership_request_club_requested_id_idx ON membership_request (book_club_id, requested, id);
+
+-- All book clubs, oldest first, with the ID as the keyset tiebreaker
+CREATE INDEX book_club_created_id_idx ON book_club (created, id);
+
+-- A user's notifications, newest first
+CREATE INDEX notification_target_user_generated_idx ON notification (target_user_id, generated);
@@ -0,0 +1,2 @@
+-- Uploaded images are only served while a book club uses them, which is checked by file name
+CREATE INDEX book_club_image_file_name_idx ON book_club (image_file_name);
@@ -0,0 +1,3 @@
+-- H2 has no partial indexes, so this stands in for the Postgres one on current memberships with departed as a second
+-- column. Nor has it pg_trgm, so there's no trigram index for book club name search
+CREATE INDEX book_club_users_active_user_idx ON book_club_users (user_id, departed);
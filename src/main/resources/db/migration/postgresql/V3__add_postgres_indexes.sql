@@ -0,0 +1,21 @@
+-- A user's current memberships; departed memberships are never looked up by user, so they're left out of the index
+CREATE INDEX book_club_users_active_user_idx ON book_club_users (user_id) WHERE departed IS NULL;
+
+-- Book club name search (see TrigramBookClubSearchEngine). Installing pg_trgm needs privileges the DB user may not
+-- have, in which case the index is skipped and the like search engine should be used instead
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION
+    WHEN insufficient_privilege THEN
+        RAISE WARNING 'Couldn''t install pg_trgm, use the like book club search engine';
+END
+$$;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        CREATE INDEX book_club_name_trgm_idx ON book_club USING gin (lower(name) gin_trgm_ops);
+    END IF;
+END
+$$;
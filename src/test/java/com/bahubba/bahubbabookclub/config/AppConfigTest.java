@@ -0,0 +1,101 @@
+package com.bahubba.bahubbabookclub.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+import com.bahubba.bahubbabookclub.model.entity.User;
+import com.bahubba.bahubbabookclub.repository.UserRepo;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Unit tests for the beans created in {@link AppConfig} */
+@SpringBootTest
+@ActiveProfiles("test")
+class AppConfigTest {
+    @Autowired
+    UserDetailsService userDetailsService;
+
+    @Autowired
+    UserCache userCache;
+
+    @MockBean
+    UserRepo userRepo;
+
+    @Test
+    void testLoadUserByUsername_Cached() {
+        when(userRepo.findByUsernameAndDepartedIsNull("cacheduser"))
+                .thenReturn(Optional.of(User.builder().username("cacheduser").build()));
+
+        UserDetails result = userDetailsService.loadUserByUsername("cacheduser");
+
+        // The second load is served from the principal cache, as a copy of its own
+        assertThat(userDetailsService.loadUserByUsername("cacheduser"))
+                .isNotSameAs(result)
+                .isEqualTo(result);
+        verify(userRepo, times(1)).findByUsernameAndDepartedIsNull("cacheduser");
+    }
+
+    @Test
+    void testLoadUserByUsername_CachedWithoutPassword() {
+        when(userRepo.findByUsernameAndDepartedIsNull("hasheduser"))
+                .thenReturn(Optional.of(User.builder()
+                        .username("hasheduser")
+                        .password("$2a$10$hash")
+                        .memberships(Set.of())
+                        .build()));
+
+        userDetailsService.loadUserByUsername("hasheduser");
+        User result = (User) userDetailsService.loadUserByUsername("hasheduser");
+
+        assertThat(result.getUsername()).isEqualTo("hasheduser");
+        assertThat(result.getPassword()).isNull();
+        assertThat(result.getMemberships()).isNull();
+    }
+
+    @Test
+    void testLoadUserByUsername_MissWithoutPassword() {
+        User entity = User.builder()
+                .username("misseduser")
+                .password("$2a$10$hash")
+                .memberships(Set.of())
+                .build();
+        when(userRepo.findByUsernameAndDepartedIsNull("misseduser")).thenReturn(Optional.of(entity));
+
+        User result = (User) userDetailsService.loadUserByUsername("misseduser");
+
+        // A miss hands out a detached copy too, never the entity
+        assertThat(result).isNotSameAs(entity);
+        assertThat(result.getUsername()).isEqualTo("misseduser");
+        assertThat(result.getPassword()).isNull();
+        assertThat(result.getMemberships()).isNull();
+    }
+
+    @Test
+    void testLoadUserByUsername_Evicted() {
+        when(userRepo.findByUsernameAndDepartedIsNull("evicteduser"))
+                .thenReturn(Optional.of(User.builder().username("evicteduser").build()));
+
+        userDetailsService.loadUserByUsername("evicteduser");
+        userCache.removeUserFromCache("evicteduser");
+        userDetailsService.loadUserByUsername("evicteduser");
+
+        verify(userRepo, times(2)).findByUsernameAndDepartedIsNull("evicteduser");
+    }
+
+    @Test
+    void testLoadUserByUsername_NotFound() {
+        when(userRepo.findByUsernameAndDepartedIsNull("missinguser")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("missinguser"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.bahubba.bahubbabookclub.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bahubba.bahubbabookclub.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/** Unit tests for the {@link BoundedPasswordEncoder} */
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void testEncodeAndMatches() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder passwordEncoder =
+                new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, 1L, meterRegistry);
+
+        String encoded = passwordEncoder.encode("password");
+
+        assertThat(passwordEncoder.matches("password", encoded)).isTrue();
+        assertThat(passwordEncoder.matches("wrong", encoded)).isFalse();
+        assertThat(meterRegistry
+                        .get("auth.password-hashing.latency")
+                        .tag("operation", "matches")
+                        .timer()
+                        .count())
+                .isEqualTo(2L);
+
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    void testEncode_QueueFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(blockingEncoder, 1, 1, 3L, meterRegistry);
+
+        // One task hashing, one waiting in the queue
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("first"));
+        started.await();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("second"));
+        while (meterRegistry.get("auth.password-hashing.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> passwordEncoder.encode("third"))
+                .isInstanceOf(PasswordHashingUnavailableException.class)
+                .extracting("retryAfterSeconds")
+                .isEqualTo(3L);
+
+        release.countDown();
+        assertThat(running.join()).isNotNull();
+        assertThat(queued.join()).isNotNull();
+
+        passwordEncoder.destroy();
+    }
+}
@@ -0,0 +1,165 @@
+package com.bahubba.bahubbabookclub.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/** Unit tests for the {@link RateLimitFilter} */
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPath("/api/v1/auth/authenticate");
+        route.setMethod("POST");
+        route.setCapacity(2L);
+        route.setRefillTokens(1L);
+        route.setRefillPeriod(Duration.ofHours(1));
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(route));
+
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitFilter = new RateLimitFilter(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void testDoFilter_IpLimited() throws ServletException, IOException {
+        assertThat(login("10.0.0.1", "user1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(login("10.0.0.1", "user2").getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        MockHttpServletResponse rsp = login("10.0.0.1", "user3");
+
+        assertThat(rsp.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(rsp.getHeader(HttpHeaders.RETRY_AFTER)).isNotNull();
+        assertThat(meterRegistry
+                        .get("http.rate-limit.rejections")
+                        .tag("key", "ip")
+                        .counter()
+                        .count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void testDoFilter_UsernameLimited() throws ServletException, IOException {
+        // Authenticated users get one bucket, wherever they come from
+        SecurityContextHolder.getContext()
+                .setAuthentication(UsernamePasswordAuthenticationToken.authenticated("user", null, List.of()));
+        try {
+            assertThat(login("10.0.0.1", "user").getStatus()).isEqualTo(HttpStatus.OK.value());
+            assertThat(login("10.0.0.2", "user").getStatus()).isEqualTo(HttpStatus.OK.value());
+
+            MockHttpServletResponse rsp = login("10.0.0.3", "USER");
+
+            assertThat(rsp.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        assertThat(meterRegistry
+                        .get("http.rate-limit.rejections")
+                        .tag("key", "username")
+                        .counter()
+                        .count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void testDoFilter_BodyUsernameLimitedPerIp() throws ServletException, IOException {
+        // One IP hammering a username from a body only exhausts its own bucket for that username
+        login("10.0.0.1", "victim");
+        login("10.0.0.1", "victim");
+        assertThat(login("10.0.0.1", "victim").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+
+        assertThat(login("10.0.0.2", "victim").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void testDoFilter_BodyReplayedAsync() throws ServletException, IOException {
+        MockFilterChain filterChain = new MockFilterChain();
+        rateLimitFilter.doFilter(loginRequest("10.0.0.1", "user"), new MockHttpServletResponse(), filterChain);
+        ServletInputStream in = filterChain.getRequest().getInputStream();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (in.isReady() && !in.isFinished()) {
+                    body.write(in.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allDataRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+
+        assertThat(allDataRead).isTrue();
+        assertThat(body.toString(StandardCharsets.UTF_8)).contains("\"usernameOrEmail\":\"user\"");
+    }
+
+    @Test
+    void testDoFilter_BodyReplayed() throws ServletException, IOException {
+        MockFilterChain filterChain = new MockFilterChain();
+
+        rateLimitFilter.doFilter(loginRequest("10.0.0.1", "user"), new MockHttpServletResponse(), filterChain);
+
+        assertThat(new String(filterChain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8))
+                .contains("\"usernameOrEmail\":\"user\"");
+    }
+
+    @Test
+    void testDoFilter_UnlimitedRoute() throws ServletException, IOException {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/v1/book-clubs/all");
+            MockHttpServletResponse rsp = new MockHttpServletResponse();
+
+            rateLimitFilter.doFilter(req, rsp, new MockFilterChain());
+
+            assertThat(rsp.getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+    }
+
+    private MockHttpServletResponse login(String ip, String username) throws ServletException, IOException {
+        MockHttpServletResponse rsp = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(loginRequest(ip, username), rsp, new MockFilterChain());
+        return rsp;
+    }
+
+    private static MockHttpServletRequest loginRequest(String ip, String username) {
+        MockHttpServletRequest req = new MockHttpServletRequest("POST", "/api/v1/auth/authenticate");
+        req.setRemoteAddr(ip);
+        req.setContentType("application/json");
+        req.setContent(("{\"usernameOrEmail\":\"" + username + "\",\"password\":\"password\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        return req;
+    }
+}
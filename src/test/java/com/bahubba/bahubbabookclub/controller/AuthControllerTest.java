@@ -1,9 +1,11 @@
 package com.bahubba.bahubbabookclub.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import com.bahubba.bahubbabookclub.exception.PasswordHashingUnavailableException;
 import com.bahubba.bahubbabookclub.exception.TokenRefreshException;
 import com.bahubba.bahubbabookclub.model.dto.AuthDTO;
 import com.bahubba.bahubbabookclub.model.dto.MessageResponseDTO;
@@ -106,6 +108,15 @@ class AuthControllerTest {
         assertThat(rsp.getBody().getData()).isNull();
     }
 
+    @Test
+    void testAuthenticate_passwordHashingUnavailable() {
+        when(authService.authenticate(any(AuthRequest.class))).thenThrow(new PasswordHashingUnavailableException(1L));
+
+        assertThatThrownBy(() -> authController.authenticate(new AuthRequest()))
+                .isInstanceOf(PasswordHashingUnavailableException.class);
+        verify(authService, times(1)).authenticate(any(AuthRequest.class));
+    }
+
     @Test
     void testRefreshToken() {
         when(jwtService.refreshToken(any(HttpServletRequest.class)))
@@ -5,7 +5,10 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import com.bahubba.bahubbabookclub.model.dto.BookClubDTO;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
 import com.bahubba.bahubbabookclub.model.dto.S3ImageDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.payload.BookClubPayload;
 import com.bahubba.bahubbabookclub.model.payload.BookClubSearch;
 import com.bahubba.bahubbabookclub.service.BookClubService;
@@ -18,7 +21,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.multipart.MultipartFile;
 
 /** Unit tests for {@link BookClubController} endpoints */
 @SpringBootTest
@@ -86,6 +91,43 @@ class BookClubControllerTest {
         assertThat(rsp.getBody()).isNotNull();
     }
 
+    @Test
+    void testGetAll_Slice() {
+        when(bookClubService.findAll(anyInt(), anyInt(), any(PageTotals.class))).thenReturn(new SliceDTO<>());
+        ResponseEntity<SliceDTO<BookClubDTO>> rsp = bookClubController.getAll(0, 10, PageTotals.NONE);
+        verify(bookClubService, times(1)).findAll(0, 10, PageTotals.NONE);
+        assertThat(rsp).isNotNull();
+        assertThat(rsp.getBody()).isNotNull();
+    }
+
+    @Test
+    void testGetAllForUser_Slice() {
+        when(bookClubService.findAllForUser(anyInt(), anyInt(), any(PageTotals.class)))
+                .thenReturn(new SliceDTO<>());
+        ResponseEntity<SliceDTO<BookClubDTO>> rsp = bookClubController.getAllForUser(0, 10, PageTotals.ESTIMATED);
+        verify(bookClubService, times(1)).findAllForUser(0, 10, PageTotals.ESTIMATED);
+        assertThat(rsp).isNotNull();
+        assertThat(rsp.getBody()).isNotNull();
+    }
+
+    @Test
+    void testGetAllForUser_Cursor() {
+        when(bookClubService.findAllForUser(anyString(), anyInt())).thenReturn(new CursorPageDTO<>());
+        ResponseEntity<CursorPageDTO<BookClubDTO>> rsp = bookClubController.getAllForUser("", 10);
+        verify(bookClubService, times(1)).findAllForUser(anyString(), anyInt());
+        assertThat(rsp).isNotNull();
+        assertThat(rsp.getBody()).isNotNull();
+    }
+
+    @Test
+    void testGetAll_Cursor() {
+        when(bookClubService.findAll(anyString(), anyInt())).thenReturn(new CursorPageDTO<>());
+        ResponseEntity<CursorPageDTO<BookClubDTO>> rsp = bookClubController.getAll("", 10);
+        verify(bookClubService, times(1)).findAll(anyString(), anyInt());
+        assertThat(rsp).isNotNull();
+        assertThat(rsp.getBody()).isNotNull();
+    }
+
     @Test
     void testDisbandBookClub() {
         when(bookClubService.disbandBookClubByID(any(UUID.class))).thenReturn(new BookClubDTO());
@@ -117,6 +159,14 @@ class BookClubControllerTest {
         assertThat(rsp.getBody()).isNotNull();
     }
 
+    @Test
+    void testSuggest() {
+        when(bookClubService.suggest(anyString(), anyInt())).thenReturn(List.of("Mystery"));
+        ResponseEntity<List<String>> rsp = bookClubController.suggest("my", 10);
+        verify(bookClubService, times(1)).suggest("my", 10);
+        assertThat(rsp.getBody()).containsExactly("Mystery");
+    }
+
     @Test
     void testGetPreSignedStockBookClubImageURLs() {
         when(bookClubService.getStockBookClubImages()).thenReturn(new ArrayList<>());
@@ -127,4 +177,17 @@ class BookClubControllerTest {
         assertThat(rsp).isNotNull();
         assertThat(rsp.getBody()).isNotNull();
     }
+
+    @Test
+    void testUploadImage() {
+        when(bookClubService.uploadImage(any(UUID.class), any(MultipartFile.class)))
+                .thenReturn(new BookClubDTO());
+
+        ResponseEntity<BookClubDTO> rsp = bookClubController.uploadImage(
+                UUID.randomUUID(), new MockMultipartFile("image", "club.png", "image/png", new byte[] {1}));
+
+        verify(bookClubService, times(1)).uploadImage(any(UUID.class), any(MultipartFile.class));
+        assertThat(rsp).isNotNull();
+        assertThat(rsp.getBody()).isNotNull();
+    }
 }
@@ -0,0 +1,162 @@
+package com.bahubba.bahubbabookclub.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.bahubba.bahubbabookclub.service.BookClubService;
+import com.bahubba.bahubbabookclub.service.ImageVariantService;
+import com.bahubba.bahubbabookclub.service.S3Service;
+import com.bahubba.bahubbabookclub.service.StockImageCatalog;
+import com.bahubba.bahubbabookclub.service.StockImageMirror;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Unit tests for {@link ImageController} endpoints */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImageControllerTest {
+    @Autowired
+    ImageController imageController;
+
+    @MockBean
+    S3Service s3Service;
+
+    @MockBean
+    StockImageCatalog stockImageCatalog;
+
+    @MockBean
+    StockImageMirror stockImageMirror;
+
+    @MockBean
+    ImageVariantService imageVariantService;
+
+    @MockBean
+    BookClubService bookClubService;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testGetBookClubImage() {
+        when(stockImageCatalog.containsStockImage("one.jpg")).thenReturn(true);
+        when(s3Service.getPreSignedURL(anyString())).thenReturn("https://test.com/one.jpg?signature=abc");
+
+        ResponseEntity<Resource> rsp = imageController.getBookClubImage("one.jpg", null);
+
+        verify(s3Service, times(1)).getPreSignedURL("book-clubs/images/stock/one.jpg");
+        assertThat(rsp.getStatusCode()).isEqualTo(HttpStatus.FOUND);
+        assertThat(rsp.getHeaders().getLocation()).hasToString("https://test.com/one.jpg?signature=abc");
+        assertThat(rsp.getHeaders().getCacheControl()).isEqualTo("max-age=300, public");
+    }
+
+    @Test
+    void testGetBookClubImage_Mirrored() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("one.jpg"), "one");
+        when(stockImageMirror.getImage("one.jpg"))
+                .thenReturn(Optional.of(new StockImageMirror.MirroredImage(file, "abc123")));
+
+        ResponseEntity<Resource> rsp = imageController.getBookClubImage("one.jpg", null);
+
+        verify(s3Service, never()).getPreSignedURL(anyString());
+        assertThat(rsp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(rsp.getHeaders().getETag()).isEqualTo("\"abc123\"");
+        assertThat(rsp.getHeaders().getCacheControl()).isEqualTo("max-age=3600, public");
+        assertThat(rsp.getHeaders().getContentType()).isEqualTo(MediaType.IMAGE_JPEG);
+        assertThat(rsp.getBody()).isNotNull();
+        assertThat(rsp.getBody().getFile()).isEqualTo(file.toFile());
+    }
+
+    @Test
+    void testGetBookClubImage_Thumbnail() {
+        when(stockImageCatalog.containsStockImage("one.jpg")).thenReturn(true);
+        when(imageVariantService.getVariantKey("one.jpg", 64))
+                .thenReturn(Optional.of("book-clubs/images/thumbnails/64/stock/one.jpg.png"));
+        when(s3Service.getPreSignedURL(anyString())).thenReturn("https://test.com/thumbnail.png?signature=abc");
+
+        ResponseEntity<Resource> rsp = imageController.getBookClubImage("one.jpg", 64);
+
+        verify(s3Service, times(1)).getPreSignedURL("book-clubs/images/thumbnails/64/stock/one.jpg.png");
+        verify(stockImageMirror, never()).getImage(anyString());
+        assertThat(rsp.getStatusCode()).isEqualTo(HttpStatus.FOUND);
+        assertThat(rsp.getHeaders().getCacheControl()).isEqualTo("max-age=300, public");
+    }
+
+    @Test
+    void testGetBookClubImage_ThumbnailNotGenerated() {
+        when(stockImageCatalog.containsStockImage("one.jpg")).thenReturn(true);
+        when(imageVariantService.getVariantKey("one.jpg", 64)).thenReturn(Optional.empty());
+        when(s3Service.getPreSignedURL(anyString())).thenReturn("https://test.com/one.jpg?signature=abc");
+
+        ResponseEntity<Resource> rsp = imageController.getBookClubImage("one.jpg", 64);
+
+        verify(s3Service, times(1)).getPreSignedURL("book-clubs/images/stock/one.jpg");
+        assertThat(rsp.getStatusCode()).isEqualTo(HttpStatus.FOUND);
+        assertThat(rsp.getHeaders().getCacheControl()).isEqualTo("max-age=60, public");
+    }
+
+    @Test
+    void testGetBookClubImage_UnsupportedThumbnailSize() {
+        when(stockImageCatalog.containsStockImage("one.jpg")).thenReturn(true);
+
+        ResponseEntity<Resource> rsp = imageController.getBookClubImage("one.jpg", 100);
+
+        verify(imageVariantService, never()).getVariantKey(anyString(), anyInt());
+        assertThat(rsp.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testGetCustomBookClubImage() {
+        String fileName = "a".repeat(64) + ".png";
+        when(bookClubService.isBookClubImage("custom/" + fileName)).thenReturn(true);
+        when(s3Service.getPreSignedURL(anyString())).thenReturn("https://test.com/custom.png?signature=abc");
+
+        ResponseEntity<Resource> rsp = imageController.getCustomBookClubImage(fileName, null);
+
+        verify(s3Service, times(1)).getPreSignedURL("book-clubs/images/custom/" + fileName);
+        assertThat(rsp.getStatusCode()).isEqualTo(HttpStatus.FOUND);
+        assertThat(rsp.getHeaders().getLocation()).hasToString("https://test.com/custom.png?signature=abc");
+    }
+
+    @Test
+    void testGetCustomBookClubImage_Unused() {
+        String fileName = "b".repeat(64) + ".png";
+        when(bookClubService.isBookClubImage(anyString())).thenReturn(false);
+
+        ResponseEntity<Resource> rsp = imageController.getCustomBookClubImage(fileName, 64);
+
+        verify(s3Service, never()).getPreSignedURL(anyString());
+        verify(imageVariantService, never()).getVariantKey(anyString(), anyInt());
+        assertThat(rsp.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testGetCustomBookClubImage_NotFound() {
+        ResponseEntity<Resource> rsp = imageController.getCustomBookClubImage("..%2Fstock%2Fone.jpg", null);
+
+        verify(s3Service, never()).getPreSignedURL(anyString());
+        assertThat(rsp.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testGetBookClubImage_NotFound() {
+        when(stockImageCatalog.containsStockImage(anyString())).thenReturn(false);
+
+        ResponseEntity<Resource> rsp = imageController.getBookClubImage("../secret.txt", null);
+
+        verify(s3Service, never()).getPreSignedURL(anyString());
+        assertThat(rsp.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
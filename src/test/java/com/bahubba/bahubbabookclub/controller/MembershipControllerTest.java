@@ -5,7 +5,10 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 import com.bahubba.bahubbabookclub.model.dto.BookClubMembershipDTO;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
 import com.bahubba.bahubbabookclub.model.enums.BookClubRole;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.payload.MembershipCompositeID;
 import com.bahubba.bahubbabookclub.model.payload.MembershipUpdate;
 import com.bahubba.bahubbabookclub.model.payload.NewOwner;
@@ -40,6 +43,30 @@ class MembershipControllerTest {
         assertThat(rsp.getBody()).isNotNull();
     }
 
+    @Test
+    void testGetAll_Slice() {
+        when(membershipService.getAll(anyString(), anyInt(), anyInt(), any(PageTotals.class)))
+                .thenReturn(new SliceDTO<>());
+
+        ResponseEntity<SliceDTO<BookClubMembershipDTO>> rsp =
+                membershipController.getAll("foo", 0, 10, PageTotals.ESTIMATED);
+
+        verify(membershipService, times(1)).getAll("foo", 0, 10, PageTotals.ESTIMATED);
+        assertThat(rsp).isNotNull();
+        assertThat(rsp.getBody()).isNotNull();
+    }
+
+    @Test
+    void testGetAll_Cursor() {
+        when(membershipService.getAll(anyString(), anyString(), anyInt())).thenReturn(new CursorPageDTO<>());
+
+        ResponseEntity<CursorPageDTO<BookClubMembershipDTO>> rsp = membershipController.getAll("foo", "", 10);
+
+        verify(membershipService, times(1)).getAll(anyString(), anyString(), anyInt());
+        assertThat(rsp).isNotNull();
+        assertThat(rsp.getBody()).isNotNull();
+    }
+
     @Test
     void testGetRole() {
         when(membershipService.getRole(anyString())).thenReturn(BookClubRole.USER);
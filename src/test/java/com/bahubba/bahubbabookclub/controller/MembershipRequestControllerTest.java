@@ -4,7 +4,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
 import com.bahubba.bahubbabookclub.model.dto.MembershipRequestDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.payload.MembershipRequestAction;
 import com.bahubba.bahubbabookclub.model.payload.NewMembershipRequest;
 import com.bahubba.bahubbabookclub.service.MembershipRequestService;
@@ -55,6 +58,31 @@ class MembershipRequestControllerTest {
         assertThat(rsp).isNotNull();
     }
 
+    @Test
+    void testGetMembershipRequestsForBookClub_Slice() {
+        when(membershipRequestService.getMembershipRequestsForBookClub(
+                        anyString(), anyInt(), anyInt(), any(PageTotals.class)))
+                .thenReturn(new SliceDTO<>());
+
+        ResponseEntity<SliceDTO<MembershipRequestDTO>> rsp =
+                membershipRequestController.getMembershipRequestsForBookClub("foo", 0, 10, PageTotals.NONE);
+
+        verify(membershipRequestService, times(1)).getMembershipRequestsForBookClub("foo", 0, 10, PageTotals.NONE);
+        assertThat(rsp).isNotNull();
+    }
+
+    @Test
+    void testGetMembershipRequestsForBookClub_Cursor() {
+        when(membershipRequestService.getMembershipRequestsForBookClub(anyString(), anyString(), anyInt()))
+                .thenReturn(new CursorPageDTO<>());
+
+        ResponseEntity<CursorPageDTO<MembershipRequestDTO>> rsp =
+                membershipRequestController.getMembershipRequestsForBookClub("foo", "", 10);
+
+        verify(membershipRequestService, times(1)).getMembershipRequestsForBookClub(anyString(), anyString(), anyInt());
+        assertThat(rsp).isNotNull();
+    }
+
     @Test
     void testReviewMembershipRequest() {
         when(membershipRequestService.reviewMembershipRequest(any(MembershipRequestAction.class)))
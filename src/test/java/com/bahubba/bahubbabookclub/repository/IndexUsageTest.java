@@ -0,0 +1,167 @@
+package com.bahubba.bahubbabookclub.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Checks the planner uses the indexes from the migrations for the SQL the repositories issue. Runs against H2 by
+ * default; point {@code SPRING_DATASOURCE_URL} (and the driver, username and password) at a Postgres database to check
+ * its plans too. Each test seeds a few hundred memberships so the plans are those of a populated table, and sequential
+ * scans are switched off on Postgres, which still rightly prefers them at that size.
+ */
+@SpringBootTest(
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.bahubba.bahubbabookclub.repository.IndexUsageTest$CapturingStatementInspector")
+@ActiveProfiles("test")
+@Transactional
+class IndexUsageTest {
+
+    private static final PageRequest PAGE = PageRequest.ofSize(11);
+    private static final int BOOK_CLUBS = 20;
+    private static final int MEMBERS_PER_BOOK_CLUB = 15;
+
+    @Autowired
+    BookClubRepo bookClubRepo;
+
+    @Autowired
+    BookClubMembershipRepo bookClubMembershipRepo;
+
+    @Autowired
+    MembershipRequestRepo membershipRequestRepo;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final UUID id = UUID.randomUUID();
+    private final LocalDateTime time = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        if (isPostgres()) {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        }
+
+        // Each member belongs to one club, and joined a minute after the last
+        LocalDateTime joined = LocalDateTime.of(2023, 1, 1, 12, 0);
+        for (int club = 0; club < BOOK_CLUBS; club++) {
+            UUID bookClubID = UUID.randomUUID();
+            jdbcTemplate.update(
+                    "INSERT INTO book_club (id, name, image_file_name, description, publicity, created) "
+                            + "VALUES (?, ?, 'default.jpg', 'Index usage', 'PUBLIC', ?)",
+                    bookClubID,
+                    "Index Usage Club " + club,
+                    joined);
+            for (int member = 0; member < MEMBERS_PER_BOOK_CLUB; member++) {
+                UUID userID = UUID.randomUUID();
+                jdbcTemplate.update(
+                        "INSERT INTO app_user (id, username, email, password, role, joined) "
+                                + "VALUES (?, ?, ?, 'password', 'USER', ?)",
+                        userID,
+                        "index_usage_" + userID,
+                        userID + "@example.com",
+                        joined);
+                jdbcTemplate.update(
+                        "INSERT INTO book_club_users (id, book_club_id, user_id, club_role, is_owner, joined) "
+                                + "VALUES (?, ?, ?, 'USER', false, ?)",
+                        UUID.randomUUID(),
+                        bookClubID,
+                        userID,
+                        joined);
+                jdbcTemplate.update(
+                        "INSERT INTO membership_request (id, user_id, book_club_id, status, requested) "
+                                + "VALUES (?, ?, ?, 'OPEN', ?)",
+                        UUID.randomUUID(),
+                        userID,
+                        bookClubID,
+                        joined);
+                joined = joined.plusMinutes(1);
+            }
+        }
+    }
+
+    @Test
+    void testMembershipByBookClubAndUser() {
+        String plan = plan(() -> bookClubMembershipRepo.findByBookClubIdAndUserId(id, id), id, id);
+
+        assertThat(plan).containsIgnoringCase("book_club_users_club_user_idx");
+    }
+
+    @Test
+    void testActiveMembershipsByUser() {
+        String plan =
+                plan(() -> bookClubMembershipRepo.countByUserIdAndDepartedIsNullAndBookClubDisbandedIsNull(id), id);
+
+        assertThat(plan).containsIgnoringCase("book_club_users_active_user_idx");
+    }
+
+    @Test
+    void testMembershipsPageAfter() {
+        String plan = plan(
+                () -> bookClubMembershipRepo.findPageByBookClubIdAfter(id, time, id, PAGE), id, time, time, id, 0, 11);
+
+        assertThat(plan).containsIgnoringCase("book_club_users_club_joined_id_idx");
+    }
+
+    @Test
+    void testMembershipRequestsPageBefore() {
+        String plan = plan(
+                () -> membershipRequestRepo.findPageByBookClubIdBefore(id, time, id, PAGE), id, time, time, id, 0, 11);
+
+        assertThat(plan).containsIgnoringCase("membership_request_club_requested_id_idx");
+    }
+
+    @Test
+    void testBookClubsPageAfter() {
+        String plan = plan(() -> bookClubRepo.findPageAfter(time, id, PAGE), time, time, id, 0, 11);
+
+        assertThat(plan).containsIgnoringCase("book_club_created_id_idx");
+    }
+
+    /**
+     * Runs a repository query, then explains the first statement it issued
+     *
+     * @param query The repository query
+     * @param args The statement's parameters, in order
+     * @return The query plan
+     */
+    private String plan(Runnable query, Object... args) {
+        CapturingStatementInspector.SQL.clear();
+        query.run();
+        assertThat(CapturingStatementInspector.SQL).isNotEmpty();
+
+        return String.join(
+                "\n",
+                jdbcTemplate.queryForList("EXPLAIN " + CapturingStatementInspector.SQL.get(0), String.class, args));
+    }
+
+    private boolean isPostgres() {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>)
+                connection -> connection.getMetaData().getDatabaseProductName().equals("PostgreSQL"));
+    }
+
+    /** Records the SQL Hibernate sends, so the plans checked are for the statements the repositories really issue */
+    public static class CapturingStatementInspector implements StatementInspector {
+        static final List<String> SQL = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.bahubba.bahubbabookclub.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Smoke test of the trigram search SQL in {@link BookClubRepo}. On Postgres (see {@link IndexUsageTest} for pointing
+ * the tests at one) it runs as is; H2 has neither pg_trgm's {@code similarity} function nor its {@code %} operator, so
+ * there they're stood in for by Java functions and the operator is swapped for a call to one.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TrigramSearchQueryTest {
+
+    private static final String FUZZY_MATCH = "lower(bc.name) % :searchTerm";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // Outside the test transaction, as H2 commits on DDL
+    @BeforeAll
+    static void createFunctions(@Autowired JdbcTemplate jdbcTemplate) {
+        if (!isPostgres(jdbcTemplate)) {
+            String functions = TrigramFunctions.class.getName();
+            jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS similarity FOR \"" + functions + ".similarity\"");
+            jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS trgm_match FOR \"" + functions + ".match\"");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (String name : List.of("Mystery", "The Mystery Readers", "Cozy Mystery Nights", "Mistery Club", "Poetry")) {
+            jdbcTemplate.update(
+                    "INSERT INTO book_club (id, name, image_file_name, description, publicity, created) "
+                            + "VALUES (?, ?, 'default.jpg', 'Trigram search', 'PUBLIC', ?)",
+                    UUID.randomUUID(),
+                    name,
+                    LocalDateTime.now());
+        }
+    }
+
+    @Test
+    void testSearch() {
+        List<String> result = search(BookClubRepo.TRIGRAM_SEARCH, 100);
+
+        // Substring and fuzzy matches, most similar first
+        assertThat(result).hasSize(4).startsWith("Mystery").contains("Mistery Club");
+        assertThat(count(100)).isEqualTo(4L);
+    }
+
+    @Test
+    void testSearch_CandidatesCapped() {
+        // The prefix match is kept ahead of the others, and the rest are cut the same way every time
+        assertThat(search(BookClubRepo.TRIGRAM_SEARCH, 1)).containsExactly("Mystery");
+        assertThat(search(BookClubRepo.TRIGRAM_SEARCH, 2)).containsExactly("Mystery", "Cozy Mystery Nights");
+        assertThat(count(2)).isEqualTo(2L);
+    }
+
+    private List<String> search(String query, int maxCandidates) {
+        return namedParameterJdbcTemplate.queryForList(forDatabase(query), params(maxCandidates)).stream()
+                .map(row -> (String) row.entrySet().stream()
+                        .filter(column -> column.getKey().equalsIgnoreCase("name"))
+                        .findFirst()
+                        .orElseThrow()
+                        .getValue())
+                .toList();
+    }
+
+    private Long count(int maxCandidates) {
+        return namedParameterJdbcTemplate.queryForObject(
+                forDatabase(BookClubRepo.TRIGRAM_SEARCH_COUNT), params(maxCandidates), Long.class);
+    }
+
+    private String forDatabase(String query) {
+        assertThat(query).contains(FUZZY_MATCH);
+        return isPostgres(jdbcTemplate) ? query : query.replace(FUZZY_MATCH, "trgm_match(lower(bc.name), :searchTerm)");
+    }
+
+    private static Map<String, Object> params(int maxCandidates) {
+        return Map.of(
+                "searchTerm",
+                "mystery",
+                "prefixPattern",
+                "mystery%",
+                "containsPattern",
+                "%mystery%",
+                "maxCandidates",
+                maxCandidates);
+    }
+
+    private static boolean isPostgres(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>)
+                connection -> connection.getMetaData().getDatabaseProductName().equals("PostgreSQL"));
+    }
+
+    /** Rough H2 stand-ins for pg_trgm: similarity over padded trigrams, and its default 0.3 match threshold */
+    public static class TrigramFunctions {
+        public static double similarity(String a, String b) {
+            Set<String> trigramsA = trigrams(a);
+            Set<String> trigramsB = trigrams(b);
+            Set<String> shared = new HashSet<>(trigramsA);
+            shared.retainAll(trigramsB);
+            return (double) shared.size() / (trigramsA.size() + trigramsB.size() - shared.size());
+        }
+
+        public static boolean match(String a, String b) {
+            return similarity(a, b) >= 0.3;
+        }
+
+        private static Set<String> trigrams(String s) {
+            Set<String> trigrams = new HashSet<>();
+            for (String word : s.split("\\W+")) {
+                String padded = "  " + word + " ";
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    trigrams.add(padded.substring(i, i + 3));
+                }
+            }
+            return trigrams;
+        }
+    }
+}
@@ -27,6 +27,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.ResponseCookie;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
@@ -93,19 +95,7 @@ class AuthServiceTest {
                         .password("password")
                         .build()));
 
-        when(userRepo.findById(any(UUID.class)))
-                .thenReturn(Optional.of(User.builder()
-                        .id(tstUUID)
-                        .username("user")
-                        .email("foo@bar.foo")
-                        .givenName("Foo")
-                        .surname("Bar")
-                        .joined(LocalDateTime.now())
-                        .role(Role.USER)
-                        .password("password")
-                        .build()));
-
-        when(jwtService.createRefreshToken(any(UUID.class)))
+        when(jwtService.replaceRefreshToken(any(User.class)))
                 .thenReturn(RefreshToken.builder().token("foobar").build());
 
         when(jwtService.generateJwtCookie(any(User.class)))
@@ -117,6 +107,34 @@ class AuthServiceTest {
                 .build());
 
         verify(jwtService, times(1)).generateJwtCookie(any(User.class));
+        verify(jwtService, times(1)).replaceRefreshToken(any(User.class));
+        verify(jwtService, never()).deleteByUserID(any(UUID.class));
+    }
+
+    @Test
+    void testAuthenticate_ReusesPrincipal() {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .username("user")
+                .role(Role.USER)
+                .password("password")
+                .build();
+        when(authManager.authenticate(any(Authentication.class)))
+                .thenReturn(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(jwtService.replaceRefreshToken(any(User.class)))
+                .thenReturn(RefreshToken.builder().token("foobar").build());
+        when(jwtService.generateJwtCookie(any(User.class)))
+                .thenReturn(ResponseCookie.from("foo", "bar").build());
+
+        AuthDTO result = authService.authenticate(AuthRequest.builder()
+                .usernameOrEmail("user")
+                .password("password")
+                .build());
+
+        verify(userRepo, never()).findByUsernameOrEmail(anyString(), anyString());
+        verify(jwtService, times(1)).generateJwtCookie(user);
+        verify(jwtService, times(1)).replaceRefreshToken(user);
+        assertThat(result.getUser().getUsername()).isEqualTo("user");
     }
 
     @Test
@@ -137,6 +155,7 @@ class AuthServiceTest {
 
         AuthDTO result = authService.logout(new MockHttpServletRequest());
 
+        verify(jwtService, times(1)).invalidateToken(any());
         verify(jwtService, times(1)).deleteRefreshToken(any(HttpServletRequest.class));
         verify(jwtService, times(2)).generateCookie(anyString(), anyString(), anyString());
         assertThat(result.getToken()).isNotNull();
@@ -0,0 +1,139 @@
+package com.bahubba.bahubbabookclub.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.bahubba.bahubbabookclub.model.dto.CappedPage;
+import com.bahubba.bahubbabookclub.model.entity.BookClub;
+import com.bahubba.bahubbabookclub.model.enums.Publicity;
+import com.bahubba.bahubbabookclub.repository.BookClubRepo;
+import com.bahubba.bahubbabookclub.service.impl.LikeBookClubSearchEngine;
+import com.bahubba.bahubbabookclub.service.impl.TrigramBookClubSearchEngine;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Tests for the {@link BookClubSearchEngine}s, the LIKE engine running against H2 */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BookClubSearchEngineTest {
+
+    @Autowired
+    BookClubSearchEngine bookClubSearchEngine;
+
+    @Autowired
+    BookClubRepo bookClubRepo;
+
+    @BeforeEach
+    void setUp() {
+        bookClubRepo.saveAll(List.of(
+                bookClub("The Mystery Readers", Publicity.PUBLIC),
+                bookClub("Mystery", Publicity.OBSERVABLE),
+                bookClub("Cozy Mystery Nights", Publicity.PUBLIC),
+                bookClub("Secret Mystery Society", Publicity.PRIVATE),
+                bookClub("100% Fiction", Publicity.PUBLIC),
+                bookClub("1000 Fictions", Publicity.PUBLIC)));
+    }
+
+    @Test
+    void testSearch_Like() {
+        assertThat(bookClubSearchEngine).isInstanceOf(LikeBookClubSearchEngine.class);
+
+        Page<BookClub> result = bookClubSearchEngine.search("MYSTERY", PageRequest.of(0, 10));
+
+        // Prefix matches first, then shortest first; private clubs never show up
+        assertThat(result.getTotalElements()).isEqualTo(3L);
+        assertThat(result.map(BookClub::getName).getContent())
+                .containsExactly("Mystery", "Cozy Mystery Nights", "The Mystery Readers");
+    }
+
+    @Test
+    void testSearch_LikeWildcardsMatchedLiterally() {
+        Page<BookClub> result = bookClubSearchEngine.search("100%", PageRequest.of(0, 10));
+
+        assertThat(result.map(BookClub::getName).getContent()).containsExactly("100% Fiction");
+    }
+
+    @Test
+    void testSearch_Trigram() {
+        BookClubRepo mockBookClubRepo = mock(BookClubRepo.class);
+        when(mockBookClubRepo.searchByNameTrigram(
+                        "50%_off", "50\\%\\_off%", "%50\\%\\_off%", 1_001, PageRequest.of(1, 5)))
+                .thenReturn(Page.empty());
+        TrigramBookClubSearchEngine trigramSearchEngine =
+                new TrigramBookClubSearchEngine(mockBookClubRepo, trigramInstalled(true));
+
+        Page<BookClub> result = trigramSearchEngine.search("50%_Off", PageRequest.of(1, 5));
+
+        assertThat(result).isEmpty();
+        assertThat(result).isInstanceOfSatisfying(CappedPage.class, page -> assertThat(page.isTotalCapped())
+                .isFalse());
+        verify(mockBookClubRepo, times(1))
+                .searchByNameTrigram("50%_off", "50\\%\\_off%", "%50\\%\\_off%", 1_001, PageRequest.of(1, 5));
+    }
+
+    @Test
+    void testSearch_TrigramCapped() {
+        BookClubRepo mockBookClubRepo = mock(BookClubRepo.class);
+        List<BookClub> lastCandidates =
+                List.of(bookClub("Mystery 1000", Publicity.PUBLIC), bookClub("Mystery 1001", Publicity.PUBLIC));
+        when(mockBookClubRepo.searchByNameTrigram(
+                        "mystery", "mystery%", "%mystery%", 1_001, PageRequest.of(333, 3)))
+                .thenReturn(new PageImpl<>(lastCandidates, PageRequest.of(333, 3), 1_001));
+        TrigramBookClubSearchEngine trigramSearchEngine =
+                new TrigramBookClubSearchEngine(mockBookClubRepo, trigramInstalled(true));
+
+        Page<BookClub> result = trigramSearchEngine.search("mystery", PageRequest.of(333, 3));
+
+        // The candidate past the cap is only there to tell that the cap was hit
+        assertThat(result.getTotalElements()).isEqualTo(1_000L);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.map(BookClub::getName).getContent()).containsExactly("Mystery 1000");
+        assertThat(result).isInstanceOfSatisfying(CappedPage.class, page -> assertThat(page.isTotalCapped())
+                .isTrue());
+    }
+
+    @Test
+    void testSearch_TrigramNotInstalled() {
+        BookClubRepo mockBookClubRepo = mock(BookClubRepo.class);
+        when(mockBookClubRepo.searchByNameLike(any(), anyString(), anyString(), any(Pageable.class)))
+                .thenReturn(Page.empty());
+        TrigramBookClubSearchEngine trigramSearchEngine =
+                new TrigramBookClubSearchEngine(mockBookClubRepo, trigramInstalled(false));
+
+        trigramSearchEngine.search("mystery", PageRequest.of(0, 5));
+
+        verify(mockBookClubRepo, times(1))
+                .searchByNameLike(Publicity.PRIVATE, "mystery%", "%mystery%", PageRequest.of(0, 5));
+        verify(mockBookClubRepo, never())
+                .searchByNameTrigram(anyString(), anyString(), anyString(), anyInt(), any(Pageable.class));
+    }
+
+    private static JdbcTemplate trigramInstalled(boolean installed) {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class))).thenReturn(installed);
+        return jdbcTemplate;
+    }
+
+    private static BookClub bookClub(String name, Publicity publicity) {
+        return BookClub.builder()
+                .name(name)
+                .imageFileName("default.jpg")
+                .publicity(publicity)
+                .build();
+    }
+}
@@ -7,43 +7,72 @@ import static org.mockito.Mockito.*;
 
 import com.bahubba.bahubbabookclub.exception.*;
 import com.bahubba.bahubbabookclub.model.dto.BookClubDTO;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
 import com.bahubba.bahubbabookclub.model.dto.S3ImageDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
 import com.bahubba.bahubbabookclub.model.entity.BookClub;
 import com.bahubba.bahubbabookclub.model.entity.BookClubMembership;
 import com.bahubba.bahubbabookclub.model.entity.Notification;
 import com.bahubba.bahubbabookclub.model.entity.User;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.enums.Publicity;
 import com.bahubba.bahubbabookclub.model.payload.BookClubPayload;
 import com.bahubba.bahubbabookclub.repository.BookClubMembershipRepo;
 import com.bahubba.bahubbabookclub.repository.BookClubRepo;
 import com.bahubba.bahubbabookclub.repository.NotificationRepo;
+import com.bahubba.bahubbabookclub.repository.UserRepo;
+import com.bahubba.bahubbabookclub.util.APIConstants;
+import com.bahubba.bahubbabookclub.util.CursorUtil;
 import com.bahubba.bahubbabookclub.util.SecurityUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
-import software.amazon.awssdk.services.s3.model.S3Object;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 /** Unit tests for the {@link BookClubService} business logic */
 @SpringBootTest
 @ActiveProfiles("test")
 class BookClubServiceTest {
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 'i', 'm', 'a', 'g', 'e'};
+    private static final byte[] JPEG = {(byte) 0xff, (byte) 0xd8, (byte) 0xff, (byte) 0xe0, 'i', 'm', 'a', 'g', 'e'};
+
     @Autowired
     BookClubService bookClubService;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @MockBean
     S3Service s3Service;
 
+    @MockBean
+    StockImageCatalog stockImageCatalog;
+
+    @MockBean
+    BookClubSuggestionIndex bookClubSuggestionIndex;
+
+    @MockBean
+    ImageVariantService imageVariantService;
+
     @MockBean
     BookClubRepo bookClubRepo;
 
@@ -53,6 +82,12 @@ class BookClubServiceTest {
     @MockBean
     NotificationRepo notificationRepo;
 
+    @MockBean
+    UserRepo userRepo;
+
+    @MockBean
+    RowCountEstimator rowCountEstimator;
+
     @BeforeEach
     void setUp() {
         when(s3Service.getPreSignedURL(anyString())).thenReturn("https://test.com");
@@ -75,6 +110,30 @@ class BookClubServiceTest {
         securityUtilMockedStatic.close();
     }
 
+    @Test
+    void testCreate_StatelessPrincipal() {
+        UUID userID = UUID.randomUUID();
+        User userRef = User.builder().id(userID).build();
+
+        // The principal is only partially populated, so it's associated by reference instead
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(userID).username("user").build());
+
+        when(bookClubRepo.save(any(BookClub.class))).thenReturn(new BookClub());
+        when(userRepo.getReferenceById(userID)).thenReturn(userRef);
+
+        bookClubService.create(BookClubPayload.builder().name("Test").build());
+
+        verify(bookClubMembershipRepo, times(1)).save(argThat(membership -> membership.getUser() == userRef));
+        verify(notificationRepo, times(1))
+                .save(argThat(notification ->
+                        notification.getSourceUser() == userRef && notification.getTargetUser() == userRef));
+
+        securityUtilMockedStatic.close();
+    }
+
     @Test
     void testCreate_ReservedName() {
         MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
@@ -146,9 +205,147 @@ class BookClubServiceTest {
         securityUtilMockedStatic.close();
     }
 
+    @Test
+    void testUploadImage() {
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(UUID.randomUUID()).build());
+        when(bookClubRepo.findByIdAndUserIsAdmin(any(UUID.class), any(UUID.class)))
+                .thenReturn(Optional.of(new BookClub()));
+        when(s3Service.objectExists(anyString())).thenReturn(false);
+        ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<InputStream> contentCaptor = ArgumentCaptor.forClass(InputStream.class);
+        UUID id = UUID.randomUUID();
+
+        BookClubDTO result =
+                bookClubService.uploadImage(id, new MockMultipartFile("image", "club.png", "image/png", PNG));
+
+        verify(s3Service, times(1))
+                .putObject(keyCaptor.capture(), contentCaptor.capture(), eq((long) PNG.length), eq("image/png"));
+        assertThat(keyCaptor.getValue()).matches("book-clubs/images/custom/[0-9a-f]{64}\\.png");
+        assertThat(contentCaptor.getValue()).isNotNull();
+        String fileName = keyCaptor.getValue().substring(APIConstants.BOOK_CLUB_IMAGE_PREFIX.length());
+        verify(bookClubRepo, times(1)).updateImageFileName(id, fileName);
+        assertThat(result.getImage().getFileName()).isEqualTo(fileName);
+        assertThat(result.getImage().getUrl()).contains("/api/v1/images/book-clubs/custom/");
+        assertThat(result.getImage().getThumbnails()).containsKeys(64, 256);
+        verify(imageVariantService, times(1)).generateVariants(fileName);
+        securityUtilMockedStatic.close();
+    }
+
+    @Test
+    void testUploadImage_DeclaredTypeIgnored() {
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(UUID.randomUUID()).build());
+        when(bookClubRepo.findByIdAndUserIsAdmin(any(UUID.class), any(UUID.class)))
+                .thenReturn(Optional.of(new BookClub()));
+        when(s3Service.objectExists(anyString())).thenReturn(false);
+
+        // A PNG declared as a JPEG is stored as the PNG it is
+        bookClubService.uploadImage(UUID.randomUUID(), new MockMultipartFile("image", "club.jpg", "image/jpeg", PNG));
+
+        verify(s3Service, times(1))
+                .putObject(matches(".*\\.png"), any(InputStream.class), anyLong(), eq("image/png"));
+        securityUtilMockedStatic.close();
+    }
+
+    @Test
+    void testUploadImage_NotAnImage() {
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(UUID.randomUUID()).build());
+        when(bookClubRepo.findByIdAndUserIsAdmin(any(UUID.class), any(UUID.class)))
+                .thenReturn(Optional.of(new BookClub()));
+
+        assertThrows(
+                BadBookClubActionException.class,
+                () -> bookClubService.uploadImage(
+                        UUID.randomUUID(),
+                        new MockMultipartFile(
+                                "image", "club.png", "image/png", "<html/>".getBytes(StandardCharsets.UTF_8))));
+
+        verify(s3Service, never()).putObject(anyString(), any(InputStream.class), anyLong(), anyString());
+        securityUtilMockedStatic.close();
+    }
+
+    @Test
+    void testIsBookClubImage() {
+        when(bookClubRepo.existsByImageFileName("custom/used.png")).thenReturn(true);
+
+        assertThat(bookClubService.isBookClubImage("custom/used.png")).isTrue();
+        assertThat(bookClubService.isBookClubImage("custom/used.png")).isTrue();
+        assertThat(bookClubService.isBookClubImage("custom/unused.png")).isFalse();
+
+        // Images in use are remembered, ones that aren't are checked again
+        verify(bookClubRepo, times(1)).existsByImageFileName("custom/used.png");
+        verify(bookClubRepo, times(1)).existsByImageFileName("custom/unused.png");
+    }
+
+    @Test
+    void testUploadImage_Duplicate() {
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(UUID.randomUUID()).build());
+        when(bookClubRepo.findByIdAndUserIsAdmin(any(UUID.class), any(UUID.class)))
+                .thenReturn(Optional.of(new BookClub()));
+        when(s3Service.objectExists(anyString())).thenReturn(true);
+
+        bookClubService.uploadImage(UUID.randomUUID(), new MockMultipartFile("image", "club.jpg", "image/jpeg", JPEG));
+
+        verify(s3Service, never()).putObject(anyString(), any(InputStream.class), anyLong(), anyString());
+        verify(bookClubRepo, times(1)).updateImageFileName(any(UUID.class), anyString());
+        securityUtilMockedStatic.close();
+    }
+
+    @Test
+    void testUploadImage_UnsupportedType() {
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(UUID.randomUUID()).build());
+        when(bookClubRepo.findByIdAndUserIsAdmin(any(UUID.class), any(UUID.class)))
+                .thenReturn(Optional.of(new BookClub()));
+
+        assertThrows(
+                BadBookClubActionException.class,
+                () -> bookClubService.uploadImage(
+                        UUID.randomUUID(),
+                        new MockMultipartFile(
+                                "image", "club.svg", "image/svg+xml", "<svg/>".getBytes(StandardCharsets.UTF_8))));
+
+        verify(s3Service, never()).putObject(anyString(), any(InputStream.class), anyLong(), anyString());
+        verify(bookClubRepo, never()).updateImageFileName(any(UUID.class), anyString());
+        securityUtilMockedStatic.close();
+    }
+
+    @Test
+    void testUploadImage_NotFound() {
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(UUID.randomUUID()).build());
+        when(bookClubRepo.findByIdAndUserIsAdmin(any(UUID.class), any(UUID.class)))
+                .thenReturn(Optional.empty());
+
+        assertThrows(
+                BookClubNotFoundException.class,
+                () -> bookClubService.uploadImage(
+                        UUID.randomUUID(),
+                        new MockMultipartFile("image", "club.png", "image/png", PNG)));
+
+        verify(s3Service, never()).objectExists(anyString());
+        verify(bookClubRepo, never()).updateImageFileName(any(UUID.class), anyString());
+        securityUtilMockedStatic.close();
+    }
+
     @Test
     void testFindByID() {
-        // imageUploaded set here to add coverage for BookClubAspect
+        // imageUploaded set here to add coverage for BookClubImageMapper
         when(bookClubRepo.findById(any(UUID.class)))
                 .thenReturn(Optional.of(
                         BookClub.builder().publicity(Publicity.PUBLIC).build()));
@@ -223,7 +420,7 @@ class BookClubServiceTest {
         securityUtilMockedStatic
                 .when(SecurityUtil::getCurrentUserDetails)
                 .thenReturn(User.builder().id(UUID.randomUUID()).build());
-        // Book clubs filled in here to add coverage for BookClubAspect
+        // Book clubs filled in here to add coverage for BookClubImageMapper
         when(bookClubRepo.findAllForUser(any(UUID.class), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of(
                         BookClub.builder().build(),
@@ -267,6 +464,112 @@ class BookClubServiceTest {
         securityUtilMockedStatic.close();
     }
 
+    @Test
+    void testFindAllForUser_Slice() {
+        UUID userID = UUID.randomUUID();
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(userID).build());
+        when(bookClubRepo.findSliceForUser(eq(userID), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+        when(rowCountEstimator.estimate(anyString(), any())).thenReturn(3L);
+
+        SliceDTO<BookClubDTO> result = bookClubService.findAllForUser(0, 10, PageTotals.ESTIMATED);
+
+        verify(bookClubRepo, times(1)).findSliceForUser(userID, PageRequest.of(0, 10));
+        verify(rowCountEstimator, times(1)).estimate(eq("book_club_users:user:" + userID), any());
+        assertThat(result.getEstimatedTotal()).isEqualTo(3L);
+        securityUtilMockedStatic.close();
+    }
+
+    @Test
+    void testFindAll_Slice() {
+        when(bookClubRepo.findAllBy(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(BookClub.builder().name("A").build()), PageRequest.of(2, 1), true));
+
+        SliceDTO<BookClubDTO> result = bookClubService.findAll(2, 100, PageTotals.NONE);
+
+        // The page size is capped, and nothing is counted unless an estimate is asked for
+        verify(bookClubRepo, times(1)).findAllBy(PageRequest.of(2, APIConstants.MAX_PAGE_SIZE));
+        verify(bookClubRepo, never()).count();
+        verifyNoInteractions(rowCountEstimator);
+        assertThat(result.getContent()).extracting(BookClubDTO::getName).containsExactly("A");
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(result.getEstimatedTotal()).isNull();
+    }
+
+    @Test
+    void testFindAll_SliceEstimated() {
+        when(bookClubRepo.findAllBy(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+        when(rowCountEstimator.estimateTable(eq("book_club"), any())).thenReturn(1000L);
+
+        SliceDTO<BookClubDTO> result = bookClubService.findAll(0, 10, PageTotals.ESTIMATED);
+
+        assertThat(result.getEstimatedTotal()).isEqualTo(1000L);
+        assertThat(result.isHasNext()).isFalse();
+    }
+
+    @Test
+    void testFindAllForUser_Cursor() {
+        UUID userID = UUID.randomUUID();
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(userID).build());
+        when(bookClubRepo.findFirstPageForUser(eq(userID), any(Pageable.class))).thenReturn(List.of());
+
+        CursorPageDTO<BookClubDTO> result = bookClubService.findAllForUser("", 10);
+
+        verify(bookClubRepo, times(1)).findFirstPageForUser(eq(userID), any(Pageable.class));
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
+        securityUtilMockedStatic.close();
+    }
+
+    @Test
+    void testFindAllForUser_CursorNoUser() {
+        assertThrows(UserNotFoundException.class, () -> bookClubService.findAllForUser("", 10));
+    }
+
+    @Test
+    void testFindAll_Cursor() {
+        List<BookClub> bookClubs = List.of(
+                BookClub.builder().id(UUID.randomUUID()).name("A").build(),
+                BookClub.builder().id(UUID.randomUUID()).name("B").build(),
+                BookClub.builder().id(UUID.randomUUID()).name("C").build());
+        when(bookClubRepo.findFirstPage(any(Pageable.class))).thenReturn(bookClubs);
+
+        CursorPageDTO<BookClubDTO> result = bookClubService.findAll(null, 2);
+
+        // Fetches one extra row to know there's a next page, without counting
+        verify(bookClubRepo, times(1)).findFirstPage(Pageable.ofSize(3));
+        verify(bookClubRepo, never()).count();
+        assertThat(result.getContent()).extracting(BookClubDTO::getName).containsExactly("A", "B");
+        assertThat(CursorUtil.decode(result.getNextCursor()))
+                .isEqualTo(new CursorUtil.Cursor(
+                        bookClubs.get(1).getCreated(), bookClubs.get(1).getId()));
+    }
+
+    @Test
+    void testFindAll_CursorAfter() {
+        LocalDateTime created = LocalDateTime.now();
+        UUID id = UUID.randomUUID();
+        when(bookClubRepo.findPageAfter(eq(created), eq(id), any(Pageable.class)))
+                .thenReturn(List.of(BookClub.builder().name("D").build()));
+
+        CursorPageDTO<BookClubDTO> result = bookClubService.findAll(CursorUtil.encode(created, id), 2);
+
+        verify(bookClubRepo, times(1)).findPageAfter(eq(created), eq(id), any(Pageable.class));
+        assertThat(result.getSize()).isEqualTo(1);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void testFindAll_InvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> bookClubService.findAll("bogus", 10));
+        verifyNoInteractions(bookClubRepo);
+    }
+
     @Test
     void testFindAll() {
         when(bookClubRepo.findAll(any(Pageable.class))).thenReturn(Page.empty());
@@ -275,6 +578,27 @@ class BookClubServiceTest {
         assertThat(result).isNotNull();
     }
 
+    @Test
+    void testFindAll_ImagesSharedAcrossPage() {
+        when(bookClubRepo.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(
+                        BookClub.builder().imageFileName("one.jpg").build(),
+                        BookClub.builder().imageFileName("one.jpg").build(),
+                        BookClub.builder().build())));
+        long enrichedRequests =
+                meterRegistry.get("book-clubs.page.enrichment").timer().count();
+
+        List<BookClubDTO> result = bookClubService.findAll(1, 3).getContent();
+        ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).requestCompleted();
+
+        assertThat(result.get(0).getImage().getUrl()).endsWith("/api/v1/images/book-clubs/one.jpg");
+        assertThat(result.get(1).getImage()).isSameAs(result.get(0).getImage());
+        assertThat(result.get(2).getImage().getUrl()).isNull();
+        // The whole page's image resolution is recorded once, as the request completes
+        assertThat(meterRegistry.get("book-clubs.page.enrichment").timer().count())
+                .isEqualTo(enrichedRequests + 1);
+    }
+
     @Test
     void testFindAll_NegativePageSize() {
         when(bookClubRepo.findAll(any(Pageable.class))).thenReturn(Page.empty());
@@ -449,37 +773,44 @@ class BookClubServiceTest {
 
     @Test
     void testSearch() {
-        when(bookClubRepo.findAllByPublicityNotAndNameContainsIgnoreCase(
-                        any(Publicity.class), anyString(), any(Pageable.class)))
+        when(bookClubRepo.searchByNameLike(any(Publicity.class), anyString(), anyString(), any(Pageable.class)))
                 .thenReturn(Page.empty());
 
         Page<BookClubDTO> result = bookClubService.search("foo", 1, 1);
 
         verify(bookClubRepo, times(1))
-                .findAllByPublicityNotAndNameContainsIgnoreCase(any(Publicity.class), anyString(), any(Pageable.class));
+                .searchByNameLike(any(Publicity.class), anyString(), anyString(), any(Pageable.class));
         assertThat(result).isNotNull();
     }
 
     @Test
     void testSearch_NegativePageSize() {
-        when(bookClubRepo.findAllByPublicityNotAndNameContainsIgnoreCase(
-                        any(Publicity.class), anyString(), any(Pageable.class)))
+        when(bookClubRepo.searchByNameLike(any(Publicity.class), anyString(), anyString(), any(Pageable.class)))
                 .thenReturn(Page.empty());
 
         assertThrows(PageSizeTooSmallException.class, () -> bookClubService.search("foo", 1, -1));
         verify(bookClubRepo, times(1))
-                .findAllByPublicityNotAndNameContainsIgnoreCase(any(Publicity.class), anyString(), any(Pageable.class));
+                .searchByNameLike(any(Publicity.class), anyString(), anyString(), any(Pageable.class));
     }
 
     @Test
     void testSearch_TooLargePageSize() {
-        when(bookClubRepo.findAllByPublicityNotAndNameContainsIgnoreCase(
-                        any(Publicity.class), anyString(), any(Pageable.class)))
+        when(bookClubRepo.searchByNameLike(any(Publicity.class), anyString(), anyString(), any(Pageable.class)))
                 .thenReturn(Page.empty());
 
         assertThrows(PageSizeTooLargeException.class, () -> bookClubService.search("foo", 1, 51));
         verify(bookClubRepo, times(1))
-                .findAllByPublicityNotAndNameContainsIgnoreCase(any(Publicity.class), anyString(), any(Pageable.class));
+                .searchByNameLike(any(Publicity.class), anyString(), anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void testSuggest_LimitCapped() {
+        when(bookClubSuggestionIndex.suggest("my", 20)).thenReturn(List.of("Mystery"));
+
+        List<String> result = bookClubService.suggest("my", 100);
+
+        verify(bookClubSuggestionIndex, times(1)).suggest("my", 20);
+        assertThat(result).containsExactly("Mystery");
     }
 
     @Test
@@ -514,14 +845,16 @@ class BookClubServiceTest {
 
     @Test
     void testGetPreSignedStockBookClubImageURLs() {
-        when(s3Service.listS3ObjectsAtPrefix(anyString()))
-                .thenReturn(List.of(
-                        S3Object.builder().key("test").size(1L).build(),
-                        S3Object.builder().key("test2").size(0L).build()));
+        when(stockImageCatalog.getStockImages())
+                .thenReturn(List.of(S3ImageDTO.builder()
+                        .fileName("test")
+                        .url("https://test.com")
+                        .build()));
 
         List<S3ImageDTO> result = bookClubService.getStockBookClubImages();
 
-        verify(s3Service, times(1)).listS3ObjectsAtPrefix(anyString());
+        verify(stockImageCatalog, times(1)).getStockImages();
+        verify(s3Service, never()).listS3ObjectsAtPrefix(anyString());
         assertThat(result).isNotNull();
         assertThat(result.size()).isEqualTo(1);
     }
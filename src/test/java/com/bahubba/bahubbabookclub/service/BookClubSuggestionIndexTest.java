@@ -0,0 +1,129 @@
+package com.bahubba.bahubbabookclub.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.bahubba.bahubbabookclub.model.entity.BookClub;
+import com.bahubba.bahubbabookclub.model.enums.Publicity;
+import com.bahubba.bahubbabookclub.repository.BookClubRepo;
+import com.bahubba.bahubbabookclub.service.impl.InMemoryBookClubSuggestionIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the {@link InMemoryBookClubSuggestionIndex} */
+class BookClubSuggestionIndexTest {
+
+    private static final UUID MYSTERY_READERS_ID = UUID.randomUUID();
+    private static final UUID MYSTERY_ID = UUID.randomUUID();
+    private static final UUID MYSTERIES_ID = UUID.randomUUID();
+    private static final UUID SCI_FI_ID = UUID.randomUUID();
+
+    private BookClubRepo bookClubRepo;
+    private SimpleMeterRegistry meterRegistry;
+    private InMemoryBookClubSuggestionIndex suggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookClubRepo = mock(BookClubRepo.class);
+        when(bookClubRepo.findAllSearchableNames(Publicity.PRIVATE)).thenReturn(searchableNames());
+        meterRegistry = new SimpleMeterRegistry();
+        suggestionIndex = new InMemoryBookClubSuggestionIndex(bookClubRepo, meterRegistry);
+        suggestionIndex.rebuild();
+    }
+
+    @Test
+    void testSuggest() {
+        // Whole-name prefix matches first, then names with a later word matching
+        assertThat(suggestionIndex.suggest("MYST", 10))
+                .containsExactly("Mysteries & Thrillers", "Mystery", "The Mystery Readers");
+        assertThat(suggestionIndex.suggest("  club", 10)).containsExactly("Sci-Fi Club");
+        assertThat(suggestionIndex.suggest("myst", 2)).containsExactly("Mysteries & Thrillers", "Mystery");
+        assertThat(suggestionIndex.suggest("horror", 10)).isEmpty();
+        assertThat(suggestionIndex.suggest(" ", 10)).isEmpty();
+        assertThat(meterRegistry.get("book-clubs.suggestions.indexed").gauge().value())
+                .isEqualTo(4.0);
+    }
+
+    @Test
+    void testUpdate_Created() {
+        suggestionIndex.update(bookClub(UUID.randomUUID(), "Cozy Mysteries", Publicity.PUBLIC));
+
+        assertThat(suggestionIndex.suggest("cozy", 10)).containsExactly("Cozy Mysteries");
+        assertThat(suggestionIndex.suggest("mysteries", 10)).containsExactly("Mysteries & Thrillers", "Cozy Mysteries");
+    }
+
+    @Test
+    void testUpdate_Renamed() {
+        suggestionIndex.update(bookClub(SCI_FI_ID, "Space Opera Club", Publicity.OBSERVABLE));
+
+        assertThat(suggestionIndex.suggest("sci", 10)).isEmpty();
+        assertThat(suggestionIndex.suggest("club", 10)).containsExactly("Space Opera Club");
+    }
+
+    @Test
+    void testUpdate_MadePrivate() {
+        suggestionIndex.update(bookClub(MYSTERY_ID, "Mystery", Publicity.PRIVATE));
+
+        assertThat(suggestionIndex.suggest("mystery", 10)).containsExactly("The Mystery Readers");
+    }
+
+    @Test
+    void testUpdate_Disbanded() {
+        BookClub bookClub = bookClub(SCI_FI_ID, "Sci-Fi Club", Publicity.PUBLIC);
+        bookClub.setDisbanded(LocalDateTime.now());
+
+        suggestionIndex.update(bookClub);
+
+        assertThat(suggestionIndex.suggest("sci", 10)).isEmpty();
+    }
+
+    @Test
+    void testRebuild_UpdatesDuringRebuildKept() {
+        // Clubs created and renamed after the rebuild's read, but before its swap
+        when(bookClubRepo.findAllSearchableNames(Publicity.PRIVATE)).thenAnswer(invocation -> {
+            List<BookClubRepo.SearchableName> names = searchableNames();
+            suggestionIndex.update(bookClub(UUID.randomUUID(), "Cozy Mysteries", Publicity.PUBLIC));
+            suggestionIndex.update(bookClub(SCI_FI_ID, "Space Opera Club", Publicity.OBSERVABLE));
+            return names;
+        });
+
+        suggestionIndex.rebuild();
+
+        assertThat(suggestionIndex.suggest("cozy", 10)).containsExactly("Cozy Mysteries");
+        assertThat(suggestionIndex.suggest("sci", 10)).isEmpty();
+        assertThat(suggestionIndex.suggest("club", 10)).containsExactly("Space Opera Club");
+        assertThat(meterRegistry.get("book-clubs.suggestions.indexed").gauge().value())
+                .isEqualTo(5.0);
+    }
+
+    private static List<BookClubRepo.SearchableName> searchableNames() {
+        return List.of(
+                searchableName(MYSTERY_READERS_ID, "The Mystery Readers"),
+                searchableName(MYSTERY_ID, "Mystery"),
+                searchableName(MYSTERIES_ID, "Mysteries & Thrillers"),
+                searchableName(SCI_FI_ID, "Sci-Fi Club"));
+    }
+
+    private static BookClubRepo.SearchableName searchableName(UUID id, String name) {
+        return new BookClubRepo.SearchableName() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    private static BookClub bookClub(UUID id, String name, Publicity publicity) {
+        return BookClub.builder().id(id).name(name).publicity(publicity).build();
+    }
+}
@@ -0,0 +1,179 @@
+package com.bahubba.bahubbabookclub.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.bahubba.bahubbabookclub.exception.ServiceUnavailableException;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Unit tests for the {@link ImageVariantService} */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImageVariantServiceTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000L;
+
+    @Autowired
+    ImageVariantService imageVariantService;
+
+    @MockBean
+    S3Service s3Service;
+
+    @Test
+    void testGenerateVariants() {
+        Map<String, BufferedImage> uploaded = mockUploads();
+        mockDownload("book-clubs/images/stock/wide.png", image(600, 300));
+
+        imageVariantService.generateVariants("wide.png");
+
+        awaitUploads(uploaded, 2);
+        BufferedImage small = uploaded.get("book-clubs/images/thumbnails/64/stock/wide.png.png");
+        BufferedImage large = uploaded.get("book-clubs/images/thumbnails/256/stock/wide.png.png");
+        assertThat(small.getWidth()).isEqualTo(64);
+        assertThat(small.getHeight()).isEqualTo(64);
+        assertThat(large.getWidth()).isEqualTo(256);
+        assertThat(large.getHeight()).isEqualTo(256);
+    }
+
+    @Test
+    void testGenerateVariants_Custom() throws InterruptedException {
+        Map<String, BufferedImage> uploaded = mockUploads();
+        mockDownload("book-clubs/images/custom/abc.png", image(100, 100));
+
+        imageVariantService.generateVariants("custom/abc.png");
+
+        awaitUploads(uploaded, 2);
+        assertThat(uploaded)
+                .containsKeys(
+                        "book-clubs/images/thumbnails/64/custom/abc.png.png",
+                        "book-clubs/images/thumbnails/256/custom/abc.png.png");
+        assertThat(awaitVariantKey("custom/abc.png", 64))
+                .isEqualTo("book-clubs/images/thumbnails/64/custom/abc.png.png");
+    }
+
+    @Test
+    void testGenerateVariants_AlreadyExists() throws InterruptedException {
+        when(s3Service.objectExists(anyString())).thenReturn(true);
+
+        assertThat(awaitVariantKey("existing.png", 64))
+                .isEqualTo("book-clubs/images/thumbnails/64/stock/existing.png.png");
+        imageVariantService.generateVariants("existing.png");
+
+        verify(s3Service, after(500L).never()).downloadObject(anyString(), any(Path.class));
+    }
+
+    @Test
+    void testGetVariantKey_ChecksInBackground() throws InterruptedException {
+        Set<String> checkingThreads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+                    checkingThreads.add(Thread.currentThread().getName());
+                    return true;
+                })
+                .when(s3Service)
+                .objectExists(anyString());
+
+        assertThat(imageVariantService.getVariantKey("elsewhere.png", 64)).isEmpty();
+
+        assertThat(awaitVariantKey("elsewhere.png", 64))
+                .isEqualTo("book-clubs/images/thumbnails/64/stock/elsewhere.png.png");
+        assertThat(checkingThreads).isNotEmpty().allMatch(name -> name.startsWith("image-variants-"));
+    }
+
+    @Test
+    void testGenerateVariants_Undecodable() {
+        mockUploads();
+        doAnswer(invocation -> Files.writeString(invocation.getArgument(1), "not an image"))
+                .when(s3Service)
+                .downloadObject(eq("book-clubs/images/stock/broken.webp"), any(Path.class));
+
+        imageVariantService.generateVariants("broken.webp");
+
+        verify(s3Service, timeout(TIMEOUT_MILLIS).times(1))
+                .downloadObject(eq("book-clubs/images/stock/broken.webp"), any(Path.class));
+        verify(s3Service, after(500L).never()).putObject(anyString(), any(InputStream.class), anyLong(), anyString());
+
+        // Not retried straight away
+        assertThat(imageVariantService.getVariantKey("broken.webp", 64)).isEmpty();
+        verify(s3Service, times(1)).downloadObject(eq("book-clubs/images/stock/broken.webp"), any(Path.class));
+    }
+
+    @Test
+    void testGetVariantKey_Missing() throws InterruptedException {
+        Map<String, BufferedImage> uploaded = mockUploads();
+        mockDownload("book-clubs/images/stock/new.png", image(300, 300));
+
+        assertThat(imageVariantService.getVariantKey("new.png", 256)).isEmpty();
+
+        awaitUploads(uploaded, 2);
+        assertThat(awaitVariantKey("new.png", 256)).isEqualTo("book-clubs/images/thumbnails/256/stock/new.png.png");
+    }
+
+    @Test
+    void testGetVariantKey_S3Unavailable() {
+        when(s3Service.objectExists(anyString())).thenThrow(new ServiceUnavailableException("s3", 30L));
+
+        assertThat(imageVariantService.getVariantKey("unavailable.png", 64)).isEmpty();
+        verify(s3Service, after(500L).never())
+                .downloadObject(eq("book-clubs/images/stock/unavailable.png"), any(Path.class));
+    }
+
+    private static void awaitUploads(Map<String, BufferedImage> uploaded, int count) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (uploaded.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(uploaded).hasSize(count);
+    }
+
+    private String awaitVariantKey(String fileName, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        Optional<String> key = imageVariantService.getVariantKey(fileName, size);
+        while (key.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+            key = imageVariantService.getVariantKey(fileName, size);
+        }
+        return key.orElseThrow();
+    }
+
+    private Map<String, BufferedImage> mockUploads() {
+        Map<String, BufferedImage> uploaded = new ConcurrentHashMap<>();
+        when(s3Service.objectExists(anyString())).thenReturn(false);
+        doAnswer(invocation -> {
+                    InputStream content = invocation.getArgument(1);
+                    uploaded.put(
+                            invocation.getArgument(0), ImageIO.read(new ByteArrayInputStream(content.readAllBytes())));
+                    return null;
+                })
+                .when(s3Service)
+                .putObject(anyString(), any(InputStream.class), anyLong(), anyString());
+        return uploaded;
+    }
+
+    private void mockDownload(String key, BufferedImage image) {
+        doAnswer(invocation -> ImageIO.write(image, "png", ((Path) invocation.getArgument(1)).toFile()))
+                .when(s3Service)
+                .downloadObject(eq(key), any(Path.class));
+    }
+
+    private static BufferedImage image(int width, int height) {
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+}
@@ -0,0 +1,210 @@
+package com.bahubba.bahubbabookclub.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.bahubba.bahubbabookclub.model.entity.RefreshToken;
+import com.bahubba.bahubbabookclub.model.entity.User;
+import com.bahubba.bahubbabookclub.repository.RefreshTokenRepo;
+import com.bahubba.bahubbabookclub.repository.UserRepo;
+import com.bahubba.bahubbabookclub.service.impl.InMemoryRefreshTokenStore;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Unit tests for the {@link InMemoryRefreshTokenStore} */
+@SpringBootTest(
+        properties = {
+            "app.properties.refresh_token_store.type=memory",
+            "app.properties.refresh_token_store.tick_millis=10"
+        })
+@ActiveProfiles("test")
+class InMemoryRefreshTokenStoreTest {
+
+    @Autowired
+    InMemoryRefreshTokenStore refreshTokenStore;
+
+    @MockBean
+    private RefreshTokenRepo refreshTokenRepo;
+
+    @MockBean
+    private UserRepo userRepo;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepo.getReferenceById(any(UUID.class)))
+                .thenAnswer(invocation -> User.builder().id(invocation.getArgument(0)).build());
+    }
+
+    @Test
+    void testSave_ServedFromMemory() {
+        RefreshToken refreshToken = refreshToken(Instant.now().plusSeconds(60));
+        when(refreshTokenRepo.save(any(RefreshToken.class))).thenReturn(refreshToken);
+
+        refreshTokenStore.save(refreshToken);
+        Optional<RefreshToken> result = refreshTokenStore.findByToken(refreshToken.getToken());
+
+        verify(refreshTokenRepo, times(1)).save(any(RefreshToken.class));
+        verify(refreshTokenRepo, never()).findByToken(anyString());
+        assertSameToken(result, refreshToken);
+    }
+
+    @Test
+    void testFindByToken_ReadThrough() {
+        RefreshToken refreshToken = refreshToken(Instant.now().plusSeconds(60));
+        when(refreshTokenRepo.findByToken(refreshToken.getToken())).thenReturn(Optional.of(refreshToken));
+
+        refreshTokenStore.findByToken(refreshToken.getToken());
+        Optional<RefreshToken> result = refreshTokenStore.findByToken(refreshToken.getToken());
+
+        verify(refreshTokenRepo, times(1)).findByToken(anyString());
+        assertSameToken(result, refreshToken);
+    }
+
+    @Test
+    void testFindByToken_NotFound() {
+        when(refreshTokenRepo.findByToken(anyString())).thenReturn(Optional.empty());
+
+        assertThat(refreshTokenStore.findByToken("missingtoken")).isEmpty();
+    }
+
+    @Test
+    void testDelete() {
+        RefreshToken refreshToken = refreshToken(Instant.now().plusSeconds(60));
+        when(refreshTokenRepo.save(any(RefreshToken.class))).thenReturn(refreshToken);
+        when(refreshTokenRepo.findByToken(anyString())).thenReturn(Optional.empty());
+
+        refreshTokenStore.save(refreshToken);
+        refreshTokenStore.delete(refreshToken);
+
+        verify(refreshTokenRepo, times(1)).deleteByToken(refreshToken.getToken());
+        assertThat(refreshTokenStore.findByToken(refreshToken.getToken())).isEmpty();
+    }
+
+    @Test
+    void testDeleteByUser() {
+        RefreshToken refreshToken = refreshToken(Instant.now().plusSeconds(60));
+        when(refreshTokenRepo.save(any(RefreshToken.class))).thenReturn(refreshToken);
+        when(refreshTokenRepo.findByToken(anyString())).thenReturn(Optional.empty());
+        when(refreshTokenRepo.deleteByUser(any(User.class))).thenReturn(1);
+
+        refreshTokenStore.save(refreshToken);
+        int result = refreshTokenStore.deleteByUser(refreshToken.getUser());
+
+        verify(refreshTokenRepo, times(1)).deleteByUser(refreshToken.getUser());
+        assertThat(result).isEqualTo(1);
+        assertThat(refreshTokenStore.findByToken(refreshToken.getToken())).isEmpty();
+    }
+
+    @Test
+    void testReplace() {
+        RefreshToken oldToken = refreshToken(Instant.now().plusSeconds(60));
+        RefreshToken newToken = RefreshToken.builder()
+                .user(oldToken.getUser())
+                .token(UUID.randomUUID().toString())
+                .expiryDate(Instant.now().plusSeconds(120))
+                .build();
+        when(refreshTokenRepo.save(any(RefreshToken.class))).thenReturn(oldToken);
+        when(refreshTokenRepo.upsertByUser(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken upserted = invocation.getArgument(0);
+            upserted.setId(UUID.randomUUID());
+            return upserted;
+        });
+        when(refreshTokenRepo.findByToken(anyString())).thenReturn(Optional.empty());
+
+        refreshTokenStore.save(oldToken);
+        RefreshToken result = refreshTokenStore.replace(newToken);
+
+        verify(refreshTokenRepo, times(1)).upsertByUser(newToken);
+        assertThat(result.getId()).isNotNull();
+        assertThat(refreshTokenStore.findByToken(oldToken.getToken())).isEmpty();
+        assertSameToken(refreshTokenStore.findByToken(newToken.getToken()), newToken);
+    }
+
+    @Test
+    void testDelete_AfterReplaceWithEmptyCache() {
+        RefreshToken newToken = refreshToken(Instant.now().plusSeconds(60));
+        newToken.setId(null);
+        when(refreshTokenRepo.upsertByUser(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken upserted = invocation.getArgument(0);
+            upserted.setId(UUID.randomUUID());
+            return upserted;
+        });
+        when(refreshTokenRepo.findByToken(anyString())).thenReturn(Optional.empty());
+
+        // Nothing cached for the user, e.g. their old token was issued by another instance
+        RefreshToken replaced = refreshTokenStore.replace(newToken);
+        refreshTokenStore.delete(replaced);
+
+        verify(refreshTokenRepo, times(1)).deleteByToken(newToken.getToken());
+        assertThat(refreshTokenStore.findByToken(newToken.getToken())).isEmpty();
+    }
+
+    @Test
+    void testTick_ExpiresTokens() throws InterruptedException {
+        RefreshToken refreshToken = refreshToken(Instant.now().plusMillis(20));
+        when(refreshTokenRepo.save(any(RefreshToken.class))).thenReturn(refreshToken);
+        when(refreshTokenRepo.findByToken(anyString())).thenReturn(Optional.empty());
+
+        refreshTokenStore.save(refreshToken);
+        Thread.sleep(100);
+        refreshTokenStore.tick();
+
+        verify(refreshTokenRepo, atLeastOnce()).deleteAllByIdInBatch(List.of(refreshToken.getId()));
+        assertThat(refreshTokenStore.findByToken(refreshToken.getToken())).isEmpty();
+    }
+
+    @Test
+    void testWarmLoad() {
+        RefreshToken refreshToken = refreshToken(Instant.now().plusSeconds(60));
+        when(refreshTokenRepo.findAllUnexpired(any(Instant.class))).thenReturn(List.of(refreshToken));
+
+        refreshTokenStore.warmLoad();
+        Optional<RefreshToken> result = refreshTokenStore.findByToken(refreshToken.getToken());
+
+        verify(refreshTokenRepo, never()).findByToken(anyString());
+        assertSameToken(result, refreshToken);
+    }
+
+    @Test
+    void testFindByToken_ReferencesUser() {
+        RefreshToken refreshToken = refreshToken(Instant.now().plusSeconds(60));
+        refreshToken.getUser().setEmail("stale@example.com");
+        when(refreshTokenRepo.save(any(RefreshToken.class))).thenReturn(refreshToken);
+
+        refreshTokenStore.save(refreshToken);
+        Optional<RefreshToken> result = refreshTokenStore.findByToken(refreshToken.getToken());
+
+        // The user isn't held in memory, only their ID
+        verify(userRepo, times(1)).getReferenceById(refreshToken.getUser().getId());
+        assertThat(result).isPresent();
+        assertThat(result.get().getUser().getEmail()).isNull();
+    }
+
+    /** Tokens are rebuilt from what's held in memory, so compare them by their columns */
+    private static void assertSameToken(Optional<RefreshToken> result, RefreshToken expected) {
+        assertThat(result).isPresent();
+        assertThat(result.get().getId()).isEqualTo(expected.getId());
+        assertThat(result.get().getToken()).isEqualTo(expected.getToken());
+        assertThat(result.get().getExpiryDate()).isEqualTo(expected.getExpiryDate());
+        assertThat(result.get().getUser().getId()).isEqualTo(expected.getUser().getId());
+    }
+
+    private static RefreshToken refreshToken(Instant expiryDate) {
+        return RefreshToken.builder()
+                .id(UUID.randomUUID())
+                .user(User.builder().id(UUID.randomUUID()).build())
+                .token(UUID.randomUUID().toString())
+                .expiryDate(expiryDate)
+                .build();
+    }
+}
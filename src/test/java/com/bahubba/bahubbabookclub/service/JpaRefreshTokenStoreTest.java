@@ -0,0 +1,108 @@
+package com.bahubba.bahubbabookclub.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bahubba.bahubbabookclub.model.entity.RefreshToken;
+import com.bahubba.bahubbabookclub.model.entity.User;
+import com.bahubba.bahubbabookclub.model.enums.Role;
+import com.bahubba.bahubbabookclub.repository.RefreshTokenRepo;
+import com.bahubba.bahubbabookclub.repository.UserRepo;
+import com.bahubba.bahubbabookclub.service.impl.JpaRefreshTokenStore;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Unit tests for the {@link JpaRefreshTokenStore}, against the DB */
+@SpringBootTest
+@ActiveProfiles("test")
+class JpaRefreshTokenStoreTest {
+
+    @Autowired
+    JpaRefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    RefreshTokenRepo refreshTokenRepo;
+
+    @Autowired
+    UserRepo userRepo;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepo.save(User.builder()
+                .username("refreshtokenuser")
+                .email("refreshtokenuser@example.com")
+                .password("password")
+                .role(Role.USER)
+                .joined(LocalDateTime.now())
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        refreshTokenRepo.deleteAll();
+        userRepo.delete(user);
+    }
+
+    @Test
+    void testReplace_Inserts() {
+        RefreshToken result = replace(refreshToken());
+
+        assertThat(result.getId()).isNotNull();
+        assertThat(refreshTokenRepo.findAll())
+                .singleElement()
+                .satisfies(stored -> {
+                    assertThat(stored.getId()).isEqualTo(result.getId());
+                    assertThat(stored.getToken()).isEqualTo(result.getToken());
+                });
+    }
+
+    @Test
+    void testReplace_Updates() {
+        replace(refreshToken());
+        RefreshToken result = replace(refreshToken());
+
+        assertThat(refreshTokenRepo.findAll())
+                .singleElement()
+                .satisfies(stored -> {
+                    assertThat(stored.getId()).isEqualTo(result.getId());
+                    assertThat(stored.getToken()).isEqualTo(result.getToken());
+                    assertThat(stored.getExpiryDate()).isEqualTo(result.getExpiryDate());
+                });
+    }
+
+    @Test
+    void testDelete_AfterReplace() {
+        replace(refreshToken());
+        RefreshToken result = replace(refreshToken());
+
+        transactionTemplate.executeWithoutResult(status -> refreshTokenStore.delete(result));
+
+        assertThat(refreshTokenRepo.count()).isZero();
+    }
+
+    private RefreshToken replace(RefreshToken refreshToken) {
+        return transactionTemplate.execute(status -> refreshTokenStore.replace(refreshToken));
+    }
+
+    private RefreshToken refreshToken() {
+        return RefreshToken.builder()
+                .user(user)
+                .token(UUID.randomUUID().toString())
+                // Microseconds, as stored
+                .expiryDate(Instant.now().plusSeconds(60).truncatedTo(ChronoUnit.MICROS))
+                .build();
+    }
+}
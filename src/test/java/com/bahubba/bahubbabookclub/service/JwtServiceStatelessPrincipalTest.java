@@ -0,0 +1,104 @@
+package com.bahubba.bahubbabookclub.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bahubba.bahubbabookclub.model.entity.User;
+import com.bahubba.bahubbabookclub.model.enums.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Unit tests for the {@link JwtService} in stateless principal mode */
+@SpringBootTest(properties = "app.properties.stateless_principal=true")
+@ActiveProfiles("test")
+class JwtServiceStatelessPrincipalTest {
+
+    @Autowired
+    JwtService jwtService;
+
+    @Value("${app.properties.secret_key}")
+    private String secretKey;
+
+    @Test
+    void testExtractPrincipal() {
+        UUID userID = UUID.randomUUID();
+        Claims claims = jwtService.verifyToken(jwtService
+                .generateJwtCookie(User.builder()
+                        .id(userID)
+                        .username("someuser")
+                        .role(Role.ADMIN)
+                        .build())
+                .getValue());
+
+        User result = jwtService.extractPrincipal(claims);
+
+        assertThat(result).isNotNull();
+        assertThat(result.getId()).isEqualTo(userID);
+        assertThat(result.getUsername()).isEqualTo("someuser");
+        assertThat(result.getRole()).isEqualTo(Role.ADMIN);
+        assertThat(result.getAuthorities()).extracting("authority").containsExactly("ADMIN");
+        assertThat(jwtService.isTokenValid(claims, result)).isTrue();
+    }
+
+    @Test
+    void testExtractPrincipal_Departed() {
+        Claims claims = jwtService.verifyToken(jwtService
+                .generateJwtCookie(User.builder()
+                        .id(UUID.randomUUID())
+                        .username("departeduser")
+                        .departed(LocalDateTime.now())
+                        .build())
+                .getValue());
+
+        assertThat(jwtService.extractPrincipal(claims)).isNull();
+    }
+
+    @Test
+    void testExtractPrincipal_Removed() {
+        Claims claims = jwtService.verifyToken(jwtService
+                .generateJwtCookie(User.builder()
+                        .id(UUID.randomUUID())
+                        .username("removeduser")
+                        .build())
+                .getValue());
+
+        jwtService.invalidateTokensForUser("removeduser");
+
+        assertThat(jwtService.extractPrincipal(claims)).isNull();
+    }
+
+    @Test
+    void testExtractPrincipal_NoPrincipalClaims() {
+        Claims claims = jwtService.verifyToken(Jwts.builder()
+                .setSubject("someuser")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact());
+
+        assertThat(jwtService.extractPrincipal(claims)).isNull();
+    }
+
+    @Test
+    void testExtractPrincipal_UnknownRole() {
+        Claims claims = jwtService.verifyToken(Jwts.builder()
+                .setSubject("someuser")
+                .claim("uid", UUID.randomUUID().toString())
+                .claim("role", "SUPERUSER")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact());
+
+        assertThatThrownBy(() -> jwtService.extractPrincipal(claims)).isInstanceOf(JwtException.class);
+    }
+}
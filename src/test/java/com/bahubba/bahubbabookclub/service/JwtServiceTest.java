@@ -12,9 +12,13 @@ import com.bahubba.bahubbabookclub.model.entity.RefreshToken;
 import com.bahubba.bahubbabookclub.model.entity.User;
 import com.bahubba.bahubbabookclub.repository.RefreshTokenRepo;
 import com.bahubba.bahubbabookclub.repository.UserRepo;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.http.Cookie;
 import java.time.Instant;
 import java.util.Date;
@@ -29,8 +33,8 @@ import org.springframework.http.ResponseCookie;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.ActiveProfiles;
 
-/** Unit tests for the JwtService */
-@SpringBootTest
+/** Unit tests for the JwtService, against the DB-backed refresh token store */
+@SpringBootTest(properties = "app.properties.refresh_token_store.type=jpa")
 @ActiveProfiles("test")
 class JwtServiceTest {
 
@@ -116,6 +120,147 @@ class JwtServiceTest {
         assertThat(result).isEqualTo("someuser");
     }
 
+    @Test
+    void testVerifyToken() {
+        Claims result = jwtService.verifyToken(Jwts.builder()
+                .setSubject("someuser")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact());
+
+        assertThat(result).isNotNull();
+        assertThat(result.getSubject()).isEqualTo("someuser");
+    }
+
+    @Test
+    void testVerifyToken_Expired() {
+        String token = Jwts.builder()
+                .setSubject("someuser")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000 * 60))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact();
+
+        assertThatThrownBy(() -> jwtService.verifyToken(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void testVerifyToken_BadSignature() {
+        String token = Jwts.builder()
+                .setSubject("someuser")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(Keys.hmacShaKeyFor(new byte[64]))
+                .compact();
+
+        assertThatThrownBy(() -> jwtService.verifyToken(token)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void testVerifyToken_Cached() {
+        String token = Jwts.builder()
+                .setSubject("someuser")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact();
+
+        Claims result = jwtService.verifyToken(token);
+
+        // Repeat verifications are served from the cache
+        assertThat(jwtService.verifyToken(token)).isSameAs(result);
+    }
+
+    @Test
+    void testInvalidateToken() {
+        String token = Jwts.builder()
+                .setSubject("loggedoutuser")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact();
+
+        jwtService.verifyToken(token);
+        jwtService.invalidateToken(token);
+
+        // The token is rejected until it expires, rather than re-verified and re-cached
+        assertThatThrownBy(() -> jwtService.verifyToken(token))
+                .isInstanceOf(JwtException.class)
+                .hasMessageContaining("revoked");
+    }
+
+    @Test
+    void testInvalidateToken_Expired() {
+        String token = Jwts.builder()
+                .setSubject("someuser")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000 * 60))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact();
+
+        jwtService.invalidateToken(token);
+
+        assertThatThrownBy(() -> jwtService.verifyToken(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void testVerifyToken_ReadOnly() {
+        Claims result = jwtService.verifyToken(Jwts.builder()
+                .setSubject("someuser")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact());
+
+        // Cached claims are shared between requests, so can't be changed by any of them
+        assertThatThrownBy(() -> result.setSubject("someotheruser")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> result.put("role", "ADMIN")).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(result.getSubject()).isEqualTo("someuser");
+    }
+
+    @Test
+    void testInvalidateTokensForUser() {
+        String token = Jwts.builder()
+                .setSubject("departinguser")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact();
+        String otherToken = Jwts.builder()
+                .setSubject("someotheruser")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact();
+
+        Claims result = jwtService.verifyToken(token);
+        Claims otherResult = jwtService.verifyToken(otherToken);
+        jwtService.invalidateTokensForUser("departinguser");
+
+        assertThat(jwtService.verifyToken(token)).isNotSameAs(result);
+        assertThat(jwtService.verifyToken(otherToken)).isSameAs(otherResult);
+    }
+
+    @Test
+    void testIsTokenValid_Claims() {
+        Claims claims = jwtService.verifyToken(Jwts.builder()
+                .setSubject("someuser")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .compact());
+
+        assertThat(jwtService.isTokenValid(
+                        claims, User.builder().username("someuser").build()))
+                .isTrue();
+        assertThat(jwtService.isTokenValid(
+                        claims, User.builder().username("someotheruser").build()))
+                .isFalse();
+    }
+
+    @Test
+    void testExtractPrincipal_StatelessModeOff() {
+        Claims claims = jwtService.verifyToken(jwtService
+                .generateJwtCookie(User.builder()
+                        .id(UUID.randomUUID())
+                        .username("someuser")
+                        .build())
+                .getValue());
+
+        assertThat(jwtService.extractPrincipal(claims)).isNull();
+    }
+
     @Test
     void testIsTokenValid() {
         boolean result = jwtService.isTokenValid(
@@ -240,6 +385,22 @@ class JwtServiceTest {
                 .hasMessageContaining("User could not be found");
     }
 
+    @Test
+    void testReplaceRefreshToken() {
+        User user = User.builder().id(UUID.randomUUID()).username("someuser").build();
+        when(refreshTokenRepo.upsertByUser(any(RefreshToken.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        RefreshToken result = jwtService.replaceRefreshToken(user);
+
+        verify(refreshTokenRepo, times(1)).upsertByUser(any(RefreshToken.class));
+        verify(refreshTokenRepo, never()).save(any(RefreshToken.class));
+        verify(userRepo, never()).findById(any(UUID.class));
+        assertThat(result.getUser()).isEqualTo(user);
+        assertThat(result.getToken()).isNotNull();
+        assertThat(result.getExpiryDate()).isAfter(Instant.now());
+    }
+
     @Test
     void testDeleteByUserID() {
         when(userRepo.findById(any(UUID.class)))
@@ -265,6 +426,7 @@ class JwtServiceTest {
         when(refreshTokenRepo.findByToken(anyString()))
                 .thenReturn(Optional.of(RefreshToken.builder()
                         .user(User.builder().username("someuser").build())
+                        .token("sometoken")
                         .expiryDate(Instant.now().plusMillis(1000L * 60L * 60L))
                         .build()));
 
@@ -274,6 +436,6 @@ class JwtServiceTest {
         jwtService.deleteRefreshToken(req);
 
         verify(refreshTokenRepo, times(1)).findByToken(anyString());
-        verify(refreshTokenRepo, times(1)).delete(any(RefreshToken.class));
+        verify(refreshTokenRepo, times(1)).deleteByToken("sometoken");
     }
 }
@@ -0,0 +1,84 @@
+package com.bahubba.bahubbabookclub.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bahubba.bahubbabookclub.model.entity.BookClub;
+import com.bahubba.bahubbabookclub.repository.BookClubRepo;
+import com.bahubba.bahubbabookclub.util.CursorUtil;
+import com.bahubba.bahubbabookclub.util.SliceUtil;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Tests for the keyset page queries, running against H2 */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class KeysetPaginationTest {
+
+    @Autowired
+    BookClubRepo bookClubRepo;
+
+    @Test
+    void testFindPageAfter_WalksEveryRowOnce() {
+        // Clubs created in the same instant are told apart by ID
+        LocalDateTime created = LocalDateTime.of(2023, 1, 1, 12, 0);
+        List<BookClub> saved = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            saved.add(BookClub.builder()
+                    .name("Keyset Club " + i)
+                    .imageFileName("default.jpg")
+                    .created(i < 4 ? created : created.plusMinutes(i))
+                    .build());
+        }
+        bookClubRepo.saveAll(saved);
+
+        List<BookClub> walked = new ArrayList<>();
+        List<BookClub> page = bookClubRepo.findFirstPage(CursorUtil.pageRequest(3));
+        while (true) {
+            List<BookClub> pageRows = page.subList(0, Math.min(3, page.size()));
+            walked.addAll(pageRows);
+            if (page.size() <= 3) {
+                break;
+            }
+            BookClub last = pageRows.get(pageRows.size() - 1);
+            page = bookClubRepo.findPageAfter(last.getCreated(), last.getId(), CursorUtil.pageRequest(3));
+        }
+
+        assertThat(walked).hasSize(bookClubRepo.findAll().size()).doesNotHaveDuplicates();
+        // The DB compares UUIDs as unsigned bytes, which is the order of their hex strings
+        assertThat(walked)
+                .isSortedAccordingTo(Comparator.comparing(BookClub::getCreated)
+                        .thenComparing(bookClub -> bookClub.getId().toString()));
+    }
+
+    @Test
+    void testFindAllBy_WalksEveryRowOnce() {
+        List<BookClub> saved = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            saved.add(BookClub.builder()
+                    .name("Offset Club " + i)
+                    .imageFileName("default.jpg")
+                    .build());
+        }
+        bookClubRepo.saveAll(saved);
+
+        List<BookClub> walked = new ArrayList<>();
+        Slice<BookClub> slice = bookClubRepo.findAllBy(SliceUtil.pageRequest(0, 3));
+        walked.addAll(slice.getContent());
+        while (slice.hasNext()) {
+            slice = bookClubRepo.findAllBy(slice.nextPageable());
+            walked.addAll(slice.getContent());
+        }
+
+        assertThat(walked).hasSize(bookClubRepo.findAll().size()).doesNotHaveDuplicates();
+        assertThat(walked).isSortedAccordingTo(Comparator.comparing(bookClub -> bookClub.getId().toString()));
+    }
+}
@@ -0,0 +1,135 @@
+package com.bahubba.bahubbabookclub.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bahubba.bahubbabookclub.controller.LocalS3Controller;
+import com.bahubba.bahubbabookclub.service.impl.LocalS3ServiceImpl;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/** Unit tests for the filesystem-backed {@link S3Service} used by the local profile */
+@SpringBootTest
+@ActiveProfiles({"test", "local"})
+class LocalS3ServiceTest {
+
+    @TempDir
+    static Path rootDir;
+
+    @Autowired
+    S3Service s3Service;
+
+    @Autowired
+    LocalS3ServiceImpl localS3Service;
+
+    @Autowired
+    LocalS3Controller localS3Controller;
+
+    @DynamicPropertySource
+    static void localS3Properties(DynamicPropertyRegistry registry) {
+        registry.add("app.properties.local_s3.root_dir", rootDir::toString);
+    }
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        Path stock = Files.createDirectories(rootDir.resolve("book-clubs/images/stock"));
+        Files.writeString(stock.resolve("one.png"), "one");
+        Files.writeString(stock.resolve("two.png"), "two");
+        Files.writeString(rootDir.resolve("book-clubs/other.png"), "other");
+    }
+
+    @Test
+    void testListS3ObjectsAtPrefix() {
+        List<S3Object> result = s3Service.listS3ObjectsAtPrefix("book-clubs/images/stock/");
+
+        assertThat(s3Service).isInstanceOf(LocalS3ServiceImpl.class);
+        assertThat(result)
+                .extracting(S3Object::key)
+                .containsExactly("book-clubs/images/stock/one.png", "book-clubs/images/stock/two.png");
+        assertThat(result.get(0).size()).isEqualTo(3L);
+    }
+
+    @Test
+    void testListS3ObjectsAtPrefix_Missing() {
+        assertThat(s3Service.listS3ObjectsAtPrefix("nothing/here/")).isEmpty();
+    }
+
+    @Test
+    void testGetPreSignedURL() throws IOException {
+        UriComponents url = UriComponentsBuilder.fromHttpUrl(
+                        s3Service.getPreSignedURL("book-clubs/images/stock/one.png"))
+                .build();
+
+        ResponseEntity<Resource> rsp = getObject(
+                url.getPath(),
+                Long.parseLong(url.getQueryParams().getFirst("expires")),
+                url.getQueryParams().getFirst("signature"));
+
+        assertThat(rsp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(rsp.getHeaders().getContentType()).isEqualTo(MediaType.IMAGE_PNG);
+        assertThat(rsp.getBody()).isNotNull();
+        assertThat(rsp.getBody().getContentAsString(StandardCharsets.UTF_8)).isEqualTo("one");
+    }
+
+    @Test
+    void testResolveSignedObject_TamperedKey() {
+        UriComponents url = UriComponentsBuilder.fromHttpUrl(
+                        s3Service.getPreSignedURL("book-clubs/images/stock/one.png"))
+                .build();
+        long expires = Long.parseLong(url.getQueryParams().getFirst("expires"));
+        String signature = url.getQueryParams().getFirst("signature");
+
+        assertThat(localS3Service.resolveSignedObject("book-clubs/images/stock/two.png", expires, signature))
+                .isEmpty();
+        assertThat(localS3Service.resolveSignedObject("book-clubs/images/stock/one.png", expires + 1, signature))
+                .isEmpty();
+    }
+
+    @Test
+    void testPutObject() {
+        byte[] content = "custom".getBytes(StandardCharsets.UTF_8);
+
+        s3Service.putObject(
+                "book-clubs/images/custom/abc.png", new ByteArrayInputStream(content), content.length, "image/png");
+
+        assertThat(s3Service.objectExists("book-clubs/images/custom/abc.png")).isTrue();
+        assertThat(s3Service.objectExists("book-clubs/images/custom/def.png")).isFalse();
+        assertThat(s3Service.listS3ObjectsAtPrefix("book-clubs/images/custom/"))
+                .extracting(S3Object::key)
+                .containsExactly("book-clubs/images/custom/abc.png");
+    }
+
+    @Test
+    void testResolveSignedObject_Expired() {
+        assertThat(localS3Service.resolveSignedObject(
+                        "book-clubs/images/stock/one.png",
+                        Instant.now().minusSeconds(1).getEpochSecond(),
+                        "anything"))
+                .isEmpty();
+    }
+
+    private ResponseEntity<Resource> getObject(String path, long expires, String signature) {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", path);
+        return localS3Controller.getObject(expires, signature, req);
+    }
+}
@@ -7,13 +7,16 @@ import static org.mockito.Mockito.*;
 
 import com.bahubba.bahubbabookclub.exception.*;
 import com.bahubba.bahubbabookclub.model.dto.BookClubDTO;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
 import com.bahubba.bahubbabookclub.model.dto.MembershipRequestDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
 import com.bahubba.bahubbabookclub.model.dto.UserDTO;
 import com.bahubba.bahubbabookclub.model.entity.BookClub;
 import com.bahubba.bahubbabookclub.model.entity.BookClubMembership;
 import com.bahubba.bahubbabookclub.model.entity.MembershipRequest;
 import com.bahubba.bahubbabookclub.model.entity.User;
 import com.bahubba.bahubbabookclub.model.enums.BookClubRole;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.enums.RequestAction;
 import com.bahubba.bahubbabookclub.model.enums.RequestStatus;
 import com.bahubba.bahubbabookclub.model.payload.MembershipRequestAction;
@@ -21,7 +24,10 @@ import com.bahubba.bahubbabookclub.model.payload.NewMembershipRequest;
 import com.bahubba.bahubbabookclub.repository.BookClubMembershipRepo;
 import com.bahubba.bahubbabookclub.repository.BookClubRepo;
 import com.bahubba.bahubbabookclub.repository.MembershipRequestRepo;
+import com.bahubba.bahubbabookclub.repository.UserRepo;
+import com.bahubba.bahubbabookclub.util.CursorUtil;
 import com.bahubba.bahubbabookclub.util.SecurityUtil;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -32,6 +38,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
@@ -49,6 +56,9 @@ class MembershipRequestServiceTest {
     @MockBean
     BookClubMembershipRepo bookClubMembershipRepo;
 
+    @MockBean
+    UserRepo userRepo;
+
     @Test
     void testRequestMembership() {
         MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
@@ -138,6 +148,72 @@ class MembershipRequestServiceTest {
         securityUtilMockedStatic.close();
     }
 
+    @Test
+    void testGetMembershipRequestsForBookClub_Slice() {
+        var testID = UUID.randomUUID();
+        var bookClubID = UUID.randomUUID();
+
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(testID).build());
+
+        when(bookClubRepo.findByName(anyString()))
+                .thenReturn(Optional.of(BookClub.builder()
+                        .id(bookClubID)
+                        .members(Set.of(BookClubMembership.builder()
+                                .clubRole(BookClubRole.ADMIN)
+                                .user(User.builder().id(testID).build())
+                                .build()))
+                        .build()));
+        when(membershipRequestRepo.findSliceByBookClubIdOrderByRequestedDescIdDesc(eq(bookClubID), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        SliceDTO<MembershipRequestDTO> result =
+                membershipRequestService.getMembershipRequestsForBookClub("foo", 0, 10, PageTotals.NONE);
+
+        verify(membershipRequestRepo, times(1))
+                .findSliceByBookClubIdOrderByRequestedDescIdDesc(eq(bookClubID), any(Pageable.class));
+        verify(membershipRequestRepo, never()).countByBookClubId(any(UUID.class));
+        assertThat(result.getEstimatedTotal()).isNull();
+
+        securityUtilMockedStatic.close();
+    }
+
+    @Test
+    void testGetMembershipRequestsForBookClub_Cursor() {
+        var testID = UUID.randomUUID();
+        var bookClubID = UUID.randomUUID();
+
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(testID).build());
+
+        when(bookClubRepo.findByName(anyString()))
+                .thenReturn(Optional.of(BookClub.builder()
+                        .id(bookClubID)
+                        .members(Set.of(BookClubMembership.builder()
+                                .clubRole(BookClubRole.ADMIN)
+                                .user(User.builder().id(testID).build())
+                                .build()))
+                        .build()));
+        MembershipRequest newest =
+                MembershipRequest.builder().id(UUID.randomUUID()).build();
+        when(membershipRequestRepo.findFirstPageByBookClubId(eq(bookClubID), any(Pageable.class)))
+                .thenReturn(List.of(newest, MembershipRequest.builder().build()));
+
+        CursorPageDTO<MembershipRequestDTO> result =
+                membershipRequestService.getMembershipRequestsForBookClub("foo", "", 1);
+
+        verify(membershipRequestRepo, times(1)).findFirstPageByBookClubId(eq(bookClubID), any(Pageable.class));
+        assertThat(result.getSize()).isEqualTo(1);
+        assertThat(CursorUtil.decode(result.getNextCursor()))
+                .isEqualTo(new CursorUtil.Cursor(newest.getRequested(), newest.getId()));
+
+        securityUtilMockedStatic.close();
+    }
+
     @Test
     void testGetMembershipRequestsForBookClub_UserNotFound() {
         MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
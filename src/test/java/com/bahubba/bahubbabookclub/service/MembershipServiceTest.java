@@ -8,16 +8,22 @@ import static org.mockito.Mockito.*;
 
 import com.bahubba.bahubbabookclub.exception.*;
 import com.bahubba.bahubbabookclub.model.dto.BookClubMembershipDTO;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
+import com.bahubba.bahubbabookclub.model.dto.SliceDTO;
 import com.bahubba.bahubbabookclub.model.entity.BookClub;
 import com.bahubba.bahubbabookclub.model.entity.BookClubMembership;
 import com.bahubba.bahubbabookclub.model.entity.User;
 import com.bahubba.bahubbabookclub.model.enums.BookClubRole;
+import com.bahubba.bahubbabookclub.model.enums.PageTotals;
 import com.bahubba.bahubbabookclub.model.payload.MembershipCompositeID;
 import com.bahubba.bahubbabookclub.model.payload.MembershipUpdate;
 import com.bahubba.bahubbabookclub.model.payload.NewOwner;
 import com.bahubba.bahubbabookclub.repository.BookClubMembershipRepo;
 import com.bahubba.bahubbabookclub.repository.BookClubRepo;
+import com.bahubba.bahubbabookclub.repository.UserRepo;
+import com.bahubba.bahubbabookclub.util.CursorUtil;
 import com.bahubba.bahubbabookclub.util.SecurityUtil;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,6 +34,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
 
 /** Unit tests for the {@link MembershipService} business logic */
@@ -43,6 +50,9 @@ class MembershipServiceTest {
     @MockBean
     BookClubMembershipRepo bookClubMembershipRepo;
 
+    @MockBean
+    UserRepo userRepo;
+
     @Test
     void testGetAll() {
         UUID testID = UUID.randomUUID();
@@ -71,6 +81,69 @@ class MembershipServiceTest {
         securityUtilMockedStatic.close();
     }
 
+    @Test
+    void testGetAll_SliceEstimated() {
+        String bookClubName = "Slice Club " + UUID.randomUUID();
+
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(UUID.randomUUID()).build());
+
+        when(bookClubMembershipRepo.findByBookClubNameAndClubRoleAndUserId(
+                        anyString(), any(BookClubRole.class), any(UUID.class)))
+                .thenReturn(Optional.of(BookClubMembership.builder()
+                        .clubRole(BookClubRole.ADMIN)
+                        .build()));
+        when(bookClubMembershipRepo.findSliceByBookClubNameOrderByJoinedAscIdAsc(eq(bookClubName), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(BookClubMembership.builder().build())));
+        when(bookClubMembershipRepo.countByBookClubName(bookClubName)).thenReturn(120L);
+
+        SliceDTO<BookClubMembershipDTO> result = membershipService.getAll(bookClubName, 0, 10, PageTotals.ESTIMATED);
+        membershipService.getAll(bookClubName, 1, 10, PageTotals.ESTIMATED);
+
+        // The count is cached between pages
+        verify(bookClubMembershipRepo, times(1)).countByBookClubName(bookClubName);
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getEstimatedTotal()).isEqualTo(120L);
+
+        securityUtilMockedStatic.close();
+    }
+
+    @Test
+    void testGetAll_Cursor() {
+        UUID testID = UUID.randomUUID();
+        LocalDateTime joined = LocalDateTime.now();
+        UUID lastID = UUID.randomUUID();
+        UUID bookClubID = UUID.randomUUID();
+
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(testID).build());
+
+        when(bookClubMembershipRepo.findByBookClubNameAndClubRoleAndUserId(
+                        anyString(), any(BookClubRole.class), any(UUID.class)))
+                .thenReturn(Optional.of(BookClubMembership.builder()
+                        .bookClub(BookClub.builder().id(bookClubID).build())
+                        .clubRole(BookClubRole.ADMIN)
+                        .build()));
+        when(bookClubMembershipRepo.findPageByBookClubIdAfter(
+                        eq(bookClubID), eq(joined), eq(lastID), any(Pageable.class)))
+                .thenReturn(List.of(BookClubMembership.builder().build()));
+
+        CursorPageDTO<BookClubMembershipDTO> result =
+                membershipService.getAll("foo", CursorUtil.encode(joined, lastID), 10);
+
+        verify(bookClubMembershipRepo, times(1))
+                .findPageByBookClubIdAfter(eq(bookClubID), eq(joined), eq(lastID), any(Pageable.class));
+        verify(bookClubMembershipRepo, never()).findFirstPageByBookClubId(any(UUID.class), any(Pageable.class));
+        assertThat(result.getSize()).isEqualTo(1);
+        assertThat(result.getNextCursor()).isNull();
+
+        securityUtilMockedStatic.close();
+    }
+
     @Test
     void testGetAll_UserNotFound() {
         MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
@@ -196,6 +269,25 @@ class MembershipServiceTest {
         securityUtilMockedStatic.close();
     }
 
+    @Test
+    void testGetMembership_BookClubImage() {
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(UUID.randomUUID()).build());
+
+        when(bookClubMembershipRepo.findByBookClubNameAndUserId(anyString(), any(UUID.class)))
+                .thenReturn(Optional.of(BookClubMembership.builder()
+                        .bookClub(BookClub.builder().imageFileName("one.jpg").build())
+                        .build()));
+        BookClubMembershipDTO result = membershipService.getMembership("foo");
+
+        assertThat(result.getBookClub().getImage().getUrl()).endsWith("/api/v1/images/book-clubs/one.jpg");
+        assertThat(result.getBookClub().getImage().getThumbnails()).containsKeys(64, 256);
+
+        securityUtilMockedStatic.close();
+    }
+
     @Test
     void testGetMembership_NoUser() {
         assertThrows(UserNotFoundException.class, () -> membershipService.getMembership("foo"));
@@ -203,19 +295,47 @@ class MembershipServiceTest {
 
     @Test
     void testGetMembership_NoMembership() {
+        UUID userID = UUID.randomUUID();
+
+        // A stateless principal, with only the ID, username and role
         MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
         securityUtilMockedStatic
                 .when(SecurityUtil::getCurrentUserDetails)
-                .thenReturn(User.builder().id(UUID.randomUUID()).build());
+                .thenReturn(User.builder().id(userID).username("user").build());
 
         when(bookClubMembershipRepo.findByBookClubNameAndUserId(anyString(), any(UUID.class)))
                 .thenReturn(Optional.empty());
         when(bookClubRepo.findByName(anyString()))
                 .thenReturn(Optional.of(BookClub.builder().build()));
+        when(userRepo.findById(userID))
+                .thenReturn(Optional.of(User.builder()
+                        .id(userID)
+                        .username("user")
+                        .email("user@example.com")
+                        .build()));
         BookClubMembershipDTO result = membershipService.getMembership("foo");
 
         verify(bookClubMembershipRepo, times(1)).findByBookClubNameAndUserId(anyString(), any(UUID.class));
         assertThat(result).isNotNull();
+        assertThat(result.getUser().getEmail()).isEqualTo("user@example.com");
+
+        securityUtilMockedStatic.close();
+    }
+
+    @Test
+    void testGetMembership_NoMembership_UserNotFound() {
+        MockedStatic<SecurityUtil> securityUtilMockedStatic = mockStatic(SecurityUtil.class);
+        securityUtilMockedStatic
+                .when(SecurityUtil::getCurrentUserDetails)
+                .thenReturn(User.builder().id(UUID.randomUUID()).build());
+
+        when(bookClubMembershipRepo.findByBookClubNameAndUserId(anyString(), any(UUID.class)))
+                .thenReturn(Optional.empty());
+        when(bookClubRepo.findByName(anyString()))
+                .thenReturn(Optional.of(BookClub.builder().build()));
+        when(userRepo.findById(any(UUID.class))).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> membershipService.getMembership("foo"));
 
         securityUtilMockedStatic.close();
     }
@@ -0,0 +1,68 @@
+package com.bahubba.bahubbabookclub.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.bahubba.bahubbabookclub.service.impl.RowCountEstimatorImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/** Unit tests for the {@link RowCountEstimator} */
+class RowCountEstimatorTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void testEstimate_Cached() {
+        RowCountEstimator estimator = estimator(false);
+        AtomicInteger counts = new AtomicInteger();
+
+        assertThat(estimator.estimate("foo", () -> 10L + counts.incrementAndGet()))
+                .isEqualTo(11L);
+        assertThat(estimator.estimate("foo", () -> 10L + counts.incrementAndGet()))
+                .isEqualTo(11L);
+        assertThat(counts).hasValue(1);
+    }
+
+    @Test
+    void testEstimateTable_TableStatistics() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("book_club")))
+                .thenReturn(1234L);
+
+        assertThat(estimator(true).estimateTable("book_club", () -> {
+                    throw new AssertionError("Shouldn't count");
+                }))
+                .isEqualTo(1234L);
+    }
+
+    @Test
+    void testEstimateTable_NeverAnalyzed() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("book_club")))
+                .thenReturn(-1L);
+
+        assertThat(estimator(true).estimateTable("book_club", () -> 42L)).isEqualTo(42L);
+    }
+
+    @Test
+    void testEstimateTable_StatisticsUnavailable() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("book_club")))
+                .thenThrow(new DataAccessResourceFailureException("No pg_class"));
+
+        assertThat(estimator(true).estimateTable("book_club", () -> 42L)).isEqualTo(42L);
+    }
+
+    @Test
+    void testEstimateTable_StatisticsDisabled() {
+        assertThat(estimator(false).estimateTable("book_club", () -> 42L)).isEqualTo(42L);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private RowCountEstimator estimator(boolean useTableStatistics) {
+        return new RowCountEstimatorImpl(jdbcTemplate, useTableStatistics, 300L, 100L, new SimpleMeterRegistry());
+    }
+}
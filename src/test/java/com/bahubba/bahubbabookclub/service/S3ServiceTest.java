@@ -1,9 +1,15 @@
 package com.bahubba.bahubbabookclub.service;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
@@ -14,10 +20,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ActiveProfiles;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.http.SdkHttpMethod;
 import software.amazon.awssdk.http.SdkHttpRequest;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.S3Object;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
@@ -45,6 +55,49 @@ class S3ServiceTest {
         assertThat(result).isNotNull();
     }
 
+    @Test
+    void testListS3ObjectsAtPrefix_Paginated() {
+        when(s3Client.listObjectsV2(any(Consumer.class)))
+                .thenReturn(
+                        ListObjectsV2Response.builder()
+                                .contents(List.of(S3Object.builder().key("one").build()))
+                                .isTruncated(true)
+                                .nextContinuationToken("page2")
+                                .build(),
+                        ListObjectsV2Response.builder()
+                                .contents(List.of(S3Object.builder().key("two").build()))
+                                .isTruncated(false)
+                                .build());
+
+        List<S3Object> result = s3Service.listS3ObjectsAtPrefix("test");
+
+        verify(s3Client, times(2)).listObjectsV2(any(Consumer.class));
+        assertThat(result.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testListS3ObjectsAtPrefix_LastKnownGood() {
+        when(s3Client.listObjectsV2(any(Consumer.class)))
+                .thenReturn(ListObjectsV2Response.builder()
+                        .contents(List.of(S3Object.builder().key("known").build()))
+                        .build())
+                .thenThrow(SdkClientException.create("Timed out"));
+
+        s3Service.listS3ObjectsAtPrefix("last-known-good");
+        List<S3Object> result = s3Service.listS3ObjectsAtPrefix("last-known-good");
+
+        assertThat(result.size()).isEqualTo(1);
+        assertThat(result.get(0).key()).isEqualTo("known");
+    }
+
+    @Test
+    void testListS3ObjectsAtPrefix_NothingKnown() {
+        when(s3Client.listObjectsV2(any(Consumer.class))).thenThrow(SdkClientException.create("Timed out"));
+
+        assertThatThrownBy(() -> s3Service.listS3ObjectsAtPrefix("never-listed"))
+                .isInstanceOf(SdkClientException.class);
+    }
+
     @Test
     void testGetPreSignedURL() {
         when(s3PreSigner.presignGetObject(any(GetObjectPresignRequest.class)))
@@ -61,4 +114,58 @@ class S3ServiceTest {
         String result = s3Service.getPreSignedURL("test");
         assertThat(result).isNotNull();
     }
+
+    @Test
+    void testGetPreSignedURL_Cached() {
+        when(s3PreSigner.presignGetObject(any(GetObjectPresignRequest.class)))
+                .thenReturn(PresignedGetObjectRequest.builder()
+                        .httpRequest(SdkHttpRequest.builder()
+                                .method(SdkHttpMethod.GET)
+                                .host("localhost")
+                                .protocol("https")
+                                .encodedPath("/cached-key")
+                                .build())
+                        .signedHeaders(Map.of("someHeader", List.of("someVal")))
+                        .isBrowserExecutable(false)
+                        .expiration(Instant.now().plus(Duration.ofMinutes(10)))
+                        .build());
+
+        String first = s3Service.getPreSignedURL("cached-key");
+        String second = s3Service.getPreSignedURL("cached-key");
+
+        verify(s3PreSigner, times(1)).presignGetObject(any(GetObjectPresignRequest.class));
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void testDownloadObject() {
+        Path destination = Path.of("test.jpg");
+
+        s3Service.downloadObject("test", destination);
+
+        verify(s3Client, times(1)).getObject(any(Consumer.class), eq(destination));
+    }
+
+    @Test
+    void testObjectExists() {
+        when(s3Client.headObject(any(Consumer.class)))
+                .thenReturn(HeadObjectResponse.builder().build());
+
+        assertThat(s3Service.objectExists("test")).isTrue();
+    }
+
+    @Test
+    void testObjectExists_Missing() {
+        when(s3Client.headObject(any(Consumer.class)))
+                .thenThrow(NoSuchKeyException.builder().build());
+
+        assertThat(s3Service.objectExists("test")).isFalse();
+    }
+
+    @Test
+    void testPutObject() {
+        s3Service.putObject("test", new ByteArrayInputStream(new byte[] {1, 2, 3}), 3L, "image/png");
+
+        verify(s3Client, times(1)).putObject(any(Consumer.class), any(RequestBody.class));
+    }
 }
@@ -0,0 +1,94 @@
+package com.bahubba.bahubbabookclub.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.bahubba.bahubbabookclub.model.dto.S3ImageDTO;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/** Unit tests for the {@link StockImageCatalog} */
+@SpringBootTest
+@ActiveProfiles("test")
+class StockImageCatalogTest {
+
+    @Autowired
+    StockImageCatalog stockImageCatalog;
+
+    @MockBean
+    S3Service s3Service;
+
+    @MockBean
+    ImageVariantService imageVariantService;
+
+    @Test
+    void testRefresh() {
+        when(s3Service.listS3ObjectsAtPrefix(anyString()))
+                .thenReturn(List.of(
+                        S3Object.builder()
+                                .key("book-clubs/images/stock/")
+                                .size(0L)
+                                .build(),
+                        S3Object.builder()
+                                .key("book-clubs/images/stock/one.jpg")
+                                .size(1L)
+                                .build(),
+                        S3Object.builder()
+                                .key("book-clubs/images/stock/two.jpg")
+                                .size(1L)
+                                .build()));
+
+        boolean refreshed = stockImageCatalog.refresh();
+        List<S3ImageDTO> result = stockImageCatalog.getStockImages();
+
+        assertThat(refreshed).isTrue();
+        assertThat(result).extracting(S3ImageDTO::getFileName).containsExactly("one.jpg", "two.jpg");
+        assertThat(result.get(0).getUrl()).endsWith("/api/v1/images/book-clubs/one.jpg");
+        assertThat(stockImageCatalog.containsStockImage("one.jpg")).isTrue();
+        assertThat(stockImageCatalog.containsStockImage("three.jpg")).isFalse();
+        verify(imageVariantService, times(1)).generateVariants("one.jpg");
+        verify(imageVariantService, times(1)).generateVariants("two.jpg");
+    }
+
+    @Test
+    void testGetStockImages_ServedFromMemory() {
+        when(s3Service.listS3ObjectsAtPrefix(anyString()))
+                .thenReturn(List.of(S3Object.builder()
+                        .key("book-clubs/images/stock/one.jpg")
+                        .size(1L)
+                        .build()));
+        stockImageCatalog.refresh();
+        clearInvocations(s3Service);
+
+        stockImageCatalog.getStockImages();
+        stockImageCatalog.getStockImages();
+
+        verify(s3Service, never()).listS3ObjectsAtPrefix(anyString());
+        verify(s3Service, never()).getPreSignedURL(anyString());
+    }
+
+    @Test
+    void testRefresh_S3Unavailable() {
+        when(s3Service.listS3ObjectsAtPrefix(anyString()))
+                .thenReturn(List.of(S3Object.builder()
+                        .key("book-clubs/images/stock/one.jpg")
+                        .size(1L)
+                        .build()));
+        stockImageCatalog.refresh();
+
+        when(s3Service.listS3ObjectsAtPrefix(anyString())).thenThrow(SdkClientException.create("S3 is down"));
+        boolean refreshed = stockImageCatalog.refresh();
+
+        assertThat(refreshed).isFalse();
+        assertThat(stockImageCatalog.getStockImages())
+                .extracting(S3ImageDTO::getFileName)
+                .containsExactly("one.jpg");
+    }
+}
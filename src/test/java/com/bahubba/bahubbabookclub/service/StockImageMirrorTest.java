@@ -0,0 +1,136 @@
+package com.bahubba.bahubbabookclub.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.FileSystemUtils;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/** Unit tests for the {@link StockImageMirror} */
+@SpringBootTest(
+        properties = {
+            "app.properties.stock_image_mirror.enabled=true",
+            "app.properties.stock_image_mirror.delete_grace_millis=200"
+        })
+@ActiveProfiles("test")
+class StockImageMirrorTest {
+
+    @TempDir
+    static Path mirrorDir;
+
+    @Autowired
+    StockImageMirror stockImageMirror;
+
+    @MockBean
+    S3Service s3Service;
+
+    @DynamicPropertySource
+    static void mirrorProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.properties.stock_image_mirror.dir", mirrorDir::toString);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stockImageMirror.sync(List.of());
+        // Skip the grace period on what earlier tests left behind
+        try (Stream<Path> dirs = Files.list(mirrorDir)) {
+            for (Path dir : dirs.toList()) {
+                FileSystemUtils.deleteRecursively(dir);
+            }
+        }
+        doAnswer(invocation -> {
+                    String key = invocation.getArgument(0);
+                    Files.writeString(invocation.getArgument(1), key.substring(key.lastIndexOf("/") + 1));
+                    return null;
+                })
+                .when(s3Service)
+                .downloadObject(anyString(), any(Path.class));
+    }
+
+    @Test
+    void testSync() throws IOException {
+        stockImageMirror.sync(List.of(stockImage("one.jpg", "\"etag1\"")));
+
+        StockImageMirror.MirroredImage result =
+                stockImageMirror.getImage("one.jpg").orElseThrow();
+        assertThat(result.eTag()).isEqualTo("etag1");
+        assertThat(result.file()).isEqualTo(mirrorDir.resolve("etag1").resolve("one.jpg"));
+        assertThat(Files.readString(result.file())).isEqualTo("one.jpg");
+        assertThat(stockImageMirror.getImage("two.jpg")).isEmpty();
+    }
+
+    @Test
+    void testSync_Unchanged() {
+        stockImageMirror.sync(List.of(stockImage("one.jpg", "\"etag1\"")));
+        stockImageMirror.sync(List.of(stockImage("one.jpg", "\"etag1\"")));
+
+        verify(s3Service, times(1)).downloadObject(eq("book-clubs/images/stock/one.jpg"), any(Path.class));
+    }
+
+    @Test
+    void testSync_Changed() throws InterruptedException {
+        stockImageMirror.sync(List.of(stockImage("one.jpg", "\"etag1\"")));
+        stockImageMirror.sync(List.of(stockImage("one.jpg", "\"etag2\"")));
+
+        assertThat(stockImageMirror.getImage("one.jpg").orElseThrow().eTag()).isEqualTo("etag2");
+        // Kept for responses that may still be streaming it
+        assertThat(mirrorDir.resolve("etag1").resolve("one.jpg")).exists();
+
+        Thread.sleep(300);
+        stockImageMirror.sync(List.of(stockImage("one.jpg", "\"etag2\"")));
+
+        assertThat(mirrorDir.resolve("etag1")).doesNotExist();
+    }
+
+    @Test
+    void testSync_Removed() throws InterruptedException {
+        stockImageMirror.sync(List.of(stockImage("one.jpg", "\"etag1\"")));
+        stockImageMirror.sync(List.of());
+
+        assertThat(stockImageMirror.getImage("one.jpg")).isEmpty();
+        assertThat(mirrorDir.resolve("etag1")).exists();
+
+        Thread.sleep(300);
+        stockImageMirror.sync(List.of());
+
+        assertThat(mirrorDir.resolve("etag1")).doesNotExist();
+    }
+
+    @Test
+    void testSync_DownloadFailed() {
+        stockImageMirror.sync(List.of(stockImage("one.jpg", "\"etag1\"")));
+        doThrow(SdkClientException.create("S3 is down")).when(s3Service).downloadObject(anyString(), any(Path.class));
+
+        stockImageMirror.sync(List.of(stockImage("one.jpg", "\"etag2\""), stockImage("two.jpg", "\"etag3\"")));
+
+        assertThat(stockImageMirror.getImage("one.jpg").orElseThrow().eTag()).isEqualTo("etag1");
+        assertThat(stockImageMirror.getImage("two.jpg")).isEmpty();
+        assertThat(mirrorDir.resolve("etag1").resolve("one.jpg")).exists();
+    }
+
+    private static S3Object stockImage(String fileName, String eTag) {
+        return S3Object.builder()
+                .key("book-clubs/images/stock/" + fileName)
+                .size((long) fileName.length())
+                .eTag(eTag)
+                .build();
+    }
+}
@@ -17,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
@@ -28,6 +29,9 @@ class UserServiceTest {
     @MockBean
     UserRepo userRepo;
 
+    @MockBean
+    UserCache userCache;
+
     @Test
     void testFindByID() {
         when(userRepo.findById(any(UUID.class))).thenReturn(Optional.of(new User()));
@@ -60,6 +64,15 @@ class UserServiceTest {
         assertThat(result).isNotNull();
     }
 
+    @Test
+    void testRemoveUser_EvictsPrincipal() {
+        when(userRepo.findById(any(UUID.class)))
+                .thenReturn(Optional.of(User.builder().username("someuser").build()));
+        when(userRepo.save(any(User.class))).thenReturn(new User());
+        userService.removeUser(UUID.randomUUID());
+        verify(userCache, times(1)).removeUserFromCache("someuser");
+    }
+
     @Test
     void testRemoveUser_UserNotFound() {
         when(userRepo.findById(any(UUID.class))).thenReturn(Optional.empty());
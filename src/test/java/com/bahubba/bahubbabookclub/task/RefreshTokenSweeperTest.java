@@ -0,0 +1,74 @@
+package com.bahubba.bahubbabookclub.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bahubba.bahubbabookclub.model.entity.RefreshToken;
+import com.bahubba.bahubbabookclub.repository.RefreshTokenRepo;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Unit tests for the {@link RefreshTokenSweeper} */
+@SpringBootTest(
+        properties = {
+            "app.properties.refresh_token_sweeper.batch_size=2",
+            "app.properties.refresh_token_sweeper.pause_millis=0"
+        })
+@ActiveProfiles("test")
+class RefreshTokenSweeperTest {
+
+    @Autowired
+    RefreshTokenSweeper refreshTokenSweeper;
+
+    @Autowired
+    RefreshTokenRepo refreshTokenRepo;
+
+    @Autowired
+    ThreadPoolTaskScheduler taskScheduler;
+
+    @AfterEach
+    void cleanUp() {
+        refreshTokenRepo.deleteAll();
+    }
+
+    @Test
+    void testSweep() {
+        for (int i = 0; i < 5; i++) {
+            refreshTokenRepo.save(refreshToken(Instant.now().minusSeconds(60L * (i + 1))));
+        }
+        RefreshToken unexpired =
+                refreshTokenRepo.save(refreshToken(Instant.now().plusSeconds(60)));
+
+        int result = refreshTokenSweeper.sweep();
+
+        assertThat(result).isEqualTo(5);
+        assertThat(refreshTokenRepo.findAll()).extracting(RefreshToken::getId).containsExactly(unexpired.getId());
+    }
+
+    @Test
+    void testSweep_NothingExpired() {
+        refreshTokenRepo.save(refreshToken(Instant.now().plusSeconds(60)));
+
+        assertThat(refreshTokenSweeper.sweep()).isZero();
+        assertThat(refreshTokenRepo.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testScheduler_SweepDoesNotHoldUpOtherJobs() {
+        // A sweep sleeps between batches, so it mustn't have the only scheduling thread
+        assertThat(taskScheduler.getScheduledThreadPoolExecutor().getCorePoolSize())
+                .isGreaterThanOrEqualTo(4);
+    }
+
+    private static RefreshToken refreshToken(Instant expiryDate) {
+        return RefreshToken.builder()
+                .token(UUID.randomUUID().toString())
+                .expiryDate(expiryDate)
+                .build();
+    }
+}
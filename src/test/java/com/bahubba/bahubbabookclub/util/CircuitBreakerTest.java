@@ -0,0 +1,138 @@
+package com.bahubba.bahubbabookclub.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bahubba.bahubbabookclub.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the {@link CircuitBreaker} */
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new CircuitBreaker(
+                "test", 2, Duration.ofSeconds(10), e -> e instanceof IllegalStateException, meterRegistry, clock::get);
+    }
+
+    @Test
+    void testCall_OpensAfterConsecutiveFailures() {
+        fail();
+        fail();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> circuitBreaker.call(() -> "ok"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .extracting("retryAfterSeconds")
+                .isEqualTo(11L);
+        assertThat(meterRegistry.get("circuit-breaker.state").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("circuit-breaker.rejections").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void testCall_SuccessResetsFailures() {
+        fail();
+        circuitBreaker.call(() -> "ok");
+        fail();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testCall_IgnoredExceptionsDontCount() {
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> circuitBreaker.call(() -> {
+                        throw new IllegalArgumentException("Bad request");
+                    }))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testCall_HalfOpenProbeCloses() {
+        fail();
+        fail();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(circuitBreaker.call(() -> "ok")).isEqualTo("ok");
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(meterRegistry
+                        .get("circuit-breaker.transitions")
+                        .tag("from", "HALF_OPEN")
+                        .tag("to", "CLOSED")
+                        .counter()
+                        .count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void testCall_HalfOpenProbeReopens() {
+        fail();
+        fail();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        fail();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> circuitBreaker.call(() -> "ok")).isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    void testCall_SingleProbe() {
+        fail();
+        fail();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // Calls arriving while the probe is still in flight are rejected
+        String result = circuitBreaker.call(() -> {
+            assertThatThrownBy(() -> circuitBreaker.call(() -> "concurrent"))
+                    .isInstanceOf(ServiceUnavailableException.class);
+            return "probe";
+        });
+
+        assertThat(result).isEqualTo("probe");
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testCall_FailuresWhileOpenKeepOpenedAt() {
+        // A call let through while closed fails after the breaker has opened under it
+        assertThatThrownBy(() -> circuitBreaker.call(() -> {
+                    fail();
+                    fail();
+                    clock.addAndGet(Duration.ofSeconds(5).toNanos());
+                    throw new IllegalStateException("Timed out");
+                }))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> circuitBreaker.call(() -> "ok"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .extracting("retryAfterSeconds")
+                .isEqualTo(6L);
+
+        // Still probes once the open duration from when it first opened has passed
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertThat(circuitBreaker.call(() -> "ok")).isEqualTo("ok");
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private void fail() {
+        assertThatThrownBy(() -> circuitBreaker.call(() -> {
+                    throw new IllegalStateException("Timed out");
+                }))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
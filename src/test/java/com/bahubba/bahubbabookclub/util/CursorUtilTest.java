@@ -0,0 +1,67 @@
+package com.bahubba.bahubbabookclub.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bahubba.bahubbabookclub.exception.InvalidCursorException;
+import com.bahubba.bahubbabookclub.model.dto.CursorPageDTO;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the {@link CursorUtil} */
+class CursorUtilTest {
+
+    @Test
+    void testEncode_RoundTrip() {
+        LocalDateTime time = LocalDateTime.of(2023, 9, 14, 8, 30, 15, 123456789);
+        UUID id = UUID.randomUUID();
+
+        String cursor = CursorUtil.encode(time, id);
+
+        assertThat(cursor).doesNotContain("=", "+", "/");
+        assertThat(CursorUtil.decode(cursor)).isEqualTo(new CursorUtil.Cursor(time, id));
+    }
+
+    @Test
+    void testDecode_Blank() {
+        assertThat(CursorUtil.decode(null)).isNull();
+        assertThat(CursorUtil.decode("")).isNull();
+    }
+
+    @Test
+    void testDecode_Invalid() {
+        assertThatThrownBy(() -> CursorUtil.decode("not a cursor")).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> CursorUtil.decode("AAAA")).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void testToPage_HasNext() {
+        CursorPageDTO<String> page = CursorUtil.toPage(List.of(1, 2, 3), 2, String::valueOf, i -> "row " + i);
+
+        assertThat(page.getContent()).containsExactly("row 1", "row 2");
+        assertThat(page.getSize()).isEqualTo(2);
+        assertThat(page.getNextCursor()).isEqualTo("2");
+    }
+
+    @Test
+    void testToPage_LastPage() {
+        CursorPageDTO<Integer> page = CursorUtil.toPage(List.of(1, 2), 2, String::valueOf, Function.identity());
+
+        assertThat(page.getContent()).containsExactly(1, 2);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void testPageSize_Clamped() {
+        assertThat(CursorUtil.pageRequest(0).getPageSize()).isEqualTo(2);
+        assertThat(CursorUtil.pageRequest(1000).getPageSize()).isEqualTo(APIConstants.MAX_PAGE_SIZE + 1);
+
+        List<Integer> rows = IntStream.range(0, 60).boxed().toList();
+        CursorPageDTO<Integer> page = CursorUtil.toPage(rows, 1000, String::valueOf, Function.identity());
+        assertThat(page.getSize()).isEqualTo(APIConstants.MAX_PAGE_SIZE);
+    }
+}